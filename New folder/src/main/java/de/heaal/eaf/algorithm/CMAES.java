@@ -0,0 +1,551 @@
+/*
+ * Evolutionary Algorithms Framework
+ *
+ * Copyright (c) 2023 Christian Lins <christian.lins@haw-hamburg.de>
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package de.heaal.eaf.algorithm;
+
+import de.heaal.eaf.base.Algorithm;
+import de.heaal.eaf.base.EndCondition;
+import de.heaal.eaf.base.GenericIndividualFactory;
+import de.heaal.eaf.base.Individual;
+import de.heaal.eaf.evaluation.ComparatorIndividual;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Covariance Matrix Adaptation Evolution Strategy (Hansen) with rank-one and
+ * rank-mu update and cumulative step size adaptation. The eigendecomposition
+ * of C is updated lazily, about every 1 / (10 n (c1 + cmu) / lambda)
+ * generations. The separable variant adapts only the diagonal of C with
+ * O(n) cost per sample (Ros and Hansen), which suits problems with a
+ * thousand and more dimensions.
+ * 
+ * With IPOP restarts the run starts again from a random mean with the
+ * doubled population size as soon as the search stagnates. Without restarts
+ * stagnation ends the run with CONVERGENCE_MINIMAL.
+ */
+public class CMAES extends Algorithm {
+    
+    private final GenericIndividualFactory indFac;
+    private final float[] min, max;
+    private final int n;
+    private final float relativeSigma;
+    private boolean separable;
+    private int maxRestarts;
+    // Population size of the first start, restarts double lambda
+    private int initialLambda;
+    
+    // Strategy parameters of the current population size
+    private int lambda, mu;
+    private double[] weights;
+    private double mueff, cc, cs, c1, cmu, damps, chiN;
+    
+    // Strategy state
+    private double[] mean, pc, ps, diagD, diagC;
+    private double[][] cov, basis;
+    private double sigma, sigma0;
+    private int strategyGeneration, eigenGeneration, restarts;
+    private boolean converged;
+    private float[] bestHistory;
+    private int historyCount;
+    
+    // Buffers of the update, allocated once per population size
+    private double[][] steps;
+    private double[] ymean, tmp;
+    
+    /**
+     * @param relativeSigma initial step size relative to the mean of max - min, e.g. 0.3
+     */
+    public CMAES(float[] min, float[] max, float relativeSigma,
+            Comparator<Individual> comparator, ComparatorIndividual terminationCriterion)
+    {
+        super(comparator, null);
+        if (min.length != max.length) {
+            throw new IllegalArgumentException("min.length != max.length");
+        }
+        if (!(relativeSigma > 0)) {
+            throw new IllegalArgumentException("relativeSigma must be positive");
+        }
+        this.indFac = new GenericIndividualFactory(min, max);
+        this.min = min;
+        this.max = max;
+        this.n = min.length;
+        this.relativeSigma = relativeSigma;
+        this.initialLambda = 4 + (int) (3 * Math.log(n));
+        
+        setEndCondition(EndCondition.targetValue(comparator, terminationCriterion));
+    }
+    
+    /**
+     * Adapts only the variances, C is diagonal. Must be set before run().
+     */
+    public void setSeparable(boolean separable) {
+        this.separable = separable;
+    }
+    
+    /**
+     * Sets the initial population size, the default is 4 + 3 ln(n).
+     */
+    public void setPopulationSize(int lambda) {
+        if (lambda < 2) {
+            throw new IllegalArgumentException("lambda < 2");
+        }
+        this.initialLambda = lambda;
+    }
+    
+    /**
+     * Enables IPOP restarts with doubling population size.
+     * 
+     * @param maxRestarts maximum number of restarts, 0 disables restarts
+     */
+    public void setRestarts(int maxRestarts) {
+        if (maxRestarts < 0) {
+            throw new IllegalArgumentException("maxRestarts < 0");
+        }
+        this.maxRestarts = maxRestarts;
+    }
+    
+    private void setupParameters() {
+        mu = lambda / 2;
+        weights = new double[mu];
+        double sum = 0;
+        for (int i = 0; i < mu; i++) {
+            weights[i] = Math.log(mu + 0.5) - Math.log(i + 1);
+            sum += weights[i];
+        }
+        double sumSq = 0;
+        for (int i = 0; i < mu; i++) {
+            weights[i] /= sum;
+            sumSq += weights[i] * weights[i];
+        }
+        mueff = 1 / sumSq;
+        
+        cc = (4 + mueff / n) / (n + 4 + 2 * mueff / n);
+        cs = (mueff + 2) / (n + mueff + 5);
+        c1 = 2 / ((n + 1.3) * (n + 1.3) + mueff);
+        cmu = Math.min(1 - c1, 2 * (mueff - 2 + 1 / mueff) / ((n + 2) * (n + 2) + mueff));
+        if (separable) {
+            // The diagonal has n instead of n^2 / 2 degrees of freedom
+            c1 = Math.min(1, c1 * (n + 2) / 3);
+            cmu = Math.min(1 - c1, cmu * (n + 2) / 3);
+        }
+        damps = 1 + 2 * Math.max(0, Math.sqrt((mueff - 1) / (n + 1)) - 1) + cs;
+        chiN = Math.sqrt(n) * (1 - 1.0 / (4 * n) + 1.0 / (21.0 * n * n));
+        
+        steps = new double[mu][n];
+        ymean = new double[n];
+        tmp = new double[n];
+        bestHistory = new float[10 + (int) Math.ceil(30.0 * n / lambda)];
+        historyCount = 0;
+    }
+    
+    /**
+     * Starts the strategy from a random mean. The initial C scales the axes
+     * by their ranges, so boxes with different side lengths are searched
+     * evenly.
+     */
+    private void startStrategy() {
+        allocateStrategy();
+        
+        double meanRange = 0;
+        for (int i = 0; i < n; i++) {
+            meanRange += (max[i] - min[i]) / (double) n;
+        }
+        sigma0 = relativeSigma * meanRange;
+        sigma = sigma0;
+        for (int i = 0; i < n; i++) {
+            mean[i] = min[i] + rng.nextDouble() * (max[i] - min[i]);
+            diagD[i] = (max[i] - min[i]) / meanRange;
+            if (separable) {
+                diagC[i] = diagD[i] * diagD[i];
+            } else {
+                cov[i][i] = diagD[i] * diagD[i];
+                basis[i][i] = 1;
+            }
+        }
+        strategyGeneration = 0;
+        eigenGeneration = 0;
+        converged = false;
+    }
+    
+    private void allocateStrategy() {
+        setupParameters();
+        mean = new double[n];
+        pc = new double[n];
+        ps = new double[n];
+        diagD = new double[n];
+        diagC = separable ? new double[n] : null;
+        cov = separable ? null : new double[n][n];
+        basis = separable ? null : new double[n][n];
+    }
+    
+    @Override
+    public void nextGeneration() {
+        super.nextGeneration();
+        
+        sample();
+        population.sort(comparator);
+        logData();
+        
+        Individual best = population.get(0);
+        updateStatistics(best, spread(best, population.get(population.size() - 1)));
+        
+        updateStrategy();
+        if (stagnated()) {
+            if (restarts < maxRestarts) {
+                restarts++;
+                lambda *= 2;
+                createPopulation(indFac, lambda);
+                startStrategy();
+            } else {
+                converged = true;
+            }
+        }
+    }
+    
+    @Override
+    protected EndCondition.TYPE internalEndCondition() {
+        return converged ? EndCondition.TYPE.CONVERGENCE_MINIMAL : null;
+    }
+    
+    /**
+     * Samples x = m + sigma * B D z into the genomes of the population.
+     * Points outside of the box are clamped, the update uses the clamped
+     * points.
+     */
+    private void sample() {
+        double[] z = tmp;
+        for (int k = 0; k < lambda; k++) {
+            Individual ind = population.get(k);
+            float[] x = ind.getGenome().writableArray();
+            for (int i = 0; i < n; i++) {
+                z[i] = diagD[i] * rng.nextGaussian();
+            }
+            for (int i = 0; i < n; i++) {
+                double y;
+                if (separable) {
+                    y = z[i];
+                } else {
+                    y = 0;
+                    double[] row = basis[i];
+                    for (int j = 0; j < n; j++) {
+                        y += row[j] * z[j];
+                    }
+                }
+                double value = mean[i] + sigma * y;
+                x[i] = (float) Math.max(min[i], Math.min(value, Math.nextDown(max[i])));
+            }
+            ind.clearCache();
+        }
+    }
+    
+    private void updateStrategy() {
+        strategyGeneration++;
+        
+        // Steps y = (x - m) / sigma of the mu best and their weighted mean
+        Arrays.fill(ymean, 0);
+        for (int k = 0; k < mu; k++) {
+            float[] x = population.get(k).getGenome().array();
+            double[] y = steps[k];
+            for (int i = 0; i < n; i++) {
+                y[i] = (x[i] - mean[i]) / sigma;
+                ymean[i] += weights[k] * y[i];
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            mean[i] += sigma * ymean[i];
+        }
+        
+        // Conjugate evolution path ps uses C^-1/2 ymean = B D^-1 B^T ymean
+        double[] z = tmp;
+        if (separable) {
+            for (int i = 0; i < n; i++) {
+                z[i] = ymean[i] / diagD[i];
+            }
+        } else {
+            double[] bt = new double[n];
+            for (int j = 0; j < n; j++) {
+                double sum = 0;
+                for (int i = 0; i < n; i++) {
+                    sum += basis[i][j] * ymean[i];
+                }
+                bt[j] = sum / diagD[j];
+            }
+            for (int i = 0; i < n; i++) {
+                double sum = 0;
+                double[] row = basis[i];
+                for (int j = 0; j < n; j++) {
+                    sum += row[j] * bt[j];
+                }
+                z[i] = sum;
+            }
+        }
+        double csn = Math.sqrt(cs * (2 - cs) * mueff);
+        double psNorm = 0;
+        for (int i = 0; i < n; i++) {
+            ps[i] = (1 - cs) * ps[i] + csn * z[i];
+            psNorm += ps[i] * ps[i];
+        }
+        psNorm = Math.sqrt(psNorm);
+        boolean hsig = psNorm / Math.sqrt(1 - Math.pow(1 - cs, 2.0 * strategyGeneration)) / chiN
+                < 1.4 + 2.0 / (n + 1);
+        double ccn = hsig ? Math.sqrt(cc * (2 - cc) * mueff) : 0;
+        for (int i = 0; i < n; i++) {
+            pc[i] = (1 - cc) * pc[i] + ccn * ymean[i];
+        }
+        
+        // Rank-one and rank-mu update, the stalled pc is compensated if !hsig
+        double c1a = c1 * (1 - (hsig ? 0 : cc * (2 - cc)));
+        double decay = 1 - c1a - cmu;
+        if (separable) {
+            for (int i = 0; i < n; i++) {
+                double rankMu = 0;
+                for (int k = 0; k < mu; k++) {
+                    rankMu += weights[k] * steps[k][i] * steps[k][i];
+                }
+                diagC[i] = decay * diagC[i] + c1 * pc[i] * pc[i] + cmu * rankMu;
+                diagD[i] = Math.sqrt(diagC[i]);
+            }
+        } else {
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j <= i; j++) {
+                    double rankMu = 0;
+                    for (int k = 0; k < mu; k++) {
+                        rankMu += weights[k] * steps[k][i] * steps[k][j];
+                    }
+                    cov[i][j] = decay * cov[i][j] + c1 * pc[i] * pc[j] + cmu * rankMu;
+                    cov[j][i] = cov[i][j];
+                }
+            }
+        }
+        
+        sigma *= Math.exp(Math.min(1, (cs / damps) * (psNorm / chiN - 1)));
+        
+        if (!separable && strategyGeneration - eigenGeneration > lambda / (c1 + cmu) / n / 10) {
+            eigenGeneration = strategyGeneration;
+            decompose();
+        }
+    }
+    
+    /**
+     * Updates B and D from C = B D^2 B^T.
+     */
+    private void decompose() {
+        double[] values = new double[n];
+        jacobi(cov, basis, values);
+        for (int i = 0; i < n; i++) {
+            diagD[i] = Math.sqrt(Math.max(values[i], 1e-300));
+        }
+    }
+    
+    /**
+     * Cyclic Jacobi eigenvalue algorithm for a symmetric matrix.
+     * 
+     * @param a symmetric matrix, not changed
+     * @param vectors receives the eigenvectors as columns
+     * @param values receives the eigenvalues
+     */
+    static void jacobi(double[][] a, double[][] vectors, double[] values) {
+        int n = values.length;
+        double[][] s = new double[n][];
+        for (int i = 0; i < n; i++) {
+            s[i] = a[i].clone();
+            Arrays.fill(vectors[i], 0);
+            vectors[i][i] = 1;
+        }
+        for (int sweep = 0; sweep < 100; sweep++) {
+            double off = 0, diag = 0;
+            for (int p = 0; p < n; p++) {
+                diag += s[p][p] * s[p][p];
+                for (int q = p + 1; q < n; q++) {
+                    off += s[p][q] * s[p][q];
+                }
+            }
+            if (off <= 1e-30 * diag) {
+                break;
+            }
+            for (int p = 0; p < n - 1; p++) {
+                for (int q = p + 1; q < n; q++) {
+                    double apq = s[p][q];
+                    if (apq == 0) {
+                        continue;
+                    }
+                    double theta = (s[q][q] - s[p][p]) / (2 * apq);
+                    double t = Math.signum(theta) / (Math.abs(theta) + Math.sqrt(theta * theta + 1));
+                    if (theta == 0) {
+                        t = 1;
+                    }
+                    double c = 1 / Math.sqrt(t * t + 1);
+                    double sn = t * c;
+                    for (int k = 0; k < n; k++) {
+                        double skp = s[k][p], skq = s[k][q];
+                        s[k][p] = c * skp - sn * skq;
+                        s[k][q] = sn * skp + c * skq;
+                    }
+                    for (int k = 0; k < n; k++) {
+                        double spk = s[p][k], sqk = s[q][k];
+                        s[p][k] = c * spk - sn * sqk;
+                        s[q][k] = sn * spk + c * sqk;
+                    }
+                    for (int k = 0; k < n; k++) {
+                        double vkp = vectors[k][p], vkq = vectors[k][q];
+                        vectors[k][p] = c * vkp - sn * vkq;
+                        vectors[k][q] = sn * vkp + c * vkq;
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            values[i] = s[i][i];
+        }
+    }
+    
+    /**
+     * Stagnation criteria of Hansen: the best fitness did not change over the
+     * last generations, the steps have no effect on the float genome any
+     * more, or C is too ill-conditioned.
+     */
+    private boolean stagnated() {
+        float best = population.get(0).getCache();
+        bestHistory[historyCount++ % bestHistory.length] = best;
+        if (historyCount >= bestHistory.length) {
+            float lo = Float.POSITIVE_INFINITY, hi = Float.NEGATIVE_INFINITY;
+            for (float f : bestHistory) {
+                lo = Math.min(lo, f);
+                hi = Math.max(hi, f);
+            }
+            float spread = spread(population.get(0), population.get(population.size() - 1));
+            if (hi - lo <= 1e-12f * Math.max(1, Math.abs(lo)) && spread <= 1e-12f * Math.max(1, Math.abs(best))) {
+                return true;
+            }
+        }
+        
+        boolean noEffect = true;
+        double maxD = 0, minD = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            double sd = sigma * (separable ? diagD[i] : Math.sqrt(cov[i][i]));
+            if ((float) (mean[i] + 0.2 * sd) != (float) mean[i]) {
+                noEffect = false;
+            }
+            maxD = Math.max(maxD, diagD[i]);
+            minD = Math.min(minD, diagD[i]);
+        }
+        return noEffect || maxD > 1e7 * minD || !Double.isFinite(sigma);
+    }
+    
+    @Override
+    protected void writeState(DataOutputStream out) throws IOException {
+        out.writeInt(lambda);
+        out.writeInt(restarts);
+        out.writeInt(strategyGeneration);
+        out.writeInt(eigenGeneration);
+        out.writeBoolean(converged);
+        out.writeDouble(sigma);
+        out.writeDouble(sigma0);
+        writeArray(out, mean);
+        writeArray(out, pc);
+        writeArray(out, ps);
+        writeArray(out, diagD);
+        if (separable) {
+            writeArray(out, diagC);
+        } else {
+            for (int i = 0; i < n; i++) {
+                writeArray(out, cov[i]);
+                writeArray(out, basis[i]);
+            }
+        }
+        out.writeInt(historyCount);
+        for (float f : bestHistory) {
+            out.writeFloat(f);
+        }
+    }
+    
+    @Override
+    protected void readState(DataInputStream in) throws IOException {
+        lambda = in.readInt();
+        allocateStrategy();
+        restarts = in.readInt();
+        strategyGeneration = in.readInt();
+        eigenGeneration = in.readInt();
+        converged = in.readBoolean();
+        sigma = in.readDouble();
+        sigma0 = in.readDouble();
+        readArray(in, mean);
+        readArray(in, pc);
+        readArray(in, ps);
+        readArray(in, diagD);
+        if (separable) {
+            readArray(in, diagC);
+        } else {
+            for (int i = 0; i < n; i++) {
+                readArray(in, cov[i]);
+                readArray(in, basis[i]);
+            }
+        }
+        historyCount = in.readInt();
+        for (int i = 0; i < bestHistory.length; i++) {
+            bestHistory[i] = in.readFloat();
+        }
+    }
+    
+    private static void writeArray(DataOutputStream out, double[] values) throws IOException {
+        for (double v : values) {
+            out.writeDouble(v);
+        }
+    }
+    
+    private static void readArray(DataInputStream in, double[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            values[i] = in.readDouble();
+        }
+    }
+    
+    @Override
+    public void run() {
+        // The configuration is complete only now, the setters may have changed it
+        String name = "cmaes_" + initialLambda + "_" + relativeSigma + "f" + (separable ? "_sep" : "");
+        openLog(name + "/" + name + ".csv");
+        try {
+            // A previous run may have doubled lambda in its restarts
+            lambda = initialLambda;
+            restarts = 0;
+            initialize(indFac, lambda);
+            if (!isResumed()) {
+                startStrategy();
+            }
+            while(!isTerminationCondition()) {
+                System.out.println("Gen: " + statistics.getGeneration());
+                nextGeneration();
+            }
+            logData();
+            System.out.println("Best genome: " + statistics.getBest().getGenome());
+            System.out.println("Cache: " + statistics.getBest().getCache());
+        } finally {
+            endRun();
+        }
+    }
+}
@@ -25,6 +25,8 @@
 package de.heaal.eaf.algorithm;
 
 import de.heaal.eaf.base.Algorithm;
+import de.heaal.eaf.base.EndCondition;
+import de.heaal.eaf.base.GenericIndividualFactory;
 import de.heaal.eaf.base.Individual;
 import de.heaal.eaf.base.IndividualFactory;
 import de.heaal.eaf.crossover.Combination;
@@ -34,9 +36,6 @@ import de.heaal.eaf.mutation.MutationOptions;
 
 import java.util.*;
 
-import static de.heaal.eaf.logger.Logger.createLogFile;
-import static de.heaal.eaf.logger.Logger.logLineToCSV;
-
 /**
  * Implementation of the Hill Climbing algorithm.
  * 
@@ -57,6 +56,7 @@ public class DifferentialEvolution extends Algorithm {
     // Mutation variation "rnd"/"best"
     private final String trialVectorVariation;
     private final String scaleFactorVariation;
+    private final MutationOptions mutationOptions;
     private final String logFile;
 
 
@@ -64,11 +64,27 @@ public class DifferentialEvolution extends Algorithm {
                                  Combination combination, Comparator<Individual> comparator,
                                  String trialVectorVariation, String scaleFactorVariation,
                                  Mutation mutator, ComparatorIndividual terminationCriterion)
+    {
+        this(new GenericIndividualFactory(min, max), stepsize, crossoverRate, numDA, populationSize,
+                combination, comparator, trialVectorVariation, scaleFactorVariation, mutator, terminationCriterion);
+    }
+
+    /**
+     * Creates the algorithm with a factory chosen by the caller, e.g. a
+     * ParticleFactory if the individuals should carry particle state.
+     *
+     * @param indFac factory for the initial population
+     */
+    public DifferentialEvolution(IndividualFactory indFac, float stepsize, float crossoverRate, int numDA, int populationSize,
+                                 Combination combination, Comparator<Individual> comparator,
+                                 String trialVectorVariation, String scaleFactorVariation,
+                                 Mutation mutator, ComparatorIndividual terminationCriterion)
     {
         super(comparator, mutator);
-        this.indFac = new ParticleFactory(min, max);
+        this.indFac = indFac;
         this.terminationCriterion = terminationCriterion;
         this.combination = combination;
+        combination.setRandom(rng);
         this.stepsize = stepsize;
         this.crossoverRate = crossoverRate;
         if (numDA < 1 || numDA > 2) {
@@ -90,9 +106,25 @@ public class DifferentialEvolution extends Algorithm {
             throw new IllegalArgumentException("Scale Factor variation is not known");
         }
 
+        MutationOptions.Builder opt = MutationOptions.builder();
+        opt.put(MutationOptions.KEYS.STEPSIZE, stepsize);
+        opt.put(MutationOptions.KEYS.NUMDA, numDA);
+        if(trialVectorVariation.equals("rnd")) {
+            opt.put(MutationOptions.KEYS.TRIAL_VECTOR_VARIATION, 1);
+        } else if (trialVectorVariation.equals("best")) {
+            opt.put(MutationOptions.KEYS.TRIAL_VECTOR_VARIATION, 2);
+        }
+        if(scaleFactorVariation.equals("D")) {
+            opt.put(MutationOptions.KEYS.SCALE_FACTOR_VARIATION, 1);
+        } else if (scaleFactorVariation.equals("J")) {
+            opt.put(MutationOptions.KEYS.SCALE_FACTOR_VARIATION, 2);
+        } else {
+            opt.put(MutationOptions.KEYS.SCALE_FACTOR_VARIATION, 0);
+        }
+        this.mutationOptions = opt.build();
+
         // Create the log file with configuration data in the name
         StringBuilder path = new StringBuilder();
-        path.append("data/");
 
         StringBuilder name = new StringBuilder();
         name.append("de_");
@@ -107,102 +139,88 @@ public class DifferentialEvolution extends Algorithm {
 
         path.append(strName).append("/").append(strName).append(".csv");
 
-        this.logFile = createLogFile(path.toString());
-        if(logFile == null){
-            throw new NullPointerException("log file is null");
-        }
+        this.logFile = path.toString();
+
+        // Stop at the target value, but not later than after 2001 generations (runaway)
+        setEndCondition(EndCondition.targetValue(comparator, terminationCriterion)
+                .or(EndCondition.generationMaximum(2001)));
     }
     
+    @Override
+    public void setRandom(Random rng) {
+        super.setRandom(rng);
+        combination.setRandom(rng);
+    }
+
     @Override
     public void nextGeneration() {
         super.nextGeneration();
 
         population.sort(comparator);
-        logData(logFile);
-
-        MutationOptions opt = new MutationOptions();
-        opt.put(MutationOptions.KEYS.STEPSIZE, stepsize);
-        opt.put(MutationOptions.KEYS.NUMDA, numDA);
-        if(trialVectorVariation.equals("rnd")) {
-            opt.put(MutationOptions.KEYS.TRIAL_VECTOR_VARIATION, 1);
-        } else if (trialVectorVariation.equals("best")) {
-            opt.put(MutationOptions.KEYS.TRIAL_VECTOR_VARIATION, 2);
-        }
-        if(scaleFactorVariation.equals("D")) {
-            opt.put(MutationOptions.KEYS.SCALE_FACTOR_VARIATION, 1);
-        } else if (scaleFactorVariation.equals("J")) {
-            opt.put(MutationOptions.KEYS.SCALE_FACTOR_VARIATION, 2);
-        } else {
-            opt.put(MutationOptions.KEYS.SCALE_FACTOR_VARIATION, 0);
+        if (polish()) {
+            population.sort(comparator);
         }
+        logData();
+
+        Individual best = population.get(0);
+        Individual worst = null;
 
+        // Step 1. Create the trial vectors of the whole Population by applying mutation
+        Individual[] trials = new Individual[population.size()];
+        for (int i = 0; i < trials.length; i++) {
+            trials[i] = population.get(i).copy();
+        }
+        mutator.setPopulation(population);
+        mutator.mutate(trials, mutationOptions);
 
         // For each Individual of the current Population
         for (int i = 0; i < population.size(); i++) {
-            // Step 1. Create the trial vector by applying mutation
             Individual parent =  population.get(i).copy();
-            Individual trial = population.get(i).copy();
-            mutator.setPopulation(population);
-            mutator.mutate(trial, opt);
 
             // Step 2. Create a child by applying crossover
             Individual[] parents = new Individual[2];
-            parents[0] = trial;
+            parents[0] = trials[i];
             parents[1] = parent;
             Individual child = combination.combine(parents);
 
             // Step 3. Calculate the fitness of the child and the parent Individual and select the fittest
             if(comparator.compare(child, parent) >= 0) {
                 population.set(i, child);
+                if (comparator.compare(child, best) > 0) {
+                    best = child;
+                }
+            }
+            // The spread describes the population after the selection
+            Individual survivor = population.get(i);
+            if (worst == null || comparator.compare(worst, survivor) > 0) {
+                worst = survivor;
             }
-        }
-    }
-
-    /**
-     * Iterates trough population and writes fitness of each individual to the log file
-     *
-     * @param logFile name of the log file
-     */
-    public void logData(String logFile) {
-        Float[] data = new Float[population.size()];
-        for(int i = 0; i < population.size(); i++) {
-            data[i] = population.get(i).getCache();
-        }
-        logLineToCSV(data,logFile);
-    }
-  
-    @Override
-    public boolean isTerminationCondition() {
-        boolean termination = false;
-
-        for(int i = 0; i < population.size(); i++) {
-            if (comparator.compare(population.get(i), terminationCriterion) > 0)
-                termination = true;
         }
 
-        return termination;
+        updateStatistics(best, spread(best, worst));
     }
 
     @Override
     public void run() {
-        initialize(indFac, populationSize);
-        int runaway = 2001;
-        int count = 0;
-        while(!isTerminationCondition() && count < runaway) {
-            System.out.println("Gen: " + count);
-            nextGeneration();
-            count++;
-        }
+        openLog(logFile);
+        try {
+            initialize(indFac, populationSize);
+            while(!isTerminationCondition()) {
+                System.out.println("Gen: " + statistics.getGeneration());
+                nextGeneration();
+            }
 
-        population.sort(comparator);
-        logData(logFile);
+            population.sort(comparator);
+            logData();
 
-        if (count >= runaway) {
-            System.out.println("The Algorithm is terminated. It is a Runaway");
+            if (getEndReason() == EndCondition.TYPE.GENERATION_MAXIMUM) {
+                System.out.println("The Algorithm is terminated. It is a Runaway");
+            }
+            System.out.println("Best Genome: " + statistics.getBest().getGenome());
+            System.out.println("Cache: " + statistics.getBest().getCache());
+        } finally {
+            endRun();
         }
-        System.out.println("Best Genome: " + population.get(0).getGenome());
-        System.out.println("Cache: " + population.get(0).getCache());
-
     }
 
 }
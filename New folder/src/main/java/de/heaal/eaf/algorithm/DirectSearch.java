@@ -0,0 +1,137 @@
+/*
+ * Evolutionary Algorithms Framework
+ *
+ * Copyright (c) 2023 Christian Lins <christian.lins@haw-hamburg.de>
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package de.heaal.eaf.algorithm;
+
+import de.heaal.eaf.base.Algorithm;
+import de.heaal.eaf.base.EndCondition;
+import de.heaal.eaf.base.GenericIndividualFactory;
+import de.heaal.eaf.base.Individual;
+import de.heaal.eaf.evaluation.ComparatorIndividual;
+import java.util.Comparator;
+
+/**
+ * Base of the derivative-free direct search algorithms for small problems.
+ * The objective is static, so the fitness of the kept points stays cached
+ * between the generations and only new candidates are evaluated. With
+ * parallel evaluation all candidates of a step are evaluated at once,
+ * otherwise only those the step actually compares.
+ */
+public abstract class DirectSearch extends Algorithm {
+    
+    // Relative size of the search pattern below which it is rebuilt around the best point
+    protected static final float RESTART_SIZE = 1e-5f;
+    
+    protected final float[] min, max;
+    private final GenericIndividualFactory indFac;
+    private final String logFile;
+    private boolean parallel = Runtime.getRuntime().availableProcessors() > 1;
+    
+    /**
+     * @param name configuration name of the log, the log is data/name/name.csv
+     */
+    protected DirectSearch(float[] min, float[] max, Comparator<Individual> comparator,
+            ComparatorIndividual terminationCriterion, String name)
+    {
+        super(comparator, null);
+        this.indFac = new GenericIndividualFactory(min, max);
+        this.min = min;
+        this.max = max;
+        this.logFile = name + "/" + name + ".csv";
+        setEndCondition(EndCondition.targetValue(comparator, terminationCriterion));
+    }
+    
+    /**
+     * Evaluates all candidates of a step in parallel, even those the
+     * sequential algorithm would skip. This trades evaluations for wall-clock
+     * time and is enabled by default on multi-core machines. The comparator
+     * must be thread safe.
+     * 
+     * @param parallel true for speculative parallel evaluation
+     */
+    public void setParallelEvaluation(boolean parallel) {
+        this.parallel = parallel;
+    }
+    
+    protected boolean isParallelEvaluation() {
+        return parallel;
+    }
+    
+    /**
+     * Builds the search pattern around the random start point population[0].
+     */
+    protected abstract void initializeSearch();
+    
+    /**
+     * Evaluates the candidates in parallel if enabled. Otherwise they are
+     * evaluated lazily by the comparisons of the step.
+     */
+    protected void evaluate(Individual... candidates) {
+        if (parallel) {
+            evaluate(candidates, true);
+        }
+    }
+    
+    /**
+     * Creates a new point from a copy of the prototype. The genome is
+     * clamped into [min, max).
+     */
+    protected Individual createAt(Individual prototype, double[] genome) {
+        Individual ind = prototype.copy();
+        for (int d = 0; d < genome.length; d++) {
+            float value = (float) Math.max(min[d], Math.min(genome[d], Math.nextDown(max[d])));
+            ind.getGenome().set(d, value);
+        }
+        ind.clearCache();
+        return ind;
+    }
+    
+    /**
+     * @return true if a is better than b
+     */
+    protected boolean better(Individual a, Individual b) {
+        return comparator.compare(a, b) > 0;
+    }
+    
+    @Override
+    public void run() {
+        openLog(logFile);
+        try {
+            initialize(indFac, 1);
+            if (!isResumed()) {
+                initializeSearch();
+            }
+            while(!isTerminationCondition()) {
+                System.out.println("Gen: " + statistics.getGeneration());
+                nextGeneration();
+            }
+            logData();
+            System.out.println("Best genome: " + population.get(0).getGenome());
+            System.out.println("Cache: " + population.get(0).getCache());
+        } finally {
+            endRun();
+        }
+    }
+}
@@ -33,14 +33,10 @@ import de.heaal.eaf.evaluation.MinimizeFunctionComparator;
 import de.heaal.eaf.mutation.Mutation;
 import de.heaal.eaf.mutation.MutationOptions;
 
-import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.List;
 import java.util.Random;
 import java.util.function.Function;
 
-import static de.heaal.eaf.logger.Logger.createLogFile;
-import static de.heaal.eaf.logger.Logger.logLineToCSV;
 import static de.heaal.eaf.selection.SelectionUtils.selectNormal;
 
 /**
@@ -55,6 +51,7 @@ public class GeneticAlgorithm extends Algorithm {
     private final Combination combination;
     private final int populationSize;
     private final float mutationRate;
+    private final MutationOptions mutationOptions;
     private final boolean useElitism;
     private final int numberElitism;
     private final String logFile;
@@ -63,11 +60,26 @@ public class GeneticAlgorithm extends Algorithm {
     public GeneticAlgorithm(float[] min, float[] max, int populationSize,
                             Combination combination, boolean useElitism,
                             Comparator<Individual> comparator, Mutation mutator,  ComparatorIndividual terminationCriterion)
+    {
+        this(new GenericIndividualFactory(min, max), populationSize, combination, useElitism,
+                comparator, mutator, terminationCriterion);
+    }
+
+    /**
+     * Creates the algorithm with a factory chosen by the caller, e.g. a
+     * ParticleFactory if the individuals should carry particle state.
+     *
+     * @param indFac factory for the initial population
+     */
+    public GeneticAlgorithm(IndividualFactory indFac, int populationSize,
+                            Combination combination, boolean useElitism,
+                            Comparator<Individual> comparator, Mutation mutator,  ComparatorIndividual terminationCriterion)
     {
         super(comparator, mutator);
-        this.indFac = new ParticleFactory(min, max);
+        this.indFac = indFac;
         this.terminationCriterion = terminationCriterion;
         this.combination = combination;
+        combination.setRandom(rng);
         if(populationSize <= 1) {
             throw new IllegalArgumentException("Population size must be greater than 1");
         }
@@ -76,12 +88,14 @@ public class GeneticAlgorithm extends Algorithm {
 
         // Better to be small: [0.05; 0.3], otherwise the algo degenerates to just random search
         this.mutationRate = 0.01f;
+        this.mutationOptions = MutationOptions.builder()
+                .put(MutationOptions.KEYS.MUTATION_PROBABILITY, mutationRate)
+                .build();
         // Better to be small: 1-2
         this.numberElitism = 1;
 
         // Create the log file with configuration data in the name
         StringBuilder path = new StringBuilder();
-        path.append("data/");
 
         StringBuilder name = new StringBuilder();
         name.append("ge").append("_");
@@ -103,10 +117,15 @@ public class GeneticAlgorithm extends Algorithm {
 
         path.append(strName).append("/").append(strName).append(".csv");
 
-        this.logFile = createLogFile(path.toString());
-        if(logFile == null){
-            throw new NullPointerException("log file is null");
-        }
+        this.logFile = path.toString();
+
+        setEndCondition(EndCondition.targetValue(comparator, terminationCriterion));
+    }
+    
+    @Override
+    public void setRandom(Random rng) {
+        super.setRandom(rng);
+        combination.setRandom(rng);
     }
     
     @Override
@@ -116,34 +135,34 @@ public class GeneticAlgorithm extends Algorithm {
         // Step 1 calculate the fitness of each Parent in the Population
         // and sort the Population in descending order
         population.sort(comparator);
+        if (polish()) {
+            population.sort(comparator);
+        }
 
         // Log the fitness of the population
-        logData(logFile);
+        logData();
+
+        // The statistics describe the sorted parents, the children are
+        // evaluated when they are sorted in the next generation
+        updateStatistics(population.get(0), spread(population.get(0), population.get(population.size() - 1)));
 
         // While |Children| < |Parents|
-        List<Individual> children = new ArrayList<>();
+        Individual[] children = new Individual[population.size()];
 
-        while(children.size() != population.size()) {
+        for(int i = 0; i < children.length; i++) {
             // Step 2 select a pair of different parents
             Individual[] parents = new Individual[2];
-            parents[0] = selectNormal(population, new Random(), null);
-            parents[1] = selectNormal(population, new Random(), parents[0]);
+            parents[0] = selectNormal(population, rng, null);
+            parents[1] = selectNormal(population, rng, parents[0]);
 
             // Step 3 mate the parents
-            children.add(combination.combine(parents));
+            children[i] = combination.combine(parents);
         }
         //Loop
 
         // Step 4 randomly mutate kids
         // Only one feature is allowed to mutate
-        MutationOptions opt = new MutationOptions();
-        opt.put(MutationOptions.KEYS.MUTATION_PROBABILITY, mutationRate);
-
-        Individual ind;
-        for(int i = 0; i < population.size(); i++) {
-            ind = children.get(i);
-            mutator.mutate(ind, opt);
-        }
+        mutator.mutate(children, mutationOptions);
 
         // Step 5 set the children as the new population and exterminate the parents
 
@@ -152,51 +171,28 @@ public class GeneticAlgorithm extends Algorithm {
         int startpoint = useElitism ? numberElitism : 0;
 
         for(int i = startpoint; i < population.size(); i++) {
-            population.set(i, children.get(i));
-        }
-    }
-
-    /**
-     * Iterates trough population and writes fitness of each individual to the log file
-     *
-     * @param logFile
-     */
-    public void logData(String logFile) {
-        Float[] data = new Float[population.size()];
-        for(int i = 0; i < population.size(); i++) {
-            data[i] = population.get(i).getCache();
-        }
-        logLineToCSV(data,logFile);
-    }
-  
-    @Override
-    public boolean isTerminationCondition() {
-        boolean termination = false;
-
-        for(int i = 0; i < population.size(); i++) {
-            if (comparator.compare(population.get(i), terminationCriterion) > 0)
-                termination = true;
+            population.set(i, children[i]);
         }
-
-        return termination;
     }
 
     @Override
     public void run() {
-        initialize(indFac, populationSize);
-        int count = 0;
-        while(!isTerminationCondition()) {
-            System.out.println("Gen: " + count);
-            nextGeneration();
-            count++;
+        openLog(logFile);
+        try {
+            initialize(indFac, populationSize);
+            while(!isTerminationCondition()) {
+                System.out.println("Gen: " + statistics.getGeneration());
+                nextGeneration();
+            }
+
+            population.sort(comparator);
+            logData();
+
+            System.out.println("Best Genome: " + population.get(0).getGenome());
+            System.out.println("Cache: " + population.get(0).getCache());
+        } finally {
+            endRun();
         }
-
-        population.sort(comparator);
-        logData(logFile);
-
-        System.out.println("Best Genome: " + population.get(0).getGenome());
-        System.out.println("Cache: " + population.get(0).getCache());
-
     }
 
 }
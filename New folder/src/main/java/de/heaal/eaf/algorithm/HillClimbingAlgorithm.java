@@ -28,14 +28,17 @@ import de.heaal.eaf.base.*;
 import de.heaal.eaf.crossover.AverageCrossover;
 import de.heaal.eaf.crossover.SinglePointCrossover;
 import de.heaal.eaf.evaluation.ComparatorIndividual;
+import de.heaal.eaf.evaluation.IncrementalFunction;
+import de.heaal.eaf.evaluation.MinimizeFunctionComparator;
+import de.heaal.eaf.mutation.GaussianMutation;
 import de.heaal.eaf.mutation.Mutation;
 import de.heaal.eaf.mutation.MutationOptions;
-// import de.heaal.eaf.mutation.MutationOptions;
+import de.heaal.eaf.mutation.RandomMutation;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.util.Comparator;
 
-import static de.heaal.eaf.logger.Logger.createLogFile;
-import static de.heaal.eaf.logger.Logger.logLineToCSV;
-
 /**
  * Implementation of the Hill Climbing algorithm.
  * 
@@ -47,75 +50,267 @@ public class HillClimbingAlgorithm extends Algorithm {
     private final ComparatorIndividual terminationCriterion;
     private final String logFile;
     private final float mutationsRate;
+    private final MutationOptions mutationOptions;
+
+    // Number of accepted incremental updates after which the aggregates are
+    // computed from scratch again to get rid of accumulated rounding errors
+    private static final int RESYNC_INTERVAL = 1024;
+
+    // Set if the fitness can be updated incrementally, see IncrementalFunction
+    private final IncrementalFunction incremental;
+    private double[] aggregates;
+    private double[] candidateAggregates;
+    private float currentValue;
+    private int acceptedUpdates;
+
+    // Number of mutants per step, more than one samples the neighbourhood (steepest ascent)
+    private int neighbours = 1;
+    private boolean parallel = Runtime.getRuntime().availableProcessors() > 1;
+    // Set if the step size follows the one-fifth success rule
+    private final GaussianMutation adaptive;
+    private final float initialStepSize;
 
     public HillClimbingAlgorithm(float[] min, float[] max, 
             Comparator<Individual> comparator, Mutation mutator, 
             ComparatorIndividual terminationCriterion) 
+    {
+        this(new GenericIndividualFactory(min, max), comparator, mutator, terminationCriterion);
+    }
+
+    /**
+     * Creates the algorithm with a factory chosen by the caller, e.g. a
+     * ParticleFactory if the individual should carry particle state.
+     *
+     * @param indFac factory for the initial individual
+     */
+    public HillClimbingAlgorithm(IndividualFactory indFac,
+            Comparator<Individual> comparator, Mutation mutator, 
+            ComparatorIndividual terminationCriterion) 
     {
         super(comparator, mutator);
-        this.indFac = new ParticleFactory(min, max);
+        this.indFac = indFac;
         this.terminationCriterion = terminationCriterion;
         this.mutationsRate = 1.0f;
+        this.mutationOptions = MutationOptions.builder()
+                .put(MutationOptions.KEYS.MUTATION_PROBABILITY, mutationsRate)
+                .build();
+
+        // RandomMutation changes a single gene, so an incremental fitness function
+        // can be updated in O(1) instead of being evaluated from scratch
+        if (comparator instanceof MinimizeFunctionComparator mfc
+                && mfc.getEvaluator() instanceof IncrementalFunction f
+                && mutator instanceof RandomMutation) {
+            this.incremental = f;
+        } else {
+            this.incremental = null;
+        }
+        this.adaptive = mutator instanceof GaussianMutation g ? g : null;
+        this.initialStepSize = adaptive != null ? adaptive.getStepSize() : 0;
 
         // Create the log file
         // ToDo: maybe log the configuration data into the name of logfile aswell
         StringBuilder sb = new StringBuilder();
-        sb.append("data/hca").append("_");
+        sb.append("hca").append("_");
         sb.append(mutationsRate);
         sb.append(".csv");
-        this.logFile = createLogFile(sb.toString());
-        if(logFile == null){
-            throw new NullPointerException("log file is null");
+        this.logFile = sb.toString();
+
+        setEndCondition(EndCondition.targetValue(comparator, terminationCriterion));
+    }
+
+    /**
+     * Samples k mutants per step and accepts the best one if it improves
+     * (steepest ascent). The mutants are created one after another and
+     * evaluated in parallel, so a step takes about as long as one
+     * evaluation on k cores. A GaussianMutation adapts its step size to
+     * the share of improving mutants.
+     *
+     * @param k number of mutants per step, 1 for the plain (1+1) step
+     */
+    public void setNeighbourhoodSize(int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("neighbourhood size must be positive");
         }
+        this.neighbours = k;
+    }
+
+    /**
+     * Evaluates the mutants of a step in parallel. Enabled by default on
+     * multi-core machines, the comparator must be thread safe.
+     */
+    public void setParallelEvaluation(boolean parallel) {
+        this.parallel = parallel;
     }
     
     @Override
     public void nextGeneration() {
+        if (neighbours > 1 || adaptive != null) {
+            logData();
+            nextGenerationNeighbourhood();
+            return;
+        }
+
         super.nextGeneration();
-        logData(logFile);
+        logData();
+
+        if (incremental != null) {
+            nextGenerationIncremental();
+            return;
+        }
 
         // HIER KÖNNTE DER ALGORITHMUS-LOOP STEHEN
         // mutating b*
         Individual rndInd = population.get(0).copy();
-        MutationOptions opt = new MutationOptions();
-        opt.put(MutationOptions.KEYS.MUTATION_PROBABILITY, mutationsRate);
-        mutator.mutate(rndInd, opt);
+        mutator.mutate(rndInd, mutationOptions);
 
         if(comparator.compare(population.get(0), rndInd) < 0){
             population.set(0, rndInd);
         }
+
+        // Because we only have a population of 1 individual we know that
+        // this individual is our current best.
+        updateStatistics(population.get(0), Float.NaN);
     }
 
     /**
-     * Log fitness of the individual to the log file
-     *
-     * @param logFile
+     * Samples the neighbourhood of the current individual. The current
+     * individual keeps its fitness.
+     */
+    private void nextGenerationNeighbourhood() {
+        Individual current = population.get(0);
+        Individual[] mutants = new Individual[neighbours];
+        for (int i = 0; i < neighbours; i++) {
+            mutants[i] = current.copy();
+            mutator.mutate(mutants[i], mutationOptions);
+        }
+        evaluate(mutants, parallel && neighbours > 1);
+
+        Individual best = current;
+        int successes = 0;
+        for (Individual mutant : mutants) {
+            if (comparator.compare(mutant, current) > 0) {
+                successes++;
+                if (comparator.compare(mutant, best) > 0) {
+                    best = mutant;
+                }
+            }
+        }
+        population.set(0, best);
+        if (adaptive != null) {
+            adaptive.adaptStepSize(successes, neighbours);
+        }
+
+        updateStatistics(best, Float.NaN);
+    }
+
+    /**
+     * Same step as nextGeneration() but the fitness of the mutant is derived
+     * from the aggregates of the current individual and the single changed gene.
      */
-    public void logData(String logFile) {
-        Float[] data = new Float[1];
-        data[0] = population.get(0).getCache();
-        logLineToCSV(data,logFile);
+    private void nextGenerationIncremental() {
+        Individual current = population.get(0);
+        // The cache was cleared by the generation change but the genome did not change
+        current.setCache(currentValue);
+
+        Individual rndInd = current.copy();
+        int gene = ((RandomMutation) mutator).mutateFeature(rndInd, mutationOptions);
+        if (gene < 0) {
+            updateStatistics(current, Float.NaN);
+            return;
+        }
+
+        float[] genome = rndInd.getGenome().array();
+        System.arraycopy(aggregates, 0, candidateAggregates, 0, aggregates.length);
+        incremental.update(genome, gene, current.getGenome().get(gene), candidateAggregates);
+        rndInd.setCache(incremental.value(genome, candidateAggregates));
+        countEvaluations(1);
+
+        if(comparator.compare(current, rndInd) < 0){
+            population.set(0, rndInd);
+            currentValue = rndInd.getCache();
+
+            double[] tmp = aggregates;
+            aggregates = candidateAggregates;
+            candidateAggregates = tmp;
+
+            if (++acceptedUpdates % RESYNC_INTERVAL == 0) {
+                resetAggregates();
+            }
+        }
+
+        updateStatistics(population.get(0), Float.NaN);
     }
-  
+
+    /**
+     * Computes the aggregates of the current individual from scratch.
+     */
+    private void resetAggregates() {
+        Individual current = population.get(0);
+        float[] genome = current.getGenome().array();
+        incremental.aggregate(genome, aggregates);
+        currentValue = incremental.value(genome, aggregates);
+        current.setCache(currentValue);
+    }
+
     @Override
-    public boolean isTerminationCondition() {
-        // Because we only have a population of 1 individual we know that
-        // this individual is our current best.
-        return comparator.compare(population.get(0), terminationCriterion) > 0;
+    protected void writeState(DataOutputStream out) throws IOException {
+        // The aggregates carry the rounding of the incremental updates, a
+        // resumed run only continues bit-exactly if they are restored as well
+        out.writeBoolean(incremental != null);
+        if (incremental != null) {
+            for (double a : aggregates) {
+                out.writeDouble(a);
+            }
+            out.writeFloat(currentValue);
+            out.writeInt(acceptedUpdates);
+        }
+        if (adaptive != null) {
+            out.writeFloat(adaptive.getStepSize());
+        }
+    }
+
+    @Override
+    protected void readState(DataInputStream in) throws IOException {
+        if (in.readBoolean() != (incremental != null)) {
+            throw new IllegalStateException("checkpoint does not match the incremental evaluation");
+        }
+        if (incremental != null) {
+            aggregates = new double[incremental.aggregateCount()];
+            candidateAggregates = new double[incremental.aggregateCount()];
+            for (int i = 0; i < aggregates.length; i++) {
+                aggregates[i] = in.readDouble();
+            }
+            currentValue = in.readFloat();
+            acceptedUpdates = in.readInt();
+        }
+        if (adaptive != null) {
+            adaptive.setStepSize(in.readFloat());
+        }
     }
 
     @Override
     public void run() {
-        initialize(indFac, 1);
-        int count = 0;
-        while(!isTerminationCondition()) {
-            System.out.println("Gen: " + count);
-            nextGeneration();
-            count++;
-        }
-        logData(logFile);
-        System.out.println("Best genome: " + population.get(0).getGenome());
-        System.out.println("Cache: " + population.get(0).getCache());
+        openLog(logFile);
+        try {
+            initialize(indFac, 1);
+            if (incremental != null && !isResumed()) {
+                aggregates = new double[incremental.aggregateCount()];
+                candidateAggregates = new double[incremental.aggregateCount()];
+                resetAggregates();
+            }
+            if (adaptive != null && !isResumed()) {
+                adaptive.setStepSize(initialStepSize);
+            }
+            while(!isTerminationCondition()) {
+                System.out.println("Gen: " + statistics.getGeneration());
+                nextGeneration();
+            }
+            logData();
+            System.out.println("Best genome: " + population.get(0).getGenome());
+            System.out.println("Cache: " + population.get(0).getCache());
+        } finally {
+            endRun();
+        }
     }   
 
 }
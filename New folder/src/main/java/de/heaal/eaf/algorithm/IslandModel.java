@@ -0,0 +1,231 @@
+/*
+ * Evolutionary Algorithms Framework
+ *
+ * Copyright (c) 2023 Christian Lins <christian.lins@haw-hamburg.de>
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package de.heaal.eaf.algorithm;
+
+import de.heaal.eaf.base.Algorithm;
+import de.heaal.eaf.base.EndCondition;
+import de.heaal.eaf.base.Individual;
+import de.heaal.eaf.base.Migration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Island model: independent algorithms, e.g. GeneticAlgorithm or
+ * DifferentialEvolution instances, run on their own threads and exchange
+ * their best individuals every few generations over a topology. Every
+ * island has a lock-free inbox, emigrants are put into the inboxes of the
+ * neighbors and immigrants are taken from the own inbox without waiting,
+ * so islands never block each other.
+ * 
+ * Every island needs its own comparator instance to count its evaluations.
+ * The run ends when all islands have ended, as soon as one island reaches
+ * the target value the others are cancelled. The model can be run again,
+ * every run starts with empty inboxes and uncancelled islands.
+ */
+public class IslandModel {
+    
+    public static enum TOPOLOGY {
+        RING,             // Island k sends to island k+1
+        FULLY_CONNECTED,  // Every island sends to all others
+        RANDOM            // Every migration goes to one random other island
+    }
+    
+    private final List<? extends Algorithm> islands;
+    private final Comparator<Individual> comparator;
+    private final TOPOLOGY topology;
+    private final List<ConcurrentLinkedQueue<Individual>> inboxes;
+    private final List<Port> ports;
+    private long seed = System.nanoTime();
+    // Ends the islands of the current run, also those that have not started yet
+    private volatile boolean stopped;
+    
+    /**
+     * @param islands the algorithms, configured except for the migration
+     * @param comparator ranks the results of the islands, only cached values are compared
+     * @param topology the islands each island sends its emigrants to
+     * @param interval number of generations between two migrations
+     * @param migrants number of emigrants per migration and island
+     */
+    public IslandModel(List<? extends Algorithm> islands, Comparator<Individual> comparator,
+            TOPOLOGY topology, int interval, int migrants)
+    {
+        if (islands.size() < 2) {
+            throw new IllegalArgumentException("at least two islands are needed");
+        }
+        this.islands = islands;
+        this.comparator = comparator;
+        this.topology = topology;
+        this.inboxes = new ArrayList<>(islands.size());
+        for (int k = 0; k < islands.size(); k++) {
+            inboxes.add(new ConcurrentLinkedQueue<>());
+        }
+        this.ports = new ArrayList<>(islands.size());
+        for (int k = 0; k < islands.size(); k++) {
+            ports.add(new Port(k));
+            islands.get(k).setMigration(ports.get(k), interval, migrants);
+        }
+    }
+    
+    /**
+     * Seeds the choice of the destinations in the RANDOM topology. The
+     * islands have their own seeds.
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+    
+    /**
+     * Runs every island on its own thread and waits until all have ended.
+     * If an island fails, the others are cancelled and the failure is
+     * rethrown.
+     * 
+     * @return the island with the best result
+     */
+    public Algorithm run() {
+        for (int k = 0; k < islands.size(); k++) {
+            inboxes.get(k).clear();
+            ports.get(k).random = new Random(seed + k);
+        }
+        stopped = false;
+        EndCondition stop = EndCondition.cancelled(() -> stopped);
+        List<Thread> threads = new ArrayList<>(islands.size());
+        List<Throwable> failures = new ArrayList<>();
+        for (int k = 0; k < islands.size(); k++) {
+            Algorithm island = islands.get(k);
+            Thread thread = new Thread(() -> {
+                try {
+                    island.runAnytime(stop);
+                    if (island.getEndReason() == EndCondition.TYPE.TARGET_VALUE) {
+                        cancel();
+                    }
+                } catch (RuntimeException | Error e) {
+                    synchronized (failures) {
+                        failures.add(e);
+                    }
+                    cancel();
+                }
+            }, "Island-" + k);
+            threads.add(thread);
+            thread.start();
+        }
+        try {
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        } catch (InterruptedException e) {
+            cancel();
+            Thread.currentThread().interrupt();
+        }
+        if (!failures.isEmpty()) {
+            throw new IllegalStateException("island failed", failures.get(0));
+        }
+        return best();
+    }
+    
+    /**
+     * Cancels all islands. May be called from any thread.
+     */
+    public void cancel() {
+        stopped = true;
+        islands.forEach(Algorithm::cancel);
+    }
+    
+    /**
+     * @return the island with the best individual
+     */
+    public Algorithm best() {
+        Algorithm best = islands.get(0);
+        for (Algorithm island : islands) {
+            Individual ind = island.getStatistics().getBest();
+            if (ind != null && (best.getStatistics().getBest() == null
+                    || comparator.compare(ind, best.getStatistics().getBest()) > 0)) {
+                best = island;
+            }
+        }
+        return best;
+    }
+    
+    /**
+     * @return evaluations of all islands in their last runs
+     */
+    public long getEvaluations() {
+        return islands.stream().mapToLong(island -> island.getStatistics().getEvaluations()).sum();
+    }
+    
+    public List<? extends Algorithm> getIslands() {
+        return islands;
+    }
+    
+    /**
+     * Connection of one island to the inboxes.
+     */
+    private class Port implements Migration {
+        
+        private final int index;
+        private Random random;
+        
+        Port(int index) {
+            this.index = index;
+        }
+        
+        @Override
+        public List<Individual> exchange(List<Individual> emigrants) {
+            int size = islands.size();
+            switch (topology) {
+                case RING -> send((index + 1) % size, emigrants, false);
+                case FULLY_CONNECTED -> {
+                    for (int k = 1; k < size; k++) {
+                        // The last destination gets the emigrants themselves
+                        send((index + k) % size, emigrants, k < size - 1);
+                    }
+                }
+                case RANDOM -> send((index + 1 + random.nextInt(size - 1)) % size, emigrants, false);
+            }
+            List<Individual> immigrants = new ArrayList<>();
+            Individual ind;
+            while ((ind = inboxes.get(index).poll()) != null) {
+                immigrants.add(ind);
+            }
+            return immigrants;
+        }
+        
+        private void send(int destination, List<Individual> emigrants, boolean copy) {
+            for (Individual ind : emigrants) {
+                Individual sent = ind;
+                if (copy) {
+                    sent = ind.copy();
+                    if (ind.hasCache()) {
+                        sent.setCache(ind.getCache());
+                    }
+                }
+                inboxes.get(destination).offer(sent);
+            }
+        }
+    }
+}
@@ -0,0 +1,292 @@
+/*
+ * Evolutionary Algorithms Framework
+ *
+ * Copyright (c) 2023 Christian Lins <christian.lins@haw-hamburg.de>
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package de.heaal.eaf.algorithm;
+
+import de.heaal.eaf.base.Algorithm;
+import de.heaal.eaf.base.EndCondition;
+import de.heaal.eaf.base.GenericIndividualFactory;
+import de.heaal.eaf.base.Individual;
+import de.heaal.eaf.evaluation.ComparatorIndividual;
+import de.heaal.eaf.mutation.Mutation;
+import de.heaal.eaf.mutation.MutationOptions;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Multi-start hill climbing: many independent (1+1) chains like the one of
+ * HillClimbingAlgorithm climb at the same time, one chain per task of the
+ * common pool. A generation lets every chain try a number of steps, so the
+ * threads only meet once per generation. Improvements are published
+ * through an atomic incumbent that can be read from any thread at any time.
+ * 
+ * Chains that did not improve for a number of steps can be restarted
+ * between two generations, at a random point or near the incumbent. Every
+ * chain has its own mutation operator and random generator, both seeded
+ * from the generator of the algorithm. A chain only stops before the end
+ * of a generation when it reached the target itself, and at the end of a
+ * generation the incumbent is chosen in chain order, the lowest chain wins
+ * among equally good ones. So a run does not depend on the scheduling of
+ * the threads. The comparator must be thread safe.
+ */
+public class MultiStartHillClimbing extends Algorithm {
+    
+    public static enum RESTART {
+        NONE,            // Chains never restart
+        RANDOM,          // Stagnated chains start again at a random point
+        NEAR_INCUMBENT   // Stagnated chains start again close to the incumbent
+    }
+    
+    private final GenericIndividualFactory indFac;
+    private final float[] min, max;
+    private final int chainCount;
+    private final Supplier<? extends Mutation> mutators;
+    private final ComparatorIndividual terminationCriterion;
+    private final MutationOptions mutationOptions;
+    private int steps = 1000;
+    private RESTART restart = RESTART.NONE;
+    private int stagnationSteps;
+    private float radius;
+    private boolean parallel = Runtime.getRuntime().availableProcessors() > 1;
+    
+    // Chain k works on population.get(k)
+    private Mutation[] chainMutators;
+    private int[] stagnation;
+    private final AtomicReference<Individual> incumbent = new AtomicReference<>();
+    
+    /**
+     * @param chains number of chains, e.g. a multiple of the number of cores
+     * @param mutators creates the mutation operator of every chain, e.g.
+     *        () -> new RandomMutation(min, max)
+     */
+    public MultiStartHillClimbing(float[] min, float[] max, int chains,
+            Comparator<Individual> comparator, Supplier<? extends Mutation> mutators,
+            ComparatorIndividual terminationCriterion)
+    {
+        super(comparator, null);
+        if (min.length != max.length) {
+            throw new IllegalArgumentException("min.length != max.length");
+        }
+        if (chains < 1) {
+            throw new IllegalArgumentException("chains must be positive");
+        }
+        this.indFac = new GenericIndividualFactory(min, max);
+        this.min = min;
+        this.max = max;
+        this.chainCount = chains;
+        this.mutators = mutators;
+        this.terminationCriterion = terminationCriterion;
+        this.mutationOptions = MutationOptions.builder()
+                .put(MutationOptions.KEYS.MUTATION_PROBABILITY, 1.0f)
+                .build();
+        
+        setEndCondition(EndCondition.targetValue(comparator, terminationCriterion));
+    }
+    
+    /**
+     * @param steps steps of every chain per generation, default 1000
+     */
+    public void setStepsPerGeneration(int steps) {
+        if (steps < 1) {
+            throw new IllegalArgumentException("steps must be positive");
+        }
+        this.steps = steps;
+    }
+    
+    /**
+     * Restarts chains that did not improve for stagnationSteps steps.
+     * 
+     * @param restart where the chains start again
+     * @param stagnationSteps steps without improvement
+     * @param radius for NEAR_INCUMBENT, maximum distance per gene relative to max - min
+     */
+    public void setRestart(RESTART restart, int stagnationSteps, float radius) {
+        if (restart != RESTART.NONE && stagnationSteps < 1) {
+            throw new IllegalArgumentException("stagnationSteps must be positive");
+        }
+        if (restart == RESTART.NEAR_INCUMBENT && !(radius > 0)) {
+            throw new IllegalArgumentException("radius must be positive");
+        }
+        this.restart = restart;
+        this.stagnationSteps = stagnationSteps;
+        this.radius = radius;
+    }
+    
+    /**
+     * Runs the chains in parallel. Enabled by default on multi-core machines.
+     */
+    public void setParallelEvaluation(boolean parallel) {
+        this.parallel = parallel;
+    }
+    
+    /**
+     * Returns the best individual of all chains so far. May be called from
+     * any thread while the algorithm runs, it is updated within generations.
+     * Within a generation it may be any of equally good individuals, between
+     * generations it is the one of the lowest chain.
+     * 
+     * @return the incumbent, must not be changed, null before the run
+     */
+    public Individual getIncumbent() {
+        return incumbent.get();
+    }
+    
+    private void startChains() {
+        chainMutators = new Mutation[chainCount];
+        stagnation = new int[chainCount];
+        incumbent.set(null);
+        for (int k = 0; k < chainCount; k++) {
+            chainMutators[k] = mutators.get();
+            chainMutators[k].setRandom(new Random(rng.nextLong()));
+            offer(population.get(k));
+        }
+    }
+    
+    @Override
+    public void nextGeneration() {
+        Individual previous = incumbent.get();
+        IntStream range = IntStream.range(0, chainCount);
+        (parallel ? range.parallel() : range).forEach(this::climb);
+        commitIncumbent(previous);
+        
+        if (restart != RESTART.NONE) {
+            for (int k = 0; k < chainCount; k++) {
+                if (stagnation[k] >= stagnationSteps) {
+                    restartChain(k);
+                }
+            }
+        }
+        logData();
+        
+        Individual worst = population.get(0);
+        for (Individual ind : population) {
+            if (comparator.compare(worst, ind) > 0) {
+                worst = ind;
+            }
+        }
+        Individual best = incumbent.get();
+        updateStatistics(best, spread(best, worst));
+    }
+    
+    /**
+     * Runs the steps of chain k, stops early when the chain reached the target.
+     */
+    private void climb(int k) {
+        Individual current = population.get(k);
+        Mutation mutator = chainMutators[k];
+        for (int step = 0; step < steps; step++) {
+            Individual candidate = current.copy();
+            mutator.mutate(candidate, mutationOptions);
+            if (comparator.compare(candidate, current) > 0) {
+                current = candidate;
+                stagnation[k] = 0;
+                offer(current);
+                if (comparator.compare(current, terminationCriterion) > 0) {
+                    break;
+                }
+            } else {
+                stagnation[k]++;
+            }
+        }
+        population.set(k, current);
+    }
+    
+    /**
+     * Replaces the incumbent of the threads, which depends on the order of
+     * arrival among equally good individuals, by the best chain of the
+     * lowest index. A chain always holds its best individual.
+     * 
+     * @param previous incumbent at the start of the generation
+     */
+    private void commitIncumbent(Individual previous) {
+        Individual best = previous;
+        for (Individual ind : population) {
+            if (best == null || comparator.compare(ind, best) > 0) {
+                best = ind;
+            }
+        }
+        if (best != previous) {
+            Individual copy = best.copy();
+            copy.setCache(best.getCache());
+            incumbent.set(copy);
+        }
+    }
+    
+    /**
+     * Makes the individual the incumbent if it is better. Lock-free, the
+     * incumbent is a copy that is never changed.
+     */
+    private void offer(Individual ind) {
+        Individual current = incumbent.get();
+        if (current != null && comparator.compare(ind, current) <= 0) {
+            return;
+        }
+        Individual copy = ind.copy();
+        copy.setCache(ind.getCache());
+        incumbent.accumulateAndGet(copy,
+                (cur, cand) -> cur == null || comparator.compare(cand, cur) > 0 ? cand : cur);
+    }
+    
+    private void restartChain(int k) {
+        Individual start = indFac.create();
+        Individual best = incumbent.get();
+        if (restart == RESTART.NEAR_INCUMBENT && best != null) {
+            float[] genome = start.getGenome().writableArray();
+            float[] center = best.getGenome().array();
+            for (int d = 0; d < genome.length; d++) {
+                float value = center[d] + (2 * rng.nextFloat() - 1) * radius * (max[d] - min[d]);
+                genome[d] = Math.max(min[d], Math.min(value, Math.nextDown(max[d])));
+            }
+            start.clearCache();
+        }
+        population.set(k, start);
+        stagnation[k] = 0;
+        offer(start);
+    }
+    
+    @Override
+    public void run() {
+        // Create the log file with configuration data in the name
+        String name = "mshc_" + chainCount + "_" + steps + "_" + restart.name().toLowerCase();
+        openLog(name + "/" + name + ".csv");
+        try {
+            initialize(indFac, chainCount);
+            // A resumed run goes on from the positions of the chains with new random streams
+            startChains();
+            while(!isTerminationCondition()) {
+                System.out.println("Gen: " + statistics.getGeneration());
+                nextGeneration();
+            }
+            logData();
+            System.out.println("Best genome: " + incumbent.get().getGenome());
+            System.out.println("Cache: " + incumbent.get().getCache());
+        } finally {
+            endRun();
+        }
+    }
+}
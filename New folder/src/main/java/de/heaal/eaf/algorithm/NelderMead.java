@@ -0,0 +1,199 @@
+/*
+ * Evolutionary Algorithms Framework
+ *
+ * Copyright (c) 2023 Christian Lins <christian.lins@haw-hamburg.de>
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package de.heaal.eaf.algorithm;
+
+import de.heaal.eaf.base.Individual;
+import de.heaal.eaf.evaluation.ComparatorIndividual;
+import java.util.Comparator;
+
+/**
+ * Nelder-Mead simplex algorithm with the dimension dependent coefficients of
+ * Gao and Han. The population is the simplex of n+1 vertices, sorted best
+ * first. One generation is one reflection, expansion, contraction or shrink
+ * step. A collapsed simplex is rebuilt around the best vertex.
+ */
+public class NelderMead extends DirectSearch {
+    
+    private final float initialStep;
+    private final double alpha, beta, gamma, delta;
+    
+    /**
+     * @param initialStep edge length of the initial simplex relative to max - min
+     */
+    public NelderMead(float[] min, float[] max, float initialStep,
+            Comparator<Individual> comparator, ComparatorIndividual terminationCriterion)
+    {
+        super(min, max, comparator, terminationCriterion, "nelder_mead_" + initialStep + "f");
+        if (!(initialStep > 0 && initialStep <= 1)) {
+            throw new IllegalArgumentException("initialStep must be in (0, 1]");
+        }
+        this.initialStep = initialStep;
+        int n = min.length;
+        this.alpha = 1;
+        this.beta = 1 + 2.0 / n;
+        this.gamma = 0.75 - 1.0 / (2 * n);
+        this.delta = n > 1 ? 1 - 1.0 / n : 0.5;
+    }
+    
+    @Override
+    protected void initializeSearch() {
+        buildSimplex(population.get(0));
+    }
+    
+    /**
+     * Replaces the population by a simplex along the axes from the given vertex.
+     */
+    private void buildSimplex(Individual origin) {
+        int n = min.length;
+        float[] x = origin.getGenome().array();
+        Individual[] vertices = new Individual[n];
+        for (int d = 0; d < n; d++) {
+            double[] genome = toDouble(x);
+            double step = initialStep * (max[d] - min[d]);
+            // Step into the box
+            genome[d] += genome[d] + step < max[d] ? step : -step;
+            vertices[d] = createAt(origin, genome);
+        }
+        evaluate(vertices);
+        
+        population.set(0, origin);
+        for (int d = 0; d < n; d++) {
+            if (population.size() > d + 1) {
+                population.set(d + 1, vertices[d]);
+            } else {
+                population.add(vertices[d]);
+            }
+        }
+        population.sort(comparator);
+    }
+    
+    @Override
+    public void nextGeneration() {
+        logData();
+        
+        int n = min.length;
+        Individual best = population.get(0);
+        Individual worst = population.get(n);
+        Individual secondWorst = population.get(n - 1);
+        
+        if (simplexSize() < RESTART_SIZE) {
+            buildSimplex(best);
+            updateStatistics(population.get(0), spread(population.get(0), population.get(n)));
+            return;
+        }
+        
+        double[] centroid = new double[n];
+        for (int i = 0; i < n; i++) {
+            float[] x = population.get(i).getGenome().array();
+            for (int d = 0; d < n; d++) {
+                centroid[d] += x[d] / n;
+            }
+        }
+        float[] xw = worst.getGenome().array();
+        Individual reflection = createAt(best, along(centroid, xw, alpha));
+        Individual expansion = createAt(best, along(centroid, xw, alpha * beta));
+        Individual outside = createAt(best, along(centroid, xw, alpha * gamma));
+        Individual inside = createAt(best, along(centroid, xw, -gamma));
+        evaluate(reflection, expansion, outside, inside);
+        
+        Individual accepted = null;
+        if (better(reflection, best)) {
+            accepted = better(expansion, reflection) ? expansion : reflection;
+        } else if (better(reflection, secondWorst)) {
+            accepted = reflection;
+        } else if (better(reflection, worst)) {
+            if (!better(reflection, outside)) {
+                accepted = outside;
+            }
+        } else if (better(inside, worst)) {
+            accepted = inside;
+        }
+        
+        if (accepted != null) {
+            population.set(n, accepted);
+        } else {
+            shrink(best);
+        }
+        population.sort(comparator);
+        
+        updateStatistics(population.get(0), spread(population.get(0), population.get(n)));
+    }
+    
+    /**
+     * Moves all vertices towards the best one.
+     */
+    private void shrink(Individual best) {
+        int n = min.length;
+        float[] xb = best.getGenome().array();
+        Individual[] shrunk = new Individual[n];
+        for (int i = 1; i <= n; i++) {
+            float[] x = population.get(i).getGenome().array();
+            double[] genome = new double[n];
+            for (int d = 0; d < n; d++) {
+                genome[d] = xb[d] + delta * (x[d] - xb[d]);
+            }
+            shrunk[i - 1] = createAt(best, genome);
+        }
+        evaluate(shrunk);
+        for (int i = 1; i <= n; i++) {
+            population.set(i, shrunk[i - 1]);
+        }
+    }
+    
+    /**
+     * @return centroid + t * (centroid - worst)
+     */
+    private static double[] along(double[] centroid, float[] worst, double t) {
+        double[] genome = new double[centroid.length];
+        for (int d = 0; d < genome.length; d++) {
+            genome[d] = centroid[d] + t * (centroid[d] - worst[d]);
+        }
+        return genome;
+    }
+    
+    /**
+     * @return largest distance of a vertex to the best vertex, relative to max - min
+     */
+    private float simplexSize() {
+        float[] xb = population.get(0).getGenome().array();
+        float size = 0;
+        for (int i = 1; i < population.size(); i++) {
+            float[] x = population.get(i).getGenome().array();
+            for (int d = 0; d < xb.length; d++) {
+                size = Math.max(size, Math.abs(x[d] - xb[d]) / (max[d] - min[d]));
+            }
+        }
+        return size;
+    }
+    
+    private static double[] toDouble(float[] x) {
+        double[] genome = new double[x.length];
+        for (int d = 0; d < x.length; d++) {
+            genome[d] = x[d];
+        }
+        return genome;
+    }
+}
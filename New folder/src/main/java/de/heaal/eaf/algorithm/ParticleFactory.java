@@ -25,6 +25,8 @@
 package de.heaal.eaf.algorithm;
 
 import de.heaal.eaf.base.GenericIndividualFactory;
+import de.heaal.eaf.base.Individual;
+import de.heaal.eaf.base.VecN;
 import java.util.stream.IntStream;
 
 /**
@@ -43,6 +45,11 @@ public class ParticleFactory extends GenericIndividualFactory {
         return new Particle(createRandomGenome());
     }
     
+    @Override
+    protected Individual createIndividual(VecN genome) {
+        return new Particle(genome);
+    }
+    
     /**
      * @return highest value in max[] array. 
      */
@@ -0,0 +1,368 @@
+/*
+ * Evolutionary Algorithms Framework
+ *
+ * Copyright (c) 2023 Christian Lins <christian.lins@haw-hamburg.de>
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package de.heaal.eaf.algorithm;
+
+import de.heaal.eaf.base.Algorithm;
+import de.heaal.eaf.base.AlgorithmOptions;
+import de.heaal.eaf.base.AlgorithmOptionsException;
+import de.heaal.eaf.base.EndCondition;
+import de.heaal.eaf.base.GenericIndividual;
+import de.heaal.eaf.base.Individual;
+import de.heaal.eaf.base.VecN;
+import de.heaal.eaf.evaluation.ComparatorIndividual;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+/**
+ * Particle Swarm Optimization. The velocity of particle k is updated by
+ * 
+ *   v = S * v + U(0, P1MAX) * (pbest_k - x) + U(0, P2MAX) * (nbest_k - x)
+ * 
+ * and clamped to VMAX * (max - min) per dimension, nbest_k is the best
+ * personal best in the neighborhood of k given by the topology.
+ * 
+ * Positions, velocities and personal bests of the whole swarm are kept in
+ * flat arrays (structure of arrays), so the update is one loop over the
+ * swarm. The particles of the population mirror that state after every
+ * generation: genome and cache are the personal best, tempPosition and
+ * velocity the current position and velocity.
+ * 
+ * In synchronous mode all particles move, then all are evaluated (in
+ * parallel if enabled) and the neighborhood bests are updated. In
+ * asynchronous mode every particle moves and is evaluated in turn and its
+ * result is seen by the next particles of the same generation.
+ */
+public class ParticleSwarmOptimization extends Algorithm {
+    
+    public static enum TOPOLOGY {
+        GLOBAL,      // All particles are neighbors
+        RING,        // The particles k-1, k and k+1
+        VON_NEUMANN  // The particle and its 4 neighbors on a torus grid
+    }
+    
+    private final ParticleFactory indFac;
+    private final float[] min, max;
+    private final int n, swarmSize;
+    private final float s, p1max, p2max, relativeVmax;
+    private final float[] vmax;
+    private TOPOLOGY topology = TOPOLOGY.GLOBAL;
+    private boolean asynchronous;
+    private boolean parallel = Runtime.getRuntime().availableProcessors() > 1;
+    
+    // Swarm state, particle k occupies the indices [k * n, (k + 1) * n)
+    private float[] position, velocity, personalBest;
+    private float[] r1, r2;
+    private Particle[] particles;
+    private Individual[] probes;
+    private int[][] neighbors;
+    private int[] neighborhoodBest;
+    private int globalBest;
+    
+    /**
+     * @param options N (swarm size, default 40), PSO_S (inertia, default 0.7298),
+     *        PSO_P1MAX and PSO_P2MAX (default 1.49618), PSO_VMAX (relative
+     *        to max - min, default 0.2)
+     */
+    public ParticleSwarmOptimization(float[] min, float[] max, AlgorithmOptions options,
+            Comparator<Individual> comparator, ComparatorIndividual terminationCriterion)
+    {
+        super(comparator, null);
+        if (min.length != max.length) {
+            throw new IllegalArgumentException("min.length != max.length");
+        }
+        this.indFac = new ParticleFactory(min, max);
+        this.min = min;
+        this.max = max;
+        this.n = min.length;
+        this.swarmSize = options.get(AlgorithmOptions.KEYS.N, 40);
+        this.s = options.get(AlgorithmOptions.KEYS.PSO_S, 0.7298f);
+        this.p1max = options.get(AlgorithmOptions.KEYS.PSO_P1MAX, 1.49618f);
+        this.p2max = options.get(AlgorithmOptions.KEYS.PSO_P2MAX, 1.49618f);
+        this.relativeVmax = options.get(AlgorithmOptions.KEYS.PSO_VMAX, 0.2f);
+        if (s < 0 || p1max < 0 || p2max < 0) {
+            throw new AlgorithmOptionsException("PSO_S, PSO_P1MAX and PSO_P2MAX must not be negative");
+        }
+        if (!(relativeVmax > 0)) {
+            throw new AlgorithmOptionsException("PSO_VMAX must be positive");
+        }
+        this.vmax = new float[n];
+        for (int d = 0; d < n; d++) {
+            vmax[d] = relativeVmax * (max[d] - min[d]);
+        }
+        setEndCondition(EndCondition.targetValue(comparator, terminationCriterion));
+    }
+    
+    /**
+     * Must be set before run().
+     */
+    public void setTopology(TOPOLOGY topology) {
+        this.topology = topology;
+    }
+    
+    /**
+     * @param asynchronous true to update the neighborhood bests after every particle
+     */
+    public void setAsynchronous(boolean asynchronous) {
+        this.asynchronous = asynchronous;
+    }
+    
+    /**
+     * Evaluates the swarm in parallel in synchronous mode. Enabled by default
+     * on multi-core machines, the comparator must be thread safe.
+     */
+    public void setParallelEvaluation(boolean parallel) {
+        this.parallel = parallel;
+    }
+    
+    /**
+     * Binds the flat arrays to the particles of the population. A fresh swarm
+     * starts with random velocities and is evaluated once.
+     */
+    private void bindSwarm(boolean fresh) {
+        particles = new Particle[swarmSize];
+        probes = new Individual[swarmSize];
+        if (fresh) {
+            position = new float[swarmSize * n];
+            velocity = new float[swarmSize * n];
+        }
+        personalBest = new float[swarmSize * n];
+        r1 = new float[swarmSize * n];
+        r2 = new float[swarmSize * n];
+        for (int k = 0; k < swarmSize; k++) {
+            particles[k] = (Particle) population.get(k);
+            probes[k] = new GenericIndividual(new VecN(n));
+            System.arraycopy(particles[k].getGenome().array(), 0, personalBest, k * n, n);
+            if (fresh) {
+                System.arraycopy(personalBest, k * n, position, k * n, n);
+                for (int d = 0; d < n; d++) {
+                    velocity[k * n + d] = (2 * rng.nextFloat() - 1) * vmax[d];
+                }
+            }
+        }
+        if (fresh) {
+            evaluate(particles, parallel);
+            mirror();
+        }
+        buildNeighbors();
+        globalBest = bestOf(IntStream.range(0, swarmSize).toArray());
+        for (int k = 0; k < swarmSize; k++) {
+            neighborhoodBest[k] = bestNeighbor(k);
+        }
+    }
+    
+    private void buildNeighbors() {
+        neighbors = new int[swarmSize][];
+        neighborhoodBest = new int[swarmSize];
+        int cols = (int) Math.ceil(Math.sqrt(swarmSize));
+        int rows = (swarmSize + cols - 1) / cols;
+        for (int k = 0; k < swarmSize; k++) {
+            switch (topology) {
+                case RING -> neighbors[k] = new int[]{
+                    (k + swarmSize - 1) % swarmSize, k, (k + 1) % swarmSize};
+                case VON_NEUMANN -> {
+                    int row = k / cols, col = k % cols;
+                    neighbors[k] = new int[]{k,
+                        gridIndex((row + rows - 1) % rows, col, cols),
+                        gridIndex((row + 1) % rows, col, cols),
+                        gridIndex(row, (col + cols - 1) % cols, cols),
+                        gridIndex(row, (col + 1) % cols, cols)};
+                }
+                default -> neighbors[k] = null;
+            }
+        }
+    }
+    
+    // The last row of the grid may be incomplete, missing cells wrap into the swarm
+    private int gridIndex(int row, int col, int cols) {
+        return (row * cols + col) % swarmSize;
+    }
+    
+    private int bestNeighbor(int k) {
+        if (neighbors[k] == null) {
+            // Global topology: all particles share the best of the swarm
+            return globalBest;
+        }
+        return bestOf(neighbors[k]);
+    }
+    
+    private int bestOf(int[] indices) {
+        int best = indices[0];
+        for (int i = 1; i < indices.length; i++) {
+            if (comparator.compare(particles[indices[i]], particles[best]) > 0) {
+                best = indices[i];
+            }
+        }
+        return best;
+    }
+    
+    @Override
+    public void nextGeneration() {
+        if (asynchronous) {
+            for (int k = 0; k < swarmSize; k++) {
+                neighborhoodBest[k] = bestNeighbor(k);
+                fillRandom(k, k + 1);
+                move(k, k + 1);
+                loadProbe(k);
+                acceptProbe(k);
+            }
+        } else {
+            fillRandom(0, swarmSize);
+            move(0, swarmSize);
+            for (int k = 0; k < swarmSize; k++) {
+                loadProbe(k);
+            }
+            evaluate(probes, parallel);
+            for (int k = 0; k < swarmSize; k++) {
+                acceptProbe(k);
+            }
+            for (int k = 0; k < swarmSize; k++) {
+                neighborhoodBest[k] = bestNeighbor(k);
+            }
+        }
+        mirror();
+        logData();
+        
+        Individual best = particles[0], worst = particles[0];
+        for (Particle p : particles) {
+            if (comparator.compare(p, best) > 0) {
+                best = p;
+            } else if (comparator.compare(worst, p) > 0) {
+                worst = p;
+            }
+        }
+        updateStatistics(best, spread(best, worst));
+    }
+    
+    private void fillRandom(int from, int to) {
+        for (int i = from * n; i < to * n; i++) {
+            r1[i] = rng.nextFloat();
+            r2[i] = rng.nextFloat();
+        }
+    }
+    
+    /**
+     * Updates velocity and position of the particles [from, to) in one pass
+     * over the flat arrays. Particles that hit the box stop in that dimension.
+     */
+    private void move(int from, int to) {
+        for (int k = from; k < to; k++) {
+            int offset = k * n;
+            int bestOffset = neighborhoodBest[k] * n;
+            for (int d = 0; d < n; d++) {
+                int i = offset + d;
+                float x = position[i];
+                float v = s * velocity[i]
+                        + p1max * r1[i] * (personalBest[i] - x)
+                        + p2max * r2[i] * (personalBest[bestOffset + d] - x);
+                v = Math.max(-vmax[d], Math.min(v, vmax[d]));
+                x += v;
+                if (x < min[d]) {
+                    x = min[d];
+                    v = 0;
+                } else if (x >= max[d]) {
+                    x = Math.nextDown(max[d]);
+                    v = 0;
+                }
+                velocity[i] = v;
+                position[i] = x;
+            }
+        }
+    }
+    
+    private void loadProbe(int k) {
+        System.arraycopy(position, k * n, probes[k].getGenome().writableArray(), 0, n);
+        probes[k].clearCache();
+    }
+    
+    /**
+     * Takes the evaluated position of particle k as personal best if it is better.
+     */
+    private void acceptProbe(int k) {
+        if (comparator.compare(probes[k], particles[k]) > 0) {
+            System.arraycopy(position, k * n, personalBest, k * n, n);
+            System.arraycopy(position, k * n, particles[k].getGenome().writableArray(), 0, n);
+            particles[k].setCache(probes[k].getCache());
+            if (comparator.compare(particles[k], particles[globalBest]) > 0) {
+                globalBest = k;
+            }
+        }
+    }
+    
+    /**
+     * Copies current positions and velocities into the particles.
+     */
+    private void mirror() {
+        for (int k = 0; k < swarmSize; k++) {
+            System.arraycopy(position, k * n, particles[k].getTempPosition().writableArray(), 0, n);
+            System.arraycopy(velocity, k * n, particles[k].getVelocity().writableArray(), 0, n);
+        }
+    }
+    
+    @Override
+    protected void writeState(DataOutputStream out) throws IOException {
+        for (int i = 0; i < position.length; i++) {
+            out.writeFloat(position[i]);
+            out.writeFloat(velocity[i]);
+        }
+    }
+    
+    @Override
+    protected void readState(DataInputStream in) throws IOException {
+        position = new float[swarmSize * n];
+        velocity = new float[swarmSize * n];
+        for (int i = 0; i < position.length; i++) {
+            position[i] = in.readFloat();
+            velocity[i] = in.readFloat();
+        }
+    }
+    
+    @Override
+    public void run() {
+        // The configuration is complete only now, the setters may have changed it
+        String name = "pso_" + swarmSize + "_" + s + "f_" + p1max + "f_" + p2max + "f_" + relativeVmax + "f_"
+                + topology.toString().toLowerCase() + (asynchronous ? "_async" : "");
+        openLog(name + "/" + name + ".csv");
+        try {
+            initialize(indFac, swarmSize);
+            bindSwarm(!isResumed());
+            if (isResumed()) {
+                mirror();
+            }
+            while(!isTerminationCondition()) {
+                System.out.println("Gen: " + statistics.getGeneration());
+                nextGeneration();
+            }
+            logData();
+            System.out.println("Best genome: " + statistics.getBest().getGenome());
+            System.out.println("Cache: " + statistics.getBest().getCache());
+        } finally {
+            endRun();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Evolutionary Algorithms Framework
+ *
+ * Copyright (c) 2023 Christian Lins <christian.lins@haw-hamburg.de>
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package de.heaal.eaf.algorithm;
+
+import de.heaal.eaf.base.Individual;
+import de.heaal.eaf.evaluation.ComparatorIndividual;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Compass search, a pattern search along the coordinate axes: the 2n points
+ * x +- step[d] * e_d are polled. If one of them is better, the search moves
+ * there, otherwise all steps are halved. Sequential polling moves to the
+ * first better point, parallel polling to the best one. Once the steps are
+ * tiny they are reset to the initial steps around the best point.
+ */
+public class PatternSearch extends DirectSearch {
+    
+    private final float initialStep;
+    private float[] steps;
+    
+    /**
+     * @param initialStep initial step relative to max - min
+     */
+    public PatternSearch(float[] min, float[] max, float initialStep,
+            Comparator<Individual> comparator, ComparatorIndividual terminationCriterion)
+    {
+        super(min, max, comparator, terminationCriterion, "pattern_search_" + initialStep + "f");
+        if (!(initialStep > 0 && initialStep <= 1)) {
+            throw new IllegalArgumentException("initialStep must be in (0, 1]");
+        }
+        this.initialStep = initialStep;
+    }
+    
+    @Override
+    protected void initializeSearch() {
+        resetSteps();
+    }
+    
+    private void resetSteps() {
+        steps = new float[min.length];
+        for (int d = 0; d < steps.length; d++) {
+            steps[d] = initialStep * (max[d] - min[d]);
+        }
+    }
+    
+    @Override
+    public void nextGeneration() {
+        logData();
+        
+        Individual current = population.get(0);
+        float[] x = current.getGenome().array();
+        int n = x.length;
+        
+        Individual[] poll = new Individual[2 * n];
+        int count = 0;
+        for (int d = 0; d < n; d++) {
+            for (int sign = -1; sign <= 1; sign += 2) {
+                double[] genome = new double[n];
+                for (int i = 0; i < n; i++) {
+                    genome[i] = x[i];
+                }
+                genome[d] += sign * steps[d];
+                Individual candidate = createAt(current, genome);
+                // Points clamped back onto x are not polled
+                if (candidate.getGenome().get(d) != x[d]) {
+                    poll[count++] = candidate;
+                }
+            }
+        }
+        Individual[] candidates = Arrays.copyOf(poll, count);
+        evaluate(candidates);
+        
+        Individual next = current;
+        for (Individual candidate : candidates) {
+            if (better(candidate, next)) {
+                next = candidate;
+                if (!isParallelEvaluation()) {
+                    break;
+                }
+            }
+        }
+        
+        if (next != current) {
+            population.set(0, next);
+        } else {
+            float size = 0;
+            for (int d = 0; d < n; d++) {
+                steps[d] *= 0.5f;
+                size = Math.max(size, steps[d] / (max[d] - min[d]));
+            }
+            if (size < RESTART_SIZE) {
+                resetSteps();
+            }
+        }
+        
+        // The population consists of the current point only
+        updateStatistics(population.get(0), Float.NaN);
+    }
+    
+    @Override
+    protected void writeState(DataOutputStream out) throws IOException {
+        out.writeInt(steps.length);
+        for (float step : steps) {
+            out.writeFloat(step);
+        }
+    }
+    
+    @Override
+    protected void readState(DataInputStream in) throws IOException {
+        steps = new float[in.readInt()];
+        for (int d = 0; d < steps.length; d++) {
+            steps[d] = in.readFloat();
+        }
+    }
+}
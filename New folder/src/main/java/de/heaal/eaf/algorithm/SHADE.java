@@ -0,0 +1,416 @@
+/*
+ * Evolutionary Algorithms Framework
+ *
+ * Copyright (c) 2023 Christian Lins <christian.lins@haw-hamburg.de>
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package de.heaal.eaf.algorithm;
+
+import de.heaal.eaf.base.Algorithm;
+import de.heaal.eaf.base.EndCondition;
+import de.heaal.eaf.base.GenericIndividual;
+import de.heaal.eaf.base.GenericIndividualFactory;
+import de.heaal.eaf.base.Individual;
+import de.heaal.eaf.base.Population;
+import de.heaal.eaf.base.VecN;
+import de.heaal.eaf.evaluation.ComparatorIndividual;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Success-history based adaptive Differential Evolution (SHADE, Tanabe and
+ * Fukunaga) with linear population size reduction (L-SHADE). F and CR of
+ * every trial vector are sampled around entries of a history memory, which
+ * follows the weighted Lehmer mean of the values that produced improvements
+ * in the last generations. So one run replaces the sweep over fixed F and CR
+ * of DifferentialEvolution.
+ * 
+ * Trial vectors are created by current-to-pbest/1 with binomial crossover
+ *
+ *   v = x_i + F * (x_pbest - x_i) + F * (x_r1 - x_r2)
+ * 
+ * where x_pbest is one of the best p * N individuals and x_r2 is drawn from
+ * the population and an archive of recently replaced parents. With linear
+ * population size reduction the population shrinks from the initial size to
+ * 4 until the evaluation budget is spent, the worst individuals are removed.
+ */
+public class SHADE extends Algorithm {
+    
+    // Memory value of CR that stands for CR = 0 until the entry is replaced
+    private static final float TERMINAL = -1;
+    
+    private final GenericIndividualFactory indFac;
+    private final float[] min, max;
+    private final int n;
+    private final long maxEvaluations;
+    private int initialSize;
+    private int minSize = 4;
+    private int memorySize = 6;
+    private float pBest = 0.11f;
+    private float archiveRate = 2.6f;
+    private boolean reduction = true;
+    private boolean parallel = Runtime.getRuntime().availableProcessors() > 1;
+    
+    // Adaptation state
+    private float[] memoryF, memoryCR;
+    private int memoryIndex;
+    private long usedEvaluations;
+    private List<Individual> archive;
+    
+    /**
+     * @param maxEvaluations evaluation budget of the run, the population
+     *        reduction is scheduled on it
+     */
+    public SHADE(float[] min, float[] max, long maxEvaluations,
+            Comparator<Individual> comparator, ComparatorIndividual terminationCriterion)
+    {
+        super(comparator, null);
+        if (min.length != max.length) {
+            throw new IllegalArgumentException("min.length != max.length");
+        }
+        if (maxEvaluations < 1) {
+            throw new IllegalArgumentException("maxEvaluations must be positive");
+        }
+        this.indFac = new GenericIndividualFactory(min, max);
+        this.min = min;
+        this.max = max;
+        this.n = min.length;
+        this.maxEvaluations = maxEvaluations;
+        this.initialSize = Math.max(minSize, 18 * n);
+        
+        setEndCondition(EndCondition.targetValue(comparator, terminationCriterion)
+                .or(EndCondition.evaluationMaximum(maxEvaluations)));
+    }
+    
+    /**
+     * Sets the initial population size, the default is 18 n.
+     */
+    public void setPopulationSize(int initialSize) {
+        if (initialSize < minSize) {
+            throw new IllegalArgumentException("population size < " + minSize);
+        }
+        this.initialSize = initialSize;
+    }
+    
+    /**
+     * Sets the number of entries of the F and CR memories, the default is 6.
+     */
+    public void setMemorySize(int memorySize) {
+        if (memorySize < 1) {
+            throw new IllegalArgumentException("memory size < 1");
+        }
+        this.memorySize = memorySize;
+    }
+    
+    /**
+     * @param pBest fraction of the population x_pbest is drawn from, default 0.11
+     */
+    public void setPBest(float pBest) {
+        if (!(pBest > 0 && pBest <= 1)) {
+            throw new IllegalArgumentException("pBest must be in (0, 1]");
+        }
+        this.pBest = pBest;
+    }
+    
+    /**
+     * @param archiveRate archive size relative to the population size,
+     *        default 2.6, 0 disables the archive
+     */
+    public void setArchiveRate(float archiveRate) {
+        if (!(archiveRate >= 0)) {
+            throw new IllegalArgumentException("archiveRate must not be negative");
+        }
+        this.archiveRate = archiveRate;
+    }
+    
+    /**
+     * @param reduction false to keep the population size constant (SHADE)
+     */
+    public void setPopulationReduction(boolean reduction) {
+        this.reduction = reduction;
+    }
+    
+    /**
+     * Evaluates the trial vectors in parallel. Enabled by default on
+     * multi-core machines, the comparator must be thread safe.
+     */
+    public void setParallelEvaluation(boolean parallel) {
+        this.parallel = parallel;
+    }
+    
+    /**
+     * @return number of replaced parents in the archive of the current run
+     */
+    public int getArchiveSize() {
+        return archive == null ? 0 : archive.size();
+    }
+    
+    /**
+     * @return copy of the memory of the scale factor F, null before the run
+     */
+    public float[] getMemoryF() {
+        return memoryF == null ? null : memoryF.clone();
+    }
+    
+    /**
+     * @return copy of the memory of the crossover rate CR, -1 marks a terminal
+     *         entry that stands for CR = 0; null before the run
+     */
+    public float[] getMemoryCR() {
+        return memoryCR == null ? null : memoryCR.clone();
+    }
+    
+    private void startAdaptation() {
+        memoryF = new float[memorySize];
+        memoryCR = new float[memorySize];
+        Arrays.fill(memoryF, 0.5f);
+        Arrays.fill(memoryCR, 0.5f);
+        memoryIndex = 0;
+        usedEvaluations = initialSize;
+        archive = new ArrayList<>();
+    }
+    
+    @Override
+    public void nextGeneration() {
+        // The population is sorted, best first
+        int size = population.size();
+        int pCount = Math.max(2, Math.round(pBest * size));
+        Individual[] trials = new Individual[size];
+        float[] f = new float[size];
+        float[] cr = new float[size];
+        
+        for (int i = 0; i < size; i++) {
+            int r = rng.nextInt(memorySize);
+            f[i] = sampleF(memoryF[r]);
+            cr[i] = memoryCR[r] == TERMINAL ? 0
+                    : Math.max(0, Math.min(1, memoryCR[r] + 0.1f * (float) rng.nextGaussian()));
+            
+            float[] x = population.get(i).getGenome().array();
+            float[] pbest = population.get(rng.nextInt(pCount)).getGenome().array();
+            int r1 = randomIndex(size, i, -1);
+            float[] x1 = population.get(r1).getGenome().array();
+            int r2 = randomIndex(size + archive.size(), i, r1);
+            float[] x2 = (r2 < size ? population.get(r2) : archive.get(r2 - size)).getGenome().array();
+            
+            trials[i] = population.get(i).copy();
+            float[] v = trials[i].getGenome().writableArray();
+            int jrand = rng.nextInt(n);
+            for (int d = 0; d < n; d++) {
+                if (d != jrand && rng.nextFloat() >= cr[i]) {
+                    continue;
+                }
+                float value = x[d] + f[i] * (pbest[d] - x[d]) + f[i] * (x1[d] - x2[d]);
+                // Midpoint repair between the bound and the parent, the upper
+                // bound is exclusive and the midpoint may round up to it
+                if (value < min[d]) {
+                    value = (min[d] + x[d]) / 2;
+                } else if (value >= max[d]) {
+                    value = Math.min((max[d] + x[d]) / 2, Math.nextDown(max[d]));
+                }
+                v[d] = value;
+            }
+            trials[i].clearCache();
+        }
+        evaluate(trials, parallel);
+        usedEvaluations += size;
+        
+        // Selection, successful parameters are weighted by the improvement
+        float[] successF = new float[size];
+        float[] successCR = new float[size];
+        double[] improvement = new double[size];
+        int successes = 0;
+        for (int i = 0; i < size; i++) {
+            Individual parent = population.get(i);
+            int cmp = comparator.compare(trials[i], parent);
+            if (cmp < 0) {
+                continue;
+            }
+            if (cmp > 0) {
+                if (archiveRate > 0) {
+                    archive.add(parent);
+                }
+                successF[successes] = f[i];
+                successCR[successes] = cr[i];
+                improvement[successes] = Math.abs((double) parent.getCache() - trials[i].getCache());
+                successes++;
+            }
+            population.set(i, trials[i]);
+        }
+        if (successes > 0) {
+            updateMemory(successF, successCR, improvement, successes);
+        }
+        
+        population.sort(comparator);
+        if (reduction) {
+            reducePopulation();
+        }
+        trimArchive();
+        logData();
+        
+        updateStatistics(population.get(0), spread(population.get(0), population.get(population.size() - 1)));
+    }
+    
+    /**
+     * Cauchy distributed around m, sampled again while not positive and
+     * truncated to 1.
+     */
+    private float sampleF(float m) {
+        double value;
+        do {
+            value = m + 0.1 * Math.tan(Math.PI * (rng.nextDouble() - 0.5));
+        } while (!(value > 0));
+        return (float) Math.min(value, 1);
+    }
+    
+    // Random index in [0, bound) different from the excluded ones
+    private int randomIndex(int bound, int exclude1, int exclude2) {
+        int r;
+        do {
+            r = rng.nextInt(bound);
+        } while (r == exclude1 || r == exclude2);
+        return r;
+    }
+    
+    private void updateMemory(float[] successF, float[] successCR, double[] improvement, int successes) {
+        double total = 0;
+        for (int s = 0; s < successes; s++) {
+            total += improvement[s];
+        }
+        double sumF = 0, sumF2 = 0, sumCR = 0, sumCR2 = 0;
+        float maxCR = 0;
+        for (int s = 0; s < successes; s++) {
+            // Without any measurable improvement all successes count the same
+            double w = total > 0 ? improvement[s] / total : 1.0 / successes;
+            sumF += w * successF[s];
+            sumF2 += w * successF[s] * successF[s];
+            sumCR += w * successCR[s];
+            sumCR2 += w * successCR[s] * successCR[s];
+            maxCR = Math.max(maxCR, successCR[s]);
+        }
+        memoryF[memoryIndex] = (float) (sumF2 / sumF);
+        if (memoryCR[memoryIndex] == TERMINAL || maxCR == 0) {
+            memoryCR[memoryIndex] = TERMINAL;
+        } else {
+            memoryCR[memoryIndex] = (float) (sumCR2 / sumCR);
+        }
+        memoryIndex = (memoryIndex + 1) % memorySize;
+    }
+    
+    /**
+     * Shrinks the sorted population linearly in the used evaluations from
+     * the initial size to the minimum size.
+     */
+    private void reducePopulation() {
+        double progress = Math.min(1, (double) usedEvaluations / maxEvaluations);
+        int size = (int) Math.round(initialSize + (minSize - initialSize) * progress);
+        if (size >= population.size()) {
+            return;
+        }
+        Population reduced = new Population(size);
+        for (int i = 0; i < size; i++) {
+            reduced.add(population.get(i));
+        }
+        population = reduced;
+    }
+    
+    private void trimArchive() {
+        int capacity = Math.round(archiveRate * population.size());
+        while (archive.size() > capacity) {
+            int last = archive.size() - 1;
+            archive.set(rng.nextInt(archive.size()), archive.get(last));
+            archive.remove(last);
+        }
+    }
+    
+    @Override
+    protected void writeState(DataOutputStream out) throws IOException {
+        out.writeInt(memorySize);
+        for (int h = 0; h < memorySize; h++) {
+            out.writeFloat(memoryF[h]);
+            out.writeFloat(memoryCR[h]);
+        }
+        out.writeInt(memoryIndex);
+        out.writeLong(usedEvaluations);
+        out.writeInt(archive.size());
+        for (Individual ind : archive) {
+            for (float x : ind.getGenome().array()) {
+                out.writeFloat(x);
+            }
+        }
+    }
+    
+    @Override
+    protected void readState(DataInputStream in) throws IOException {
+        if (in.readInt() != memorySize) {
+            throw new IllegalStateException("checkpoint has a different memory size");
+        }
+        memoryF = new float[memorySize];
+        memoryCR = new float[memorySize];
+        for (int h = 0; h < memorySize; h++) {
+            memoryF[h] = in.readFloat();
+            memoryCR[h] = in.readFloat();
+        }
+        memoryIndex = in.readInt();
+        usedEvaluations = in.readLong();
+        int archiveSize = in.readInt();
+        archive = new ArrayList<>(archiveSize);
+        for (int a = 0; a < archiveSize; a++) {
+            // Archived parents are only used as difference vectors, their fitness is not needed.
+            // The factory would draw from the restored generator.
+            float[] genome = new float[n];
+            for (int d = 0; d < n; d++) {
+                genome[d] = in.readFloat();
+            }
+            archive.add(new GenericIndividual(new VecN(genome)));
+        }
+    }
+    
+    @Override
+    public void run() {
+        // Create the log file with configuration data in the name
+        String name = (reduction ? "lshade_" : "shade_") + initialSize + "_" + memorySize + "_"
+                + pBest + "f_" + archiveRate + "f";
+        openLog(name + "/" + name + ".csv");
+        try {
+            initialize(indFac, initialSize);
+            if (!isResumed()) {
+                startAdaptation();
+            }
+            population.sort(comparator);
+            while(!isTerminationCondition()) {
+                System.out.println("Gen: " + statistics.getGeneration());
+                nextGeneration();
+            }
+            logData();
+            // Children of equal fitness replace their parents, the first best found is reported
+            System.out.println("Best genome: " + statistics.getBest().getGenome());
+            System.out.println("Cache: " + statistics.getBest().getCache());
+        } finally {
+            endRun();
+        }
+    }
+}
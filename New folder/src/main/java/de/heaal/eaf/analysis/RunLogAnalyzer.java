@@ -0,0 +1,329 @@
+/*
+ * Evolutionary Algorithms Framework
+ *
+ * Copyright (c) 2023 Christian Lins <christian.lins@haw-hamburg.de>
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package de.heaal.eaf.analysis;
+
+import de.heaal.eaf.base.PopulationSummary;
+import de.heaal.eaf.io.CsvScanner;
+import de.heaal.eaf.logger.BinaryLogReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Analyzes the run logs of a sweep, one directory per configuration like
+ * data/de_best_1_bin_40_0.4f_0.5f/*.csv. Every log is one run, every row of
+ * a log holds the fitness values of one generation. Binary logs (.eafb) are
+ * read as well. Of summary logs (name ending with _summary and an optional
+ * counter) only the best fitness column is read, their full dumps are
+ * skipped.
+ * 
+ * The logs are memory mapped and parsed in parallel, each log in a single
+ * pass that only keeps the best fitness per generation. Per configuration
+ * the median and the quartiles of the best-so-far fitness per generation
+ * and the ECDF of the generations needed to reach the target are written to
+ * analysis.csv in its directory.
+ * 
+ * Usage: RunLogAnalyzer [data directory] [target fitness]
+ */
+public class RunLogAnalyzer {
+    
+    public static final String SUMMARY_FILE = "analysis.csv";
+    
+    /**
+     * Summary of all runs of one configuration. The arrays have one value per
+     * generation, runs that ended earlier keep their last best value.
+     * Generations to target are Float.POSITIVE_INFINITY if fewer than the
+     * required share of runs reached the target.
+     */
+    public record ConfigSummary(String name, int runs, int solved,
+            float medianGenerations, float lowerQuartileGenerations, float upperQuartileGenerations,
+            float[] median, float[] lowerQuartile, float[] upperQuartile, float[] ecdf) {
+    }
+    
+    private record Run(Path dir, float[] bestSoFar) {
+    }
+    
+    private final float target;
+    
+    /**
+     * @param target fitness that counts as solved, smaller is better
+     */
+    public RunLogAnalyzer(float target) {
+        this.target = target;
+    }
+    
+    /**
+     * Analyzes every configuration directory below dataDir and writes the
+     * summary file into each of them.
+     * 
+     * @param dataDir directory with one directory per configuration
+     * @return the summaries sorted by name
+     * @throws IOException if a directory can not be listed
+     */
+    public List<ConfigSummary> analyze(Path dataDir) throws IOException {
+        List<Path> logs = new ArrayList<>();
+        try (Stream<Path> dirs = Files.list(dataDir)) {
+            for (Path dir : (Iterable<Path>) dirs.filter(RunLogAnalyzer::isConfigDir)::iterator) {
+                try (Stream<Path> files = Files.list(dir)) {
+                    files.filter(RunLogAnalyzer::isRunLog).forEach(logs::add);
+                }
+            }
+        }
+        
+        Map<Path, List<Run>> runs = logs.parallelStream()
+                .map(RunLogAnalyzer::readRun)
+                .filter(Objects::nonNull)
+                .collect(Collectors.groupingByConcurrent(Run::dir));
+        
+        return runs.entrySet().parallelStream()
+                .map(e -> {
+                    ConfigSummary summary = summarize(e.getKey().getFileName().toString(), e.getValue());
+                    write(summary, e.getKey().resolve(SUMMARY_FILE));
+                    return summary;
+                })
+                .sorted(Comparator.comparing(ConfigSummary::name))
+                .collect(Collectors.toList());
+    }
+    
+    private static boolean isConfigDir(Path dir) {
+        return Files.isDirectory(dir) && !dir.getFileName().toString().startsWith(".");
+    }
+    
+    private static boolean isRunLog(Path file) {
+        String name = file.getFileName().toString();
+        // Full dumps of the summary log mode have a different layout
+        return (name.endsWith(".csv") || name.endsWith(".eafb"))
+                && !name.equals(SUMMARY_FILE) && !name.contains("_full.");
+    }
+    
+    /**
+     * @param file run log
+     * @return true if the log was written in summary mode, one row of
+     *     PopulationSummary columns per generation
+     */
+    public static boolean isSummaryLog(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        int end = dot < 0 ? name.length() : dot;
+        // Logger.createLogFile appends a counter if the name exists
+        int start = end;
+        while (start > 0 && Character.isDigit(name.charAt(start - 1))) {
+            start--;
+        }
+        return name.startsWith(PopulationSummary.LOG_SUFFIX, start - PopulationSummary.LOG_SUFFIX.length());
+    }
+    
+    private static Run readRun(Path file) {
+        try {
+            float[] curve = bestPerGeneration(file);
+            for (int g = 1; g < curve.length; g++) {
+                curve[g] = Math.min(curve[g], curve[g - 1]);
+            }
+            return curve.length == 0 ? null : new Run(file.getParent(), curve);
+        } catch (NumberFormatException e) {
+            System.err.println("Skipping " + file + ": " + e.getMessage());
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /**
+     * Reads the smallest fitness value of every generation of a run log,
+     * or the best column of a summary log.
+     * 
+     * @param file csv or binary run log
+     * @return best fitness per generation
+     * @throws IOException if the log can not be read
+     */
+    public static float[] bestPerGeneration(Path file) throws IOException {
+        // Column of the best fitness, -1 for the minimum of the row
+        int column = isSummaryLog(file) ? PopulationSummary.BEST_COLUMN : -1;
+        if (file.toString().endsWith(".eafb")) {
+            try (BinaryLogReader reader = new BinaryLogReader(file.toString())) {
+                float[] curve = new float[reader.getGenerations()];
+                float[] row = new float[0];
+                for (int g = 0; g < curve.length; g++) {
+                    int length = reader.getRowLength(g);
+                    if (row.length < length) {
+                        row = new float[length];
+                    }
+                    reader.read(g, row);
+                    curve[g] = column < 0 ? min(row, length) : row[column];
+                }
+                return curve;
+            }
+        }
+        
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) {
+                return new float[0];
+            }
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            CsvScanner scanner = new CsvScanner(map, ',');
+            float[] curve = new float[64];
+            int generations = 0;
+            while (scanner.nextRow()) {
+                float best = Float.POSITIVE_INFINITY;
+                for (int field = 0; scanner.nextField(); field++) {
+                    if (column < 0) {
+                        best = Math.min(best, scanner.floatValue());
+                    } else if (field == column) {
+                        best = scanner.floatValue();
+                    }
+                }
+                if (generations == curve.length) {
+                    curve = Arrays.copyOf(curve, generations * 2);
+                }
+                curve[generations++] = best;
+            }
+            return Arrays.copyOf(curve, generations);
+        }
+    }
+    
+    private static float min(float[] row, int length) {
+        float best = Float.POSITIVE_INFINITY;
+        for (int i = 0; i < length; i++) {
+            best = Math.min(best, row[i]);
+        }
+        return best;
+    }
+    
+    private ConfigSummary summarize(String name, List<Run> runs) {
+        int n = runs.size();
+        int generations = 0;
+        for (Run run : runs) {
+            generations = Math.max(generations, run.bestSoFar().length);
+        }
+        
+        // Generations until the target is reached, infinite if never
+        float[] toTarget = new float[n];
+        int solved = 0;
+        for (int r = 0; r < n; r++) {
+            float[] curve = runs.get(r).bestSoFar();
+            toTarget[r] = Float.POSITIVE_INFINITY;
+            for (int g = 0; g < curve.length; g++) {
+                if (curve[g] <= target) {
+                    toTarget[r] = g;
+                    solved++;
+                    break;
+                }
+            }
+        }
+        Arrays.sort(toTarget);
+        
+        float[] median = new float[generations];
+        float[] lower = new float[generations];
+        float[] upper = new float[generations];
+        float[] ecdf = new float[generations];
+        float[] values = new float[n];
+        int reached = 0;
+        for (int g = 0; g < generations; g++) {
+            for (int r = 0; r < n; r++) {
+                float[] curve = runs.get(r).bestSoFar();
+                values[r] = curve[Math.min(g, curve.length - 1)];
+            }
+            Arrays.sort(values);
+            median[g] = quantile(values, 0.5f);
+            lower[g] = quantile(values, 0.25f);
+            upper[g] = quantile(values, 0.75f);
+            while (reached < n && toTarget[reached] <= g) {
+                reached++;
+            }
+            ecdf[g] = (float) reached / n;
+        }
+        
+        return new ConfigSummary(name, n, solved,
+                quantile(toTarget, 0.5f), quantile(toTarget, 0.25f), quantile(toTarget, 0.75f),
+                median, lower, upper, ecdf);
+    }
+    
+    /**
+     * Quantile of sorted values with linear interpolation between the
+     * closest ranks, the default of numpy and R.
+     * 
+     * @param sorted values in ascending order
+     * @param q quantile in [0, 1]
+     * @return the quantile
+     */
+    public static float quantile(float[] sorted, float q) {
+        double h = (sorted.length - 1) * (double) q;
+        int lo = (int) Math.floor(h);
+        int hi = Math.min(lo + 1, sorted.length - 1);
+        if (sorted[lo] == sorted[hi] || Float.isInfinite(sorted[hi])) {
+            return h == lo ? sorted[lo] : sorted[hi];
+        }
+        return (float) (sorted[lo] + (h - lo) * (sorted[hi] - sorted[lo]));
+    }
+    
+    private static void write(ConfigSummary summary, Path file) {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("generation,median,q1,q3,ecdf");
+            writer.newLine();
+            for (int g = 0; g < summary.median().length; g++) {
+                writer.write(g + "," + summary.median()[g] + "," + summary.lowerQuartile()[g]
+                        + "," + summary.upperQuartile()[g] + "," + summary.ecdf()[g]);
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    public static void main(String[] args) throws IOException {
+        Path dataDir = Path.of(args.length > 0 ? args[0] : "data");
+        float target = args.length > 1 ? Float.parseFloat(args[1]) : 0.001f;
+        
+        long start = System.nanoTime();
+        List<ConfigSummary> summaries = new RunLogAnalyzer(target).analyze(dataDir);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        
+        int runs = 0;
+        System.out.println("configuration, runs, solved, median generations, IQR generations");
+        for (ConfigSummary s : summaries) {
+            runs += s.runs();
+            System.out.println(s.name() + ", " + s.runs() + ", " + s.solved() + ", " + s.medianGenerations()
+                    + ", " + (s.upperQuartileGenerations() - s.lowerQuartileGenerations()));
+        }
+        System.out.println("Analyzed " + runs + " runs in " + summaries.size()
+                + " configurations in " + millis + " ms");
+    }
+}
@@ -87,9 +87,7 @@ public abstract class AbstractIndividual implements Individual {
 
     @Override
     public Individual mul(float factor) {
-        for (int i = 0; i < genome.len(); i++) {
-            genome.array()[i] *= factor;
-        }
+        genome.mul(factor);
         clearCache();
         return this;
     }
@@ -24,9 +24,28 @@
 
 package de.heaal.eaf.base;
 
+import de.heaal.eaf.checkpoint.CheckpointStore;
+import de.heaal.eaf.checkpoint.CheckpointWriter;
+import de.heaal.eaf.evaluation.ComparatorIndividual;
+import de.heaal.eaf.evaluation.EvaluationCounter;
+import de.heaal.eaf.localsearch.LocalSearch;
+import de.heaal.eaf.logger.FrameEncoding;
+import de.heaal.eaf.logger.Logger;
+import de.heaal.eaf.logger.RunLogger;
 import de.heaal.eaf.mutation.Mutation;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.List;
 import java.util.Random;
+import java.util.stream.IntStream;
 
 /**
  * An abstract Algorithm class.The Algorithm class is intended to represent a specific algorithm and holds
@@ -39,10 +58,59 @@ import java.util.Random;
  */
 public abstract class Algorithm {
     
+    public static final String DEFAULT_LOG_DIRECTORY = "data";
+    
     protected Comparator<Individual> comparator;
     protected Mutation mutator;
     protected Population population;
     protected Random rng;
+    protected EndCondition endCondition;
+    // Budget of the current runAnytime() call, null otherwise
+    private EndCondition budget;
+    protected final RunStatistics statistics = new RunStatistics();
+    // Logs one row per generation, null if nothing is logged
+    protected RunLogger logger;
+    
+    private float[] logRow = new float[0];
+    // Directory of the run logs, null if nothing is logged
+    private String logDirectory = DEFAULT_LOG_DIRECTORY;
+    // Encoding of the binary log, null if the log is written as csv
+    private FrameEncoding binaryLog;
+    // Summary of the population for the log, null if the full population is logged
+    private PopulationSummary summary;
+    private int fullDumpInterval;
+    private RunLogger dumpLogger;
+    private volatile boolean dumpRequested;
+    
+    private volatile boolean cancelled;
+    private volatile BestSoFar bestSoFar;
+    private EndCondition.TYPE endReason;
+    private long evaluationsAtStart;
+    private long uncountedEvaluations;
+    
+    private static final int SNAPSHOT_VERSION = 1;
+    
+    // Comparing against a cached value evaluates only the other individual
+    private static final Individual EVALUATION_REFERENCE = new ComparatorIndividual(0);
+    // Checkpoints are written every checkpointInterval generations if a path is set
+    private String checkpointPath;
+    private int checkpointInterval;
+    private CheckpointWriter checkpointWriter;
+    private int lastCheckpointGeneration;
+    // Snapshot the next initialize() continues from, null for a fresh run
+    private byte[] resumeSnapshot;
+    private boolean resumed;
+    
+    private LocalSearch localSearch;
+    private int localSearchInterval;
+    private int localSearchCount;
+    // Box of the factory of the current run, refined genomes are clamped to it
+    private float[] boxMin, boxMax;
+    
+    // Exchange with other populations every migrationInterval generations, null if isolated
+    private Migration migration;
+    private int migrationInterval;
+    private int migrationCount;
     
     public Algorithm(Random rng) {
         this.rng = rng;
@@ -69,19 +137,706 @@ public abstract class Algorithm {
             mutator.setRandom(rng);
     }
     
+    /**
+     * Sets the random generator of the algorithm and its operators. All
+     * random decisions of a run are drawn from it, so a seeded generator
+     * makes the run reproducible.
+     * 
+     * @param rng the random generator
+     */
+    public void setRandom(Random rng) {
+        this.rng = rng;
+        if (mutator != null)
+            mutator.setRandom(rng);
+    }
+    
+    /**
+     * Shortcut for setRandom(new Random(seed)).
+     * 
+     * @param seed seed of the random generator
+     */
+    public void setSeed(long seed) {
+        setRandom(new Random(seed));
+    }
+    
     protected void createPopulation(IndividualFactory iFak, int num) {
         population = new Population(iFak, num);
     }
     
-    protected abstract boolean isTerminationCondition();
+    /**
+     * Sets the condition that ends the run, e.g.
+     * EndCondition.targetValue(cmp, target).or(EndCondition.evaluationMaximum(10000))
+     * 
+     * @param endCondition the end condition
+     */
+    public void setEndCondition(EndCondition endCondition) {
+        this.endCondition = endCondition;
+    }
+    
+    public RunStatistics getStatistics() {
+        return statistics;
+    }
+    
+    /**
+     * @return the type of the end condition that ended the run or null
+     */
+    public EndCondition.TYPE getEndReason() {
+        return endReason;
+    }
+    
+    /**
+     * Cancels the run. May be called from any thread, the run ends after the
+     * current generation. The best individual so far stays available through
+     * getBestSoFar(). The next run starts uncancelled.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+    
+    /**
+     * Returns the best individual found so far. May be called from any thread
+     * at any time, also while the algorithm is running.
+     * 
+     * @return snapshot of the best individual or null if the run has not started
+     */
+    public BestSoFar getBestSoFar() {
+        return bestSoFar;
+    }
+    
+    /**
+     * Runs the algorithm in anytime mode: the run ends at the regular end
+     * condition or when the budget is exhausted, e.g.
+     * EndCondition.evaluationMaximum(100000).or(EndCondition.timeMaximum(50)),
+     * or when it is cancelled. The budget only limits this run.
+     * 
+     * @param budget additional end condition limiting the run
+     * @return the best individual found
+     */
+    public BestSoFar runAnytime(EndCondition budget) {
+        this.budget = budget;
+        try {
+            run();
+        } finally {
+            this.budget = null;
+        }
+        return bestSoFar;
+    }
+    
+    /**
+     * Checks the end condition against the run statistics. Algorithms keep
+     * the statistics up to date in every generation, see updateStatistics().
+     * 
+     * @return true if the run should end
+     */
+    protected boolean isTerminationCondition() {
+        // Called between two generations, the state of the run is consistent here
+        if (checkpointWriter != null && checkpointInterval > 0
+                && statistics.getGeneration() % checkpointInterval == 0) {
+            checkpoint();
+        }
+        if (migration != null && statistics.getGeneration() > 0
+                && statistics.getGeneration() % migrationInterval == 0) {
+            migrate();
+        }
+        if (cancelled) {
+            endReason = EndCondition.TYPE.CANCELLED;
+            return true;
+        }
+        endReason = endCondition != null ? endCondition.check(statistics) : null;
+        if (endReason == null && budget != null) {
+            endReason = budget.check(statistics);
+        }
+        if (endReason == null) {
+            endReason = internalEndCondition();
+        }
+        return endReason != null;
+    }
+    
+    /**
+     * Lets the algorithm end the run by itself independent of the end
+     * condition, e.g. when its search has converged and can not go on.
+     * 
+     * @return the type of the end or null if the run should go on
+     */
+    protected EndCondition.TYPE internalEndCondition() {
+        return null;
+    }
     
+    /**
+     * Creates the population and initializes the run statistics with one
+     * scan over the initial population. After resume() the population and
+     * the statistics are restored from the checkpoint instead.
+     */
     protected void initialize(IndividualFactory iFak, int numIndividuals) {
+        iFak.setRandom(rng);
+        boxMin = iFak.getLowerBounds();
+        boxMax = iFak.getUpperBounds();
+        if (checkpointPath != null) {
+            checkpointWriter = new CheckpointWriter(new CheckpointStore(checkpointPath));
+            lastCheckpointGeneration = -1;
+        }
+        resumed = false;
+        cancelled = false;
+        if (resumeSnapshot != null) {
+            byte[] snapshot = resumeSnapshot;
+            resumeSnapshot = null;
+            restore(snapshot, iFak);
+            return;
+        }
+        // Evaluations during the creation (e.g. opposition-based) count for the run
+        evaluationsAtStart = comparator instanceof EvaluationCounter counter ? counter.getEvaluations() : 0;
         createPopulation(iFak, numIndividuals);
+        
+        uncountedEvaluations = 0;
+        endReason = null;
+        statistics.start(comparator);
+        
+        Individual best = population.get(0);
+        Individual worst = population.get(0);
+        for (Individual ind : population) {
+            if (comparator.compare(ind, best) > 0) {
+                best = ind;
+            } else if (comparator.compare(ind, worst) < 0) {
+                worst = ind;
+            }
+        }
+        statistics.update(spread(best, worst), evaluations());
+        if (statistics.offer(best)) {
+            publishBest();
+        }
+    }
+    
+    /**
+     * Writes a checkpoint every interval generations while the algorithm runs,
+     * and when the run is cancelled. The snapshot is copied in the algorithm
+     * thread, writing it to disk happens asynchronously.
+     * 
+     * @param path base name of the checkpoint files, path.0 and path.1
+     * @param interval generations between two checkpoints
+     */
+    public void setCheckpoint(String path, int interval) {
+        if (interval < 1) {
+            throw new IllegalArgumentException("checkpoint interval must be positive");
+        }
+        this.checkpointPath = path;
+        this.checkpointInterval = interval;
+    }
+    
+    /**
+     * Continues the next run from the latest complete checkpoint. Operators
+     * and end conditions are not part of the checkpoint, the algorithm must
+     * be created with the same configuration as the checkpointed one.
+     * 
+     * @param path base name of the checkpoint files
+     * @return false if there is no valid checkpoint, the run starts fresh then
+     */
+    public boolean resume(String path) {
+        resumeSnapshot = new CheckpointStore(path).readLatest();
+        return resumeSnapshot != null;
+    }
+    
+    /**
+     * @return true if the current run was restored from a checkpoint
+     */
+    protected boolean isResumed() {
+        return resumed;
+    }
+    
+    /**
+     * Hands a snapshot of the current state to the checkpoint writer.
+     */
+    protected void checkpoint() {
+        int generation = statistics.getGeneration();
+        if (generation == lastCheckpointGeneration) {
+            return;
+        }
+        checkpointWriter.submit(snapshot());
+        lastCheckpointGeneration = generation;
+    }
+    
+    /**
+     * Writes state of the algorithm that is not part of the population or
+     * the statistics into a checkpoint. Subclasses that override it must
+     * override readState() as well.
+     * 
+     * @param out stream of the snapshot
+     * @throws IOException never for snapshots in memory
+     */
+    protected void writeState(DataOutputStream out) throws IOException {
+    }
+    
+    /**
+     * Reads the state written by writeState() when a run is resumed.
+     * 
+     * @param in stream of the snapshot
+     * @throws IOException if the snapshot is incomplete
+     */
+    protected void readState(DataInputStream in) throws IOException {
+    }
+    
+    private byte[] snapshot() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + population.size() * 16);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeUTF(getClass().getName());
+            out.writeInt(statistics.getGeneration());
+            out.writeLong(evaluations());
+            out.writeFloat(statistics.getSpread());
+            out.writeLong(statistics.getElapsedMillis());
+            
+            ByteArrayOutputStream rngBytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream oos = new ObjectOutputStream(rngBytes)) {
+                oos.writeObject(rng);
+            }
+            out.writeInt(rngBytes.size());
+            rngBytes.writeTo(out);
+            
+            out.writeInt(population.size());
+            for (Individual ind : population) {
+                writeIndividual(out, ind);
+            }
+            writeIndividual(out, statistics.getBest());
+            writeState(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+    
+    private static void writeIndividual(DataOutputStream out, Individual ind) throws IOException {
+        float[] genome = ind.getGenome().array();
+        out.writeInt(genome.length);
+        for (float x : genome) {
+            out.writeFloat(x);
+        }
+        out.writeBoolean(ind.hasCache());
+        out.writeFloat(ind.getCache());
+    }
+    
+    private void restore(byte[] snapshot, IndividualFactory iFak) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(snapshot))) {
+            if (in.readInt() != SNAPSHOT_VERSION) {
+                throw new IllegalStateException("unsupported checkpoint version");
+            }
+            String algorithm = in.readUTF();
+            if (!algorithm.equals(getClass().getName())) {
+                throw new IllegalStateException("checkpoint belongs to " + algorithm);
+            }
+            int generation = in.readInt();
+            long evaluations = in.readLong();
+            float spread = in.readFloat();
+            long elapsedMillis = in.readLong();
+            
+            byte[] rngBytes = new byte[in.readInt()];
+            in.readFully(rngBytes);
+            Random restoredRng;
+            try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(rngBytes))) {
+                restoredRng = (Random) ois.readObject();
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException("random generator of the checkpoint is unknown", e);
+            }
+            
+            int size = in.readInt();
+            population = new Population(size);
+            for (int i = 0; i < size; i++) {
+                population.add(readIndividual(in, iFak));
+            }
+            Individual best = readIndividual(in, iFak);
+            
+            // The factory used the old generator to create the individuals
+            setRandom(restoredRng);
+            iFak.setRandom(restoredRng);
+            
+            evaluationsAtStart = comparator instanceof EvaluationCounter counter ? counter.getEvaluations() : 0;
+            uncountedEvaluations = evaluations;
+            endReason = null;
+            statistics.restore(comparator, generation, evaluations, best, spread, elapsedMillis);
+            readState(in);
+            
+            publishBest();
+            lastCheckpointGeneration = generation;
+            resumed = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private static Individual readIndividual(DataInputStream in, IndividualFactory iFak) throws IOException {
+        Individual ind = iFak.create();
+        float[] genome = ind.getGenome().writableArray();
+        int len = in.readInt();
+        if (len != genome.length) {
+            throw new IllegalStateException("checkpoint has genomes of length " + len);
+        }
+        for (int i = 0; i < len; i++) {
+            genome[i] = in.readFloat();
+        }
+        boolean hasCache = in.readBoolean();
+        float cache = in.readFloat();
+        if (hasCache) {
+            ind.setCache(cache);
+        } else {
+            ind.clearCache();
+        }
+        return ind;
+    }
+    
+    /**
+     * Finishes a generation in the run statistics. Should be called once at
+     * the end of every generation.
+     * 
+     * @param best best individual of the population, with valid cache
+     * @param spread difference of best and worst fitness or Float.NaN if unknown
+     */
+    protected void updateStatistics(Individual best, float spread) {
+        if (statistics.nextGeneration(best, spread, evaluations())) {
+            publishBest();
+        }
+    }
+    
+    private void publishBest() {
+        Individual best = statistics.getBest();
+        bestSoFar = new BestSoFar(best.getGenome().array().clone(), best.getCache(),
+                statistics.getGeneration(), statistics.getEvaluations());
+    }
+    
+    /**
+     * Counts evaluations that were not done by the comparator, e.g.
+     * incremental evaluations.
+     * 
+     * @param num number of evaluations
+     */
+    protected void countEvaluations(int num) {
+        uncountedEvaluations += num;
+    }
+    
+    /**
+     * Evaluates the individuals without cached fitness by the comparator,
+     * e.g. a whole batch of trial vectors.
+     * 
+     * @param individuals individuals to evaluate
+     * @param parallel true to evaluate in parallel, the comparator must be thread safe
+     */
+    protected void evaluate(Individual[] individuals, boolean parallel) {
+        IntStream range = IntStream.range(0, individuals.length);
+        (parallel ? range.parallel() : range)
+                .filter(k -> !individuals[k].hasCache())
+                .forEach(k -> comparator.compare(individuals[k], EVALUATION_REFERENCE));
+    }
+    
+    /**
+     * @return number of evaluations in this run
+     */
+    protected long evaluations() {
+        long counted = comparator instanceof EvaluationCounter counter
+                ? counter.getEvaluations() - evaluationsAtStart : 0;
+        return counted + uncountedEvaluations;
+    }
+    
+    /**
+     * Sets the directory of the logs of the next runs, e.g. a temporary
+     * directory in tests. Algorithms name their logs relative to it.
+     * 
+     * @param logDirectory directory of the logs, null to write no logs
+     */
+    public void setLogDirectory(String logDirectory) {
+        this.logDirectory = logDirectory;
+    }
+    
+    /**
+     * @return directory of the logs, null if no logs are written
+     */
+    public String getLogDirectory() {
+        return logDirectory;
+    }
+    
+    /**
+     * Writes the log of the next runs in the binary format instead of csv.
+     * 
+     * @param encoding encoding of the frames, null to write csv again
+     */
+    public void setBinaryLog(FrameEncoding encoding) {
+        this.binaryLog = encoding;
+    }
+    
+    /**
+     * Logs a summary of the population per generation instead of the fitness
+     * of every individual, see PopulationSummary for the columns. The name
+     * of the summary log ends with _summary. The fitness of every individual
+     * is still written to a second log file ending with _full, prefixed with
+     * the generation, every fullDumpInterval generations and when requested
+     * by requestFullDump().
+     * 
+     * @param fullDumpInterval generations between full dumps, 0 for no regular dumps
+     * @param quantiles quantiles of the fitness to log, each in [0, 1]
+     */
+    public void setSummaryLog(int fullDumpInterval, float... quantiles) {
+        if (fullDumpInterval < 0) {
+            throw new IllegalArgumentException("full dump interval must not be negative");
+        }
+        this.summary = new PopulationSummary(quantiles);
+        this.fullDumpInterval = fullDumpInterval;
+    }
+    
+    /**
+     * Logs the fitness of every individual per generation again, this is the default.
+     */
+    public void setFullLog() {
+        this.summary = null;
+    }
+    
+    /**
+     * Writes the fitness of every individual with the next logged generation.
+     * Only used in summary mode, may be called from any thread.
+     */
+    public void requestFullDump() {
+        dumpRequested = true;
+    }
+    
+    /**
+     * Creates a new log file and opens the logger for it. Binary logs get
+     * the extension .eafb and store the file name as run configuration.
+     * In summary mode the name ends with PopulationSummary.LOG_SUFFIX and a
+     * second log for the full dumps is opened. Nothing is opened if the log
+     * directory is null.
+     * 
+     * @param logFile requested file name of the csv log, relative to the log directory
+     */
+    protected void openLog(String logFile) {
+        if (logDirectory == null) {
+            return;
+        }
+        String path = logDirectory + "/" + logFile;
+        if (summary != null) {
+            int dot = path.lastIndexOf('.');
+            path = dot > path.lastIndexOf('/')
+                    ? path.substring(0, dot) + PopulationSummary.LOG_SUFFIX + path.substring(dot)
+                    : path + PopulationSummary.LOG_SUFFIX;
+        }
+        String created = createLog(path);
+        logger = openLogger(created);
+        if (summary != null) {
+            int dot = created.lastIndexOf('.');
+            dumpLogger = openLogger(createLog(created.substring(0, dot) + "_full" + created.substring(dot)));
+        }
+    }
+    
+    private String createLog(String logFile) {
+        String path = logFile;
+        if (binaryLog != null) {
+            int dot = path.lastIndexOf('.');
+            path = (dot > path.lastIndexOf('/') ? path.substring(0, dot) : path) + ".eafb";
+        }
+        String created = Logger.createLogFile(path);
+        if (created == null) {
+            throw new NullPointerException("log file is null");
+        }
+        return created;
+    }
+    
+    private RunLogger openLogger(String created) {
+        if (binaryLog == null) {
+            return RunLogger.csv(created);
+        }
+        String name = created.substring(created.lastIndexOf('/') + 1, created.lastIndexOf('.'));
+        return RunLogger.binary(created, binaryLog, name);
+    }
+    
+    /**
+     * Writes the cached fitness of every individual of the population as one
+     * row to the log, or a summary of the population in summary mode.
+     * The row is written asynchronously by the logger.
+     */
+    protected void logData() {
+        if (logger == null) {
+            return;
+        }
+        int n = population.size();
+        int generation = statistics.getGeneration();
+        if (summary == null) {
+            fillFitness(n, 0);
+            logger.log(logRow, n);
+            return;
+        }
+        
+        if (logRow.length < summary.columns()) {
+            logRow = new float[summary.columns()];
+        }
+        summary.summarize(population, comparator, generation, evaluations(), logRow);
+        logger.log(logRow, summary.columns());
+        
+        if (dumpRequested || (fullDumpInterval > 0 && generation % fullDumpInterval == 0)) {
+            dumpRequested = false;
+            fillFitness(n, 1);
+            logRow[0] = generation;
+            dumpLogger.log(logRow, n + 1);
+        }
+    }
+    
+    private void fillFitness(int n, int offset) {
+        if (logRow.length < n + offset) {
+            logRow = new float[n + offset];
+        }
+        for (int i = 0; i < n; i++) {
+            logRow[offset + i] = population.get(i).getCache();
+        }
+    }
+    
+    /**
+     * Ends a run: writes a last checkpoint if the run was cancelled, waits
+     * for pending checkpoints and closes the log. Algorithms call it in a
+     * finally block at the end of run().
+     */
+    protected void endRun() {
+        if (checkpointWriter != null) {
+            if (cancelled && population != null) {
+                checkpoint();
+            }
+            checkpointWriter.close();
+            checkpointWriter = null;
+        }
+        closeLog();
+    }
+    
+    /**
+     * Writes the pending rows of the log and closes it.
+     */
+    private void closeLog() {
+        if (logger != null) {
+            logger.close();
+            logger = null;
+        }
+        if (dumpLogger != null) {
+            dumpLogger.close();
+            dumpLogger = null;
+        }
+    }
+    
+    /**
+     * Turns the algorithm into a memetic algorithm: every interval generations
+     * the best individuals are refined by the local search. Refined genomes
+     * replace the individuals if the comparator rates them better.
+     * 
+     * @param localSearch e.g. a LevenbergMarquardt for least squares objectives
+     * @param interval number of generations between two refinements
+     * @param count number of best individuals that are refined
+     */
+    public void setLocalSearch(LocalSearch localSearch, int interval, int count) {
+        if (interval < 1 || count < 1) {
+            throw new IllegalArgumentException("interval and count must be positive");
+        }
+        this.localSearch = localSearch;
+        this.localSearchInterval = interval;
+        this.localSearchCount = count;
+    }
+    
+    /**
+     * Refines the best individuals of the sorted population if the local
+     * search is due in this generation. The evaluations of the local search
+     * are counted for the run. Refined genomes are clamped to the box of the
+     * individual factory if it has one.
+     * 
+     * @return true if an individual was replaced and the population must be sorted again
+     */
+    protected boolean polish() {
+        int generation = statistics.getGeneration();
+        if (localSearch == null || generation == 0 || generation % localSearchInterval != 0) {
+            return false;
+        }
+        boolean improved = false;
+        int count = Math.min(localSearchCount, population.size());
+        for (int i = 0; i < count; i++) {
+            Individual ind = population.get(i);
+            LocalSearch.Result result = localSearch.refine(ind.getGenome().array());
+            countEvaluations(result.evaluations());
+            
+            Individual refined = ind.copy();
+            float[] genome = result.genome();
+            for (int j = 0; j < genome.length; j++) {
+                float value = genome[j];
+                if (boxMin != null) {
+                    // The local search is unconstrained, the algorithms assume the box
+                    value = Math.max(boxMin[j], Math.min(value, Math.nextDown(boxMax[j])));
+                }
+                refined.getGenome().set(j, value);
+            }
+            refined.clearCache();
+            if (comparator.compare(refined, ind) > 0) {
+                population.set(i, refined);
+                improved = true;
+            }
+        }
+        return improved;
+    }
+    
+    /**
+     * Connects the population with other populations, e.g. as an island of
+     * an IslandModel. Every interval generations copies of the best count
+     * individuals emigrate, and the immigrants replace the worst individuals
+     * they are better than. Migration is meant for algorithms whose
+     * population may be changed between generations, like GeneticAlgorithm,
+     * DifferentialEvolution and SHADE. It is not part of checkpoints.
+     * 
+     * @param migration the connection to the other populations, null to isolate the population
+     * @param interval number of generations between two migrations
+     * @param count number of emigrants per migration
+     */
+    public void setMigration(Migration migration, int interval, int count) {
+        if (interval < 1 || count < 1) {
+            throw new IllegalArgumentException("interval and count must be positive");
+        }
+        this.migration = migration;
+        this.migrationInterval = interval;
+        this.migrationCount = count;
+    }
+    
+    private void migrate() {
+        population.sort(comparator);
+        int count = Math.min(migrationCount, population.size());
+        List<Individual> emigrants = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Individual ind = population.get(i);
+            Individual copy = ind.copy();
+            if (ind.hasCache()) {
+                copy.setCache(ind.getCache());
+            }
+            emigrants.add(copy);
+        }
+        
+        // The best immigrants take the places of the worst individuals, the best one stays
+        List<Individual> immigrants = new ArrayList<>(migration.exchange(emigrants));
+        if (immigrants.isEmpty()) {
+            return;
+        }
+        immigrants.sort(comparator.reversed());
+        int slot = population.size() - 1;
+        for (Individual ind : immigrants) {
+            if (slot < 1 || comparator.compare(ind, population.get(slot)) <= 0) {
+                break;
+            }
+            population.set(slot--, ind);
+        }
+        population.sort(comparator);
+        if (statistics.offer(population.get(0))) {
+            publishBest();
+        }
+    }
+    
+    /**
+     * @return the absolute difference between the cached values of best and worst
+     */
+    protected static float spread(Individual best, Individual worst) {
+        return Math.abs(worst.getCache() - best.getCache());
     }
     
+    /**
+     * Starts a generation by clearing the cached fitness of the population,
+     * for objectives that change between generations. Algorithms for a fixed
+     * objective keep the cached fitness and do not call it.
+     */
     protected void nextGeneration() {
         population.nextGeneration();
     }
     
-    protected abstract void run();
+    public abstract void run();
 }
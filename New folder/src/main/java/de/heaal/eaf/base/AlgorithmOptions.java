@@ -24,16 +24,18 @@
 
 package de.heaal.eaf.base;
 
-import java.util.HashMap;
+import java.util.EnumMap;
 import java.util.Map;
 
 /**
  * Options of an Algorithm.
- * A set of key-value-pairs.
+ * A set of key-value-pairs that is collected by a {@link Builder} and compiled
+ * into immutable primitive arrays indexed by the key, so that reading an option
+ * is neither a hash lookup nor an unboxing.
  * 
  * @author Christian Lins <christian.lins@haw-hamburg.de>
  */
-public class AlgorithmOptions {
+public final class AlgorithmOptions {
     public static enum KEYS {
         N, // Number of individuals/particles
         PSO_S,
@@ -42,30 +44,79 @@ public class AlgorithmOptions {
         PSO_P2MAX
     }
     
-    private final Map<KEYS, Integer> intOptions = new HashMap<>();
-    private final Map<KEYS, Float> floatOptions = new HashMap<>();
+    private static final KEYS[] ALL_KEYS = KEYS.values();
+
+    private final int[] intOptions = new int[ALL_KEYS.length];
+    private final float[] floatOptions = new float[ALL_KEYS.length];
+    private final boolean[] hasInt = new boolean[ALL_KEYS.length];
+    private final boolean[] hasFloat = new boolean[ALL_KEYS.length];
+
+    private AlgorithmOptions(Builder builder) {
+        builder.intOptions.forEach((key, value) -> {
+            intOptions[key.ordinal()] = value;
+            hasInt[key.ordinal()] = true;
+        });
+        builder.floatOptions.forEach((key, value) -> {
+            if (!Float.isFinite(value)) {
+                throw new AlgorithmOptionsException("Option " + key + " must be finite");
+            }
+            floatOptions[key.ordinal()] = value;
+            hasFloat[key.ordinal()] = true;
+        });
+
+        if (hasInt[KEYS.N.ordinal()] && intOptions[KEYS.N.ordinal()] <= 0) {
+            throw new AlgorithmOptionsException("Option N must be greater than 0");
+        }
+    }
     
+    public static Builder builder() {
+        return new Builder();
+    }
+
     public int get(KEYS key, int _default) {
-        if (intOptions.containsKey(key)) {
-            return intOptions.get(key);
-        } else {
-            return _default;
-        }
+        return hasInt[key.ordinal()] ? intOptions[key.ordinal()] : _default;
     }
     
     public float get(KEYS key, float _default) {
-        if (floatOptions.containsKey(key)) {
-            return floatOptions.get(key);
-        } else {
-            return _default;
-        }
+        return hasFloat[key.ordinal()] ? floatOptions[key.ordinal()] : _default;
     }
-    
-    public void put(KEYS key, int value) {
-        intOptions.put(key, value);
+
+    /**
+     * @param key option key
+     * @return true if an int or float value was given for the key
+     */
+    public boolean contains(KEYS key) {
+        return hasInt[key.ordinal()] || hasFloat[key.ordinal()];
+    }
+
+    /**
+     * Collects key-value-pairs and compiles them into immutable AlgorithmOptions.
+     */
+    public static class Builder {
+        private final Map<KEYS, Integer> intOptions = new EnumMap<>(KEYS.class);
+        private final Map<KEYS, Float> floatOptions = new EnumMap<>(KEYS.class);
+
+        private Builder() {
+        }
+
+        public Builder put(KEYS key, int value) {
+            intOptions.put(key, value);
+            return this;
+        }
+
+        public Builder put(KEYS key, float value) {
+            floatOptions.put(key, value);
+            return this;
+        }
+
+        /**
+         * Validates the options and creates the immutable AlgorithmOptions.
+         *
+         * @return the compiled options
+         * @throws AlgorithmOptionsException if an option is invalid
+         */
+        public AlgorithmOptions build() {
+            return new AlgorithmOptions(this);
+        }
     }
-    
-    public void put(KEYS key, float value) {
-        floatOptions.put(key, value);
-    }    
 }
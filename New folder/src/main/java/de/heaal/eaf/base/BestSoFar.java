@@ -0,0 +1,53 @@
+/*
+ * Evolutionary Algorithms Framework
+ *
+ * Copyright (c) 2023 Christian Lins <christian.lins@haw-hamburg.de>
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.heaal.eaf.base;
+
+/**
+ * An immutable snapshot of the best individual found so far in a run.
+ * Algorithms publish a new snapshot whenever the best individual improves,
+ * other threads can read the latest one at any time without locking.
+ * 
+ * @param genome copy of the genome of the best individual
+ * @param fitness cached fitness value of the best individual
+ * @param generation generation in which it was found
+ * @param evaluations number of evaluations when it was found
+ */
+public record BestSoFar(float[] genome, float fitness, int generation, long evaluations) {
+    
+    /**
+     * @return a copy of the genome, changing it does not change the snapshot
+     */
+    @Override
+    public float[] genome() {
+        return genome.clone();
+    }
+    
+    /**
+     * @return a copy of the genome as vector
+     */
+    public VecN toVecN() {
+        return new VecN(genome.clone());
+    }
+}
@@ -24,15 +24,145 @@
 
 package de.heaal.eaf.base;
 
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.function.BooleanSupplier;
+
 /**
  * The end condition of an algorithm run.
+ * End conditions are checked once per generation against the RunStatistics
+ * that the algorithm keeps up to date, so checking them never scans the
+ * population. Conditions can be combined with {@link #or(EndCondition)}.
+ * 
+ * Conditions that keep state between checks start over when the algorithm
+ * is run again, so a condition can be used for several runs.
  * 
  * @author Christian Lins <christian.lins@haw-hamburg.de>
  */
-public class EndCondition {
+public interface EndCondition {
     public static enum TYPE {
         GENERATION_MAXIMUM, // A maximum number of generations was reached
         TARGET_VALUE,       // The target function value was reached
-        CONVERGENCE_MINIMAL // The convergence comes to an halt
+        CONVERGENCE_MINIMAL,// The convergence comes to an halt
+        EVALUATION_MAXIMUM, // A maximum number of function evaluations was reached
+        TIME_MAXIMUM,       // A maximum wall-clock time was reached
+        DIVERSITY_MINIMAL,  // The fitness values of the population collapsed
+        CANCELLED           // The run was cancelled from outside
+    }
+    
+    /**
+     * Checks the condition.
+     * 
+     * @param stats statistics of the current run
+     * @return the type of the condition that is met or null if the run should go on
+     */
+    TYPE check(RunStatistics stats);
+    
+    /**
+     * @param other another condition
+     * @return a condition that is met as soon as this or the other condition is met
+     */
+    default EndCondition or(EndCondition other) {
+        return (stats) -> {
+            TYPE type = check(stats);
+            return type != null ? type : other.check(stats);
+        };
+    }
+    
+    /**
+     * The best individual is better than the target according to the comparator.
+     * 
+     * @param comparator comparator of the algorithm
+     * @param target e.g. a ComparatorIndividual with the target value
+     * @return the condition
+     */
+    static EndCondition targetValue(Comparator<Individual> comparator, Individual target) {
+        return (stats) -> stats.getBest() != null && comparator.compare(stats.getBest(), target) > 0
+                ? TYPE.TARGET_VALUE : null;
+    }
+    
+    /**
+     * @param generations maximum number of generations
+     * @return the condition
+     */
+    static EndCondition generationMaximum(int generations) {
+        return (stats) -> stats.getGeneration() >= generations ? TYPE.GENERATION_MAXIMUM : null;
+    }
+    
+    /**
+     * @param evaluations maximum number of fitness function evaluations
+     * @return the condition
+     */
+    static EndCondition evaluationMaximum(long evaluations) {
+        return (stats) -> stats.getEvaluations() >= evaluations ? TYPE.EVALUATION_MAXIMUM : null;
+    }
+    
+    /**
+     * @param millis maximum wall-clock time of the run in milliseconds
+     * @return the condition
+     */
+    static EndCondition timeMaximum(long millis) {
+        return (stats) -> stats.getElapsedMillis() >= millis ? TYPE.TIME_MAXIMUM : null;
+    }
+    
+    /**
+     * @param deadline point in time at which the run has to end
+     * @return the condition
+     */
+    static EndCondition deadline(Instant deadline) {
+        long millis = deadline.toEpochMilli();
+        return (stats) -> System.currentTimeMillis() >= millis ? TYPE.TIME_MAXIMUM : null;
+    }
+    
+    /**
+     * @param token cancellation token, e.g. AtomicBoolean::get
+     * @return a condition that is met as soon as the token returns true
+     */
+    static EndCondition cancelled(BooleanSupplier token) {
+        return (stats) -> token.getAsBoolean() ? TYPE.CANCELLED : null;
+    }
+    
+    /**
+     * The best fitness value did not change by more than tolerance for the given
+     * number of generations. The condition starts over when the generation
+     * counter goes back, i.e. when the algorithm is run again.
+     * 
+     * @param generations number of generations without progress
+     * @param tolerance minimal change of the best fitness value that counts as progress
+     * @return the condition
+     */
+    static EndCondition convergenceMinimal(int generations, float tolerance) {
+        return new EndCondition() {
+            private float reference = Float.NaN;
+            private int referenceGeneration;
+            
+            @Override
+            public TYPE check(RunStatistics stats) {
+                if (stats.getBest() == null) {
+                    return null;
+                }
+                float best = stats.getBest().getCache();
+                if (Float.isNaN(reference) || Math.abs(best - reference) > tolerance
+                        || stats.getGeneration() < referenceGeneration) {
+                    reference = best;
+                    referenceGeneration = stats.getGeneration();
+                    return null;
+                }
+                return stats.getGeneration() - referenceGeneration >= generations
+                        ? TYPE.CONVERGENCE_MINIMAL : null;
+            }
+        };
+    }
+    
+    /**
+     * The difference between the best and the worst fitness value of the
+     * population is below the threshold, i.e. the population has collapsed.
+     * 
+     * @param spread minimal difference between best and worst fitness
+     * @return the condition
+     */
+    static EndCondition diversityMinimal(float spread) {
+        // NaN (unknown spread) never meets the condition
+        return (stats) -> stats.getSpread() < spread ? TYPE.DIVERSITY_MINIMAL : null;
     }
 }
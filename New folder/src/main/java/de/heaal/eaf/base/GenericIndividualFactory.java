@@ -24,6 +24,12 @@
 
 package de.heaal.eaf.base;
 
+import de.heaal.eaf.sampling.Sampler;
+import de.heaal.eaf.sampling.UniformSampler;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
 /**
  * A generic individual factory that can be used in various EA algorithms.
  * 
@@ -32,6 +38,8 @@ package de.heaal.eaf.base;
 public class GenericIndividualFactory extends AbstractIndividualFactory {
 
     protected float[] min, max;
+    private Sampler sampler = new UniformSampler();
+    private Comparator<Individual> opposition;
     
     /**
      * Initialized this factory with the min and max values for the genomes
@@ -48,11 +56,88 @@ public class GenericIndividualFactory extends AbstractIndividualFactory {
         this.max = max;
     }
     
+    @Override
+    public float[] getLowerBounds() {
+        return min;
+    }
+    
+    @Override
+    public float[] getUpperBounds() {
+        return max;
+    }
+    
+    /**
+     * Sets the sampler for the points of the initial population, e.g. a
+     * SobolSampler or LatinHypercubeSampler. The default is uniform random.
+     * 
+     * @param sampler 
+     */
+    public void setSampler(Sampler sampler) {
+        if (sampler == null) {
+            throw new IllegalArgumentException("sampler == null");
+        }
+        this.sampler = sampler;
+    }
+    
+    /**
+     * Enables opposition-based initialization: for every sampled genome x
+     * the opposite genome min + max - x is created, too, and the better
+     * individual of each pair is kept. This costs one evaluation per
+     * individual more. The kept individuals carry their fitness in the cache.
+     * 
+     * @param cmp comparator that evaluates the pairs, null disables opposition
+     */
+    public void setOpposition(Comparator<Individual> cmp) {
+        this.opposition = cmp;
+    }
+    
     @Override
     public GenericIndividual create() {
         return new GenericIndividual(createRandomGenome());
     }
     
+    /**
+     * Creates num individuals in one batch from the points of the sampler,
+     * which are written directly into the genome arrays.
+     */
+    @Override
+    public List<Individual> create(int num) {
+        var points = new float[num][min.length];
+        sampler.sample(points, rng);
+        
+        var individuals = new ArrayList<Individual>(num);
+        for (float[] genome : points) {
+            for (int i = 0; i < genome.length; i++) {
+                genome[i] = genome[i] * (max[i] - min[i]) + min[i];
+            }
+            Individual ind = createIndividual(new VecN(genome));
+            if (opposition != null) {
+                Individual opposite = createIndividual(new VecN(oppositeOf(genome)));
+                if (opposition.compare(opposite, ind) > 0) {
+                    ind = opposite;
+                }
+            }
+            individuals.add(ind);
+        }
+        return individuals;
+    }
+    
+    /**
+     * Wraps a genome in a new individual of the type this factory creates.
+     */
+    protected Individual createIndividual(VecN genome) {
+        return new GenericIndividual(genome);
+    }
+    
+    private float[] oppositeOf(float[] genome) {
+        var opposite = new float[genome.length];
+        for (int i = 0; i < genome.length; i++) {
+            // Keep the upper limit exclusive
+            opposite[i] = Math.max(min[i], Math.min(min[i] + max[i] - genome[i], Math.nextDown(max[i])));
+        }
+        return opposite;
+    }
+    
     protected VecN createRandomGenome() {
         var genome = new float[min.length];
         
@@ -24,6 +24,8 @@
 
 package de.heaal.eaf.base;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
 
 /**
@@ -35,4 +37,33 @@ public interface IndividualFactory {
     void setRandom(Random rng);
     
     Individual create();
+    
+    /**
+     * Creates num individuals at once, e.g. for the initial population.
+     * Factories may override this to generate the whole batch together.
+     * 
+     * @param num
+     * @return a new mutable list of individuals
+     */
+    default List<Individual> create(int num) {
+        var individuals = new ArrayList<Individual>(num);
+        for (int i = 0; i < num; i++) {
+            individuals.add(create());
+        }
+        return individuals;
+    }
+    
+    /**
+     * @return inclusive lower bounds of the genomes, null if the factory has no box
+     */
+    default float[] getLowerBounds() {
+        return null;
+    }
+    
+    /**
+     * @return exclusive upper bounds of the genomes, null if the factory has no box
+     */
+    default float[] getUpperBounds() {
+        return null;
+    }
 }
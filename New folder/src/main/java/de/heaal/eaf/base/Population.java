@@ -31,7 +31,6 @@ import java.util.List;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * Class representing an algorithm's population.
@@ -50,9 +49,7 @@ public class Population implements Iterable<Individual> {
      * @param num 
      */
     public Population(IndividualFactory iFak, int num) {
-        individuals = Stream.generate(() -> iFak.create())
-                            .limit(num)
-                            .collect(Collectors.toList());
+        individuals = iFak.create(num);
     }
     
     /**
@@ -0,0 +1,156 @@
+/*
+ * Evolutionary Algorithms Framework
+ *
+ * Copyright (c) 2023 Christian Lins <christian.lins@haw-hamburg.de>
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package de.heaal.eaf.base;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Summary of the fitness and genomes of a population, used to log one short
+ * row per generation instead of the fitness of every individual.
+ * 
+ * A row contains: generation, evaluations, best, worst, mean, standard
+ * deviation, diversity and the requested quantiles of the fitness.
+ * Diversity is the mean squared distance of the genomes to their centroid.
+ * Like every value of a log row, generation and evaluations are floats, so
+ * they are exact up to 2^24 (16777216) and rounded to 24 significant bits
+ * above.
+ * 
+ * The fitness values are summarized in a single pass over the population,
+ * the diversity needs a second pass over the distances to the centroid and
+ * the quantiles a sorted copy of the fitness values.
+ * 
+ * Summary logs are named with LOG_SUFFIX before the extension, so readers
+ * of run logs can tell them from logs with the fitness of every individual.
+ */
+public class PopulationSummary {
+    
+    public static final int FIXED_COLUMNS = 7;
+    public static final int BEST_COLUMN = 2;
+    public static final String LOG_SUFFIX = "_summary";
+    
+    private final float[] quantiles;
+    private float[] fitness = new float[0];
+    private double[] centroid = new double[0];
+    
+    /**
+     * @param quantiles quantiles of the fitness to log, each in [0, 1]
+     */
+    public PopulationSummary(float... quantiles) {
+        for (float q : quantiles) {
+            if (!(q >= 0 && q <= 1)) {
+                throw new IllegalArgumentException("quantile must be in [0, 1]: " + q);
+            }
+        }
+        this.quantiles = quantiles.clone();
+    }
+    
+    /**
+     * @return number of values in a row
+     */
+    public int columns() {
+        return FIXED_COLUMNS + quantiles.length;
+    }
+    
+    /**
+     * Computes the summary of the population. The fitness of every individual
+     * must be cached.
+     * 
+     * @param population population to summarize
+     * @param cmp comparator that decides about best and worst
+     * @param generation current generation
+     * @param evaluations evaluations so far
+     * @param row array of at least columns() values for the result
+     */
+    public void summarize(Population population, Comparator<Individual> cmp,
+            int generation, long evaluations, float[] row) {
+        int n = population.size();
+        if (fitness.length < n) {
+            fitness = new float[n];
+        }
+        
+        Individual best = population.get(0);
+        Individual worst = best;
+        int dim = best.getGenome().len();
+        if (centroid.length < dim) {
+            centroid = new double[dim];
+        }
+        Arrays.fill(centroid, 0, dim, 0.0);
+        double mean = 0;
+        double m2 = 0;
+        for (int i = 0; i < n; i++) {
+            Individual ind = population.get(i);
+            // The comparator returns a positive value if the first individual is better
+            if (i > 0 && cmp.compare(ind, best) > 0) {
+                best = ind;
+            } else if (i > 0 && cmp.compare(ind, worst) < 0) {
+                worst = ind;
+            }
+            
+            // Welford's update of mean and variance
+            float f = ind.getCache();
+            fitness[i] = f;
+            double delta = f - mean;
+            mean += delta / (i + 1);
+            m2 += delta * (f - mean);
+            
+            float[] x = ind.getGenome().array();
+            for (int d = 0; d < dim; d++) {
+                centroid[d] += x[d];
+            }
+        }
+        
+        // Distances to the centroid, E|x|^2 - |E x|^2 would cancel out for
+        // converged populations far from the origin
+        for (int d = 0; d < dim; d++) {
+            centroid[d] /= n;
+        }
+        double squaredDistances = 0;
+        for (int i = 0; i < n; i++) {
+            float[] x = population.get(i).getGenome().array();
+            for (int d = 0; d < dim; d++) {
+                double delta = x[d] - centroid[d];
+                squaredDistances += delta * delta;
+            }
+        }
+        
+        row[0] = generation;
+        row[1] = evaluations;
+        row[BEST_COLUMN] = best.getCache();
+        row[3] = worst.getCache();
+        row[4] = (float) mean;
+        row[5] = (float) Math.sqrt(m2 / n);
+        row[6] = (float) (squaredDistances / n);
+        
+        if (quantiles.length > 0) {
+            Arrays.sort(fitness, 0, n);
+            for (int q = 0; q < quantiles.length; q++) {
+                int rank = (int) Math.ceil(quantiles[q] * n) - 1;
+                row[FIXED_COLUMNS + q] = fitness[Math.max(0, rank)];
+            }
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Evolutionary Algorithms Framework
+ *
+ * Copyright (c) 2023 Christian Lins <christian.lins@haw-hamburg.de>
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.heaal.eaf.base;
+
+import java.util.Comparator;
+
+/**
+ * Statistics of an algorithm run that are updated incrementally, once per
+ * generation, by the algorithm itself. End conditions only read these values,
+ * so checking them costs O(1) per generation.
+ * 
+ * The statistics are not thread-safe, other threads should read the
+ * best individual through Algorithm.getBestSoFar().
+ */
+public class RunStatistics {
+    
+    private Comparator<Individual> comparator;
+    private int generation;
+    private long evaluations;
+    private Individual best;
+    private float spread = Float.NaN;
+    private long startNanos;
+    
+    /**
+     * Resets the statistics at the start of a run.
+     * 
+     * @param comparator comparator of the algorithm, used to decide about improvements
+     */
+    public void start(Comparator<Individual> comparator) {
+        this.comparator = comparator;
+        this.generation = 0;
+        this.evaluations = 0;
+        this.best = null;
+        this.spread = Float.NaN;
+        this.startNanos = System.nanoTime();
+    }
+    
+    /**
+     * Restores the statistics of a resumed run.
+     * 
+     * @param comparator comparator of the algorithm
+     * @param generation number of finished generations
+     * @param evaluations number of evaluations so far
+     * @param best best individual so far with valid cache, or null
+     * @param spread difference between best and worst fitness or NaN if unknown
+     * @param elapsedMillis run time before the checkpoint
+     */
+    public void restore(Comparator<Individual> comparator, int generation, long evaluations,
+            Individual best, float spread, long elapsedMillis) {
+        this.comparator = comparator;
+        this.generation = generation;
+        this.evaluations = evaluations;
+        this.best = best;
+        this.spread = spread;
+        this.startNanos = System.nanoTime() - elapsedMillis * 1_000_000;
+    }
+    
+    /**
+     * Offers a candidate for the best individual of the run. It must have
+     * a valid cache. A copy of it is kept if it is better than the current best.
+     * 
+     * @param candidate the candidate
+     * @return true if the candidate is the new best individual
+     */
+    public boolean offer(Individual candidate) {
+        if (best != null && comparator.compare(candidate, best) <= 0) {
+            return false;
+        }
+        // The copy does not share the cache, but it is not part of the
+        // population, so it is never cleared again
+        Individual copy = candidate.copy();
+        copy.setCache(candidate.getCache());
+        best = copy;
+        return true;
+    }
+    
+    /**
+     * Finishes a generation.
+     * 
+     * @param bestOfGeneration best individual of the generation, with valid cache
+     * @param spread difference between best and worst fitness or NaN if unknown
+     * @param evaluations total number of evaluations of this run
+     * @return true if the best individual of the run improved
+     */
+    public boolean nextGeneration(Individual bestOfGeneration, float spread, long evaluations) {
+        this.spread = spread;
+        this.evaluations = evaluations;
+        this.generation++;
+        return offer(bestOfGeneration);
+    }
+    
+    /**
+     * Updates the statistics without finishing a generation, e.g. after the
+     * initial population was evaluated.
+     * 
+     * @param spread difference between best and worst fitness or NaN if unknown
+     * @param evaluations total number of evaluations of this run
+     */
+    public void update(float spread, long evaluations) {
+        this.spread = spread;
+        this.evaluations = evaluations;
+    }
+    
+    /**
+     * @return number of finished generations
+     */
+    public int getGeneration() {
+        return generation;
+    }
+    
+    /**
+     * @return number of fitness function evaluations of this run
+     */
+    public long getEvaluations() {
+        return evaluations;
+    }
+    
+    /**
+     * @return copy of the best individual found so far or null
+     */
+    public Individual getBest() {
+        return best;
+    }
+    
+    /**
+     * @return difference between best and worst fitness of the population, NaN if unknown
+     */
+    public float getSpread() {
+        return spread;
+    }
+    
+    public long getElapsedMillis() {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
@@ -27,11 +27,19 @@ package de.heaal.eaf.base;
 /**
  * An N-dimensional vector of floats.
  * 
+ * Copies are copy-on-write: a copy shares the backing array with its origin
+ * until one of them is written through {@link #set(int, float)},
+ * {@link #writableArray()} or one of the arithmetic methods. The array
+ * returned by {@link #array()} must therefore be treated as read-only.
+ * 
  * @author Christian Lins <christian.lins@haw-hamburg.de>
  */
 public class VecN {
     protected float[] array;
     
+    // True if the array may be referenced by another VecN
+    private boolean shared;
+    
     public VecN(int length) {
         array = new float[length];
     }
@@ -43,19 +51,56 @@ public class VecN {
         this.array = array;
     }
     
+    /**
+     * Creates a copy of this vector without copying the values. The values
+     * are copied lazily before the first write to either of the two vectors.
+     * 
+     * @return copy of this vector
+     */
     public VecN copy() {
-        return new VecN(array.clone());
+        shared = true;
+        VecN copy = new VecN(array);
+        copy.shared = true;
+        return copy;
     }
     
+    /**
+     * Returns the backing array for reading. The array may be shared with
+     * copies of this vector, so it must not be modified. Use
+     * {@link #set(int, float)} or {@link #writableArray()} for writing.
+     * 
+     * @return the values of this vector
+     */
     public float[] array() {
         return array;
     }
     
+    /**
+     * Returns the backing array for writing. If it is shared with another
+     * vector it is copied first.
+     * 
+     * @return the values of this vector, exclusively owned by this vector
+     */
+    public float[] writableArray() {
+        ensureExclusive();
+        return array;
+    }
+    
+    public float get(int i) {
+        return array[i];
+    }
+    
+    public void set(int i, float value) {
+        ensureExclusive();
+        array[i] = value;
+    }
+    
     public int len() {
         return array.length;
     }
     
     public VecN add(VecN other) {
+        ensureExclusive();
         for (int i = 0; i < array.length; i++) {
             array[i] += other.array[i];
         }
@@ -63,6 +108,7 @@ public class VecN {
     }
     
     public VecN sub(VecN other) {
+        ensureExclusive();
         for (int i = 0; i < array.length; i++) {
             array[i] -= other.array[i];
         }
@@ -70,12 +116,28 @@ public class VecN {
     }
     
     public VecN mul(VecN other) {
+        ensureExclusive();
         for (int i = 0; i < array.length; i++) {
             array[i] *= other.array[i];
         }
         return this;
     }
     
+    public VecN mul(float factor) {
+        ensureExclusive();
+        for (int i = 0; i < array.length; i++) {
+            array[i] *= factor;
+        }
+        return this;
+    }
+    
+    private void ensureExclusive() {
+        if (shared) {
+            array = array.clone();
+            shared = false;
+        }
+    }
+    
     @Override
     public String toString() {
         StringBuilder buf = new StringBuilder();
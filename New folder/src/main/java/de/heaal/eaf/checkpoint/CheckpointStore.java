@@ -0,0 +1,155 @@
+/*
+ * Evolutionary Algorithms Framework
+ *
+ * Copyright (c) 2023 Christian Lins <christian.lins@haw-hamburg.de>
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package de.heaal.eaf.checkpoint;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Stores checkpoints crash-consistently in two files, path.0 and path.1.
+ * The files are written alternately, so while one is being written the
+ * other still holds the previous complete checkpoint. Every file is forced
+ * to disk before the next one is written.
+ * 
+ * A file consists of: int magic "EAFC", int version, long sequence number,
+ * int payload length, the payload and the CRC32 of all bytes before it.
+ * The valid file with the highest sequence number is the latest checkpoint.
+ */
+public class CheckpointStore {
+    
+    private static final int MAGIC = 0x45414643; // "EAFC"
+    private static final int VERSION = 1;
+    private static final int HEADER = 20;
+    
+    private final Path[] files;
+    private long sequence;
+    
+    /**
+     * @param path base name of the two checkpoint files
+     */
+    public CheckpointStore(String path) {
+        this.files = new Path[] { Path.of(path + ".0"), Path.of(path + ".1") };
+        this.sequence = latestSequence();
+    }
+    
+    /**
+     * Writes the payload as the next checkpoint and forces it to disk.
+     * 
+     * @param payload the snapshot
+     * @throws IOException if writing fails, the previous checkpoint stays valid
+     */
+    public void write(byte[] payload) throws IOException {
+        long next = sequence + 1;
+        Path file = files[(int) (next & 1)];
+        boolean created = !Files.exists(file);
+        
+        ByteBuffer buf = ByteBuffer.allocate(HEADER + payload.length + 8);
+        buf.putInt(MAGIC).putInt(VERSION).putLong(next).putInt(payload.length).put(payload);
+        CRC32 crc = new CRC32();
+        crc.update(buf.array(), 0, buf.position());
+        buf.putLong(crc.getValue());
+        buf.flip();
+        
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buf.hasRemaining()) {
+                channel.write(buf);
+            }
+            channel.force(true);
+        }
+        if (created) {
+            forceDirectory(file);
+        }
+        sequence = next;
+    }
+    
+    /**
+     * Reads the latest complete checkpoint.
+     * 
+     * @return the payload or null if there is no valid checkpoint
+     */
+    public byte[] readLatest() {
+        byte[] latest = null;
+        long latestSequence = -1;
+        for (Path file : files) {
+            ByteBuffer buf = read(file);
+            if (buf != null && buf.getLong(8) > latestSequence) {
+                latestSequence = buf.getLong(8);
+                latest = new byte[buf.getInt(16)];
+                buf.get(HEADER, latest);
+            }
+        }
+        return latest;
+    }
+    
+    private long latestSequence() {
+        long latest = 0;
+        for (Path file : files) {
+            ByteBuffer buf = read(file);
+            if (buf != null) {
+                latest = Math.max(latest, buf.getLong(8));
+            }
+        }
+        return latest;
+    }
+    
+    // Returns the content of a valid checkpoint file or null
+    private static ByteBuffer read(Path file) {
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(file);
+        } catch (IOException e) {
+            return null;
+        }
+        if (bytes.length < HEADER + 8) {
+            return null;
+        }
+        ByteBuffer buf = ByteBuffer.wrap(bytes);
+        int length = buf.getInt(16);
+        if (buf.getInt(0) != MAGIC || buf.getInt(4) != VERSION
+                || length < 0 || length != bytes.length - HEADER - 8) {
+            return null;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, HEADER + length);
+        return crc.getValue() == buf.getLong(HEADER + length) ? buf : null;
+    }
+    
+    // Makes the directory entry of a new file durable, where the platform allows it
+    private static void forceDirectory(Path file) {
+        Path dir = file.toAbsolutePath().getParent();
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Not supported on every platform, the file content itself is on disk
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Evolutionary Algorithms Framework
+ *
+ * Copyright (c) 2023 Christian Lins <christian.lins@haw-hamburg.de>
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package de.heaal.eaf.checkpoint;
+
+import java.io.IOException;
+
+/**
+ * Writes checkpoints asynchronously with a CheckpointStore. The algorithm
+ * thread only hands over the snapshot bytes. If a new snapshot arrives
+ * while the previous one is still waiting, only the newest one is written.
+ */
+public class CheckpointWriter implements AutoCloseable {
+    
+    private final CheckpointStore store;
+    private final Thread thread;
+    private final Object lock = new Object();
+    private byte[] pending;
+    private boolean closed;
+    private volatile IOException lastError;
+    
+    /**
+     * Creates the writer and starts its thread
+     * 
+     * @param store store for the checkpoints
+     */
+    public CheckpointWriter(CheckpointStore store) {
+        this.store = store;
+        this.thread = new Thread(this::drain, "CheckpointWriter");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+    
+    /**
+     * Hands over a snapshot, never blocks.
+     * 
+     * @param snapshot bytes of the snapshot, must not be changed afterwards
+     */
+    public void submit(byte[] snapshot) {
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("checkpoint writer is closed");
+            }
+            pending = snapshot;
+            lock.notifyAll();
+        }
+    }
+    
+    /**
+     * @return the last error of the writer thread or null
+     */
+    public IOException getLastError() {
+        return lastError;
+    }
+    
+    /**
+     * Writes the pending snapshot and stops the writer thread.
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            lock.notifyAll();
+        }
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private void drain() {
+        while (true) {
+            byte[] snapshot;
+            synchronized (lock) {
+                while (pending == null && !closed) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (pending == null) {
+                    return;
+                }
+                snapshot = pending;
+                pending = null;
+            }
+            try {
+                store.write(snapshot);
+            } catch (IOException e) {
+                lastError = e;
+                e.printStackTrace();
+            }
+        }
+    }
+}
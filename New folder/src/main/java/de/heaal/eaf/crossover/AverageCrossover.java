@@ -44,7 +44,7 @@ public class AverageCrossover implements Combination {
         Individual child = parents[0].copy();
 
         for(int i = 0; i < dim; i++){
-            child.getGenome().array()[i] = (parents[0].getGenome().array()[i] + parents[1].getGenome().array()[i])/2;
+            child.getGenome().set(i, (parents[0].getGenome().array()[i] + parents[1].getGenome().array()[i])/2);
         }
         
         return child;
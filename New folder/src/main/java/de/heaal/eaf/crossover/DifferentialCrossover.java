@@ -53,10 +53,10 @@ public class DifferentialCrossover implements Combination {
         for(int i = 0; i < dim; i++){
             if (rng.nextDouble() < crossoverRate || i == rng.nextInt(2)) {
                 // trial vector
-                child.getGenome().array()[i] = parents[0].getGenome().array()[i];
+                child.getGenome().set(i, parents[0].getGenome().array()[i]);
             } else {
                 // parent vector
-                child.getGenome().array()[i] = parents[1].getGenome().array()[i];
+                child.getGenome().set(i, parents[1].getGenome().array()[i]);
             }
         }
         
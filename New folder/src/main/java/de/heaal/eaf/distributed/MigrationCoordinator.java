@@ -0,0 +1,293 @@
+/*
+ * Evolutionary Algorithms Framework
+ *
+ * Copyright (c) 2023 Christian Lins <christian.lins@haw-hamburg.de>
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package de.heaal.eaf.distributed;
+
+import de.heaal.eaf.base.Individual;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Coordinator of a distributed island model. Worker processes connect with
+ * a RemoteMigration over TCP or a Unix domain socket. The connected workers
+ * form a ring: the emigrants of a worker go to the inbox of the next one,
+ * and every exchange returns the inbox of the sender.
+ * 
+ * Every worker is served by its own thread and inboxes are bounded, so a
+ * slow worker only slows down itself. A crashed worker leaves the ring and
+ * counts as finished. As soon as a worker reports that it reached its
+ * target value, all workers are asked to stop at their next exchange.
+ */
+public class MigrationCoordinator implements AutoCloseable {
+    
+    private final ServerSocketChannel server;
+    private final int genomeLength;
+    private final Comparator<Individual> comparator;
+    private final int inboxCapacity;
+    private final ConcurrentSkipListMap<Integer, Worker> workers = new ConcurrentSkipListMap<>();
+    private final AtomicInteger nextIndex = new AtomicInteger();
+    private final Thread acceptor;
+    private volatile boolean stop;
+    
+    private final Object lock = new Object();
+    private int finished;
+    private Individual best;
+    
+    /**
+     * Binds the coordinator and starts accepting workers.
+     * 
+     * @param address e.g. new InetSocketAddress(InetAddress.getLoopbackAddress(), 0)
+     *        or a UnixDomainSocketAddress
+     * @param genomeLength genome length of all workers
+     * @param comparator ranks the reported best individuals, only cached values are compared
+     * @param inboxCapacity maximum number of waiting immigrants per worker, the oldest are dropped
+     * @throws IOException if the address can not be bound
+     */
+    public MigrationCoordinator(SocketAddress address, int genomeLength,
+            Comparator<Individual> comparator, int inboxCapacity) throws IOException
+    {
+        if (genomeLength < 1 || inboxCapacity < 1) {
+            throw new IllegalArgumentException("genomeLength and inboxCapacity must be positive");
+        }
+        this.server = address instanceof UnixDomainSocketAddress
+                ? ServerSocketChannel.open(StandardProtocolFamily.UNIX)
+                : ServerSocketChannel.open();
+        server.bind(address);
+        this.genomeLength = genomeLength;
+        this.comparator = comparator;
+        this.inboxCapacity = inboxCapacity;
+        this.acceptor = new Thread(this::accept, "MigrationCoordinator");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+    
+    /**
+     * @return the bound address, with the actual port if port 0 was given
+     */
+    public SocketAddress getAddress() throws IOException {
+        return server.getLocalAddress();
+    }
+    
+    /**
+     * Waits until the given number of workers have finished or crashed.
+     * 
+     * @param count number of workers
+     * @param timeoutMillis maximum time to wait, e.g. for a hanging worker
+     * @return false if the time ran out
+     */
+    public boolean awaitWorkers(int count, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        synchronized (lock) {
+            while (finished < count) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return false;
+                }
+                lock.wait(remaining);
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * @return best individual reported by any worker, null if none was reported yet
+     */
+    public Individual getBest() {
+        synchronized (lock) {
+            return best;
+        }
+    }
+    
+    /**
+     * @return number of connected workers
+     */
+    public int getWorkerCount() {
+        return workers.size();
+    }
+    
+    /**
+     * Asks all workers to stop at their next exchange.
+     */
+    public void stop() {
+        stop = true;
+    }
+    
+    /**
+     * Closes the server and all connections.
+     */
+    @Override
+    public void close() throws IOException {
+        SocketAddress address = server.getLocalAddress();
+        server.close();
+        for (Worker worker : workers.values()) {
+            worker.channel.close();
+        }
+        try {
+            acceptor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (address instanceof UnixDomainSocketAddress unix) {
+            Files.deleteIfExists(unix.getPath());
+        }
+    }
+    
+    private void accept() {
+        while (true) {
+            SocketChannel channel;
+            try {
+                channel = server.accept();
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                e.printStackTrace();
+                return;
+            }
+            Thread thread = new Thread(() -> serve(channel), "MigrationWorker");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+    
+    private void serve(SocketChannel channel) {
+        Worker worker = null;
+        try (channel) {
+            DataInputStream in = MigrationProtocol.input(channel);
+            DataOutputStream out = MigrationProtocol.output(channel);
+            if (in.readInt() != MigrationProtocol.MAGIC || in.readInt() != MigrationProtocol.VERSION) {
+                throw new IOException("unknown protocol");
+            }
+            if (in.readInt() != genomeLength) {
+                out.writeInt(-1);
+                out.flush();
+                return;
+            }
+            worker = new Worker(nextIndex.getAndIncrement(), channel);
+            workers.put(worker.index, worker);
+            out.writeInt(worker.index);
+            out.flush();
+            
+            while (true) {
+                byte type = in.readByte();
+                if (type == MigrationProtocol.EXCHANGE) {
+                    List<Individual> emigrants = MigrationProtocol.readIndividuals(in, genomeLength);
+                    // The emigrants are the best individuals of the worker
+                    emigrants.forEach(this::offerBest);
+                    Worker next = next(worker.index);
+                    if (next != null) {
+                        next.offer(emigrants);
+                    }
+                    out.writeBoolean(stop);
+                    MigrationProtocol.writeIndividuals(out, worker.drain());
+                    out.flush();
+                } else if (type == MigrationProtocol.DONE) {
+                    if (in.readBoolean()) {
+                        stop = true;
+                    }
+                    if (in.readBoolean()) {
+                        offerBest(MigrationProtocol.readIndividual(in, genomeLength));
+                    }
+                    return;
+                } else {
+                    throw new IOException("unknown message " + type);
+                }
+            }
+        } catch (IOException e) {
+            // The worker crashed or the coordinator was closed, the others go on
+            if (server.isOpen()) {
+                System.err.println("Lost worker " + (worker != null ? worker.index : "?") + ": " + e);
+            }
+        } finally {
+            if (worker != null) {
+                workers.remove(worker.index);
+                synchronized (lock) {
+                    finished++;
+                    lock.notifyAll();
+                }
+            }
+        }
+    }
+    
+    // Next connected worker in the ring, null if the worker is alone
+    private Worker next(int index) {
+        var entry = workers.higherEntry(index);
+        if (entry == null) {
+            entry = workers.firstEntry();
+        }
+        return entry == null || entry.getKey() == index ? null : entry.getValue();
+    }
+    
+    private void offerBest(Individual candidate) {
+        if (!candidate.hasCache()) {
+            return;
+        }
+        synchronized (lock) {
+            if (best == null || comparator.compare(candidate, best) > 0) {
+                best = candidate;
+            }
+        }
+    }
+    
+    private class Worker {
+        
+        final int index;
+        final SocketChannel channel;
+        private final ArrayDeque<Individual> inbox = new ArrayDeque<>();
+        
+        Worker(int index, SocketChannel channel) {
+            this.index = index;
+            this.channel = channel;
+        }
+        
+        synchronized void offer(List<Individual> immigrants) {
+            for (Individual ind : immigrants) {
+                if (inbox.size() == inboxCapacity) {
+                    inbox.pollFirst();
+                }
+                inbox.addLast(ind);
+            }
+        }
+        
+        synchronized List<Individual> drain() {
+            List<Individual> immigrants = new ArrayList<>(inbox);
+            inbox.clear();
+            return immigrants;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Evolutionary Algorithms Framework
+ *
+ * Copyright (c) 2023 Christian Lins <christian.lins@haw-hamburg.de>
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package de.heaal.eaf.distributed;
+
+import de.heaal.eaf.base.GenericIndividual;
+import de.heaal.eaf.base.Individual;
+import de.heaal.eaf.base.VecN;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary protocol between workers and the MigrationCoordinator. All
+ * messages go from the worker to the coordinator, only EXCHANGE is
+ * answered.
+ * 
+ *   handshake: int MAGIC, int VERSION, int genome length
+ *              reply: int worker index, -1 if the genome length does not match
+ *   EXCHANGE:  byte 1, int count, count individuals
+ *              reply: byte stop, int count, count individuals
+ *   DONE:      byte 2, byte target reached, byte has best, [best]
+ * 
+ * An individual is a byte with the cache flag, the cached value as float
+ * and the genome as raw floats, the length is fixed by the handshake.
+ */
+final class MigrationProtocol {
+    
+    static final int MAGIC = 0x45414649;  // "EAFI"
+    static final int VERSION = 3;
+    static final byte EXCHANGE = 1;
+    static final byte DONE = 2;
+    // Upper bound of individuals per message, protects against corrupt streams
+    static final int MAX_COUNT = 1 << 16;
+    
+    private MigrationProtocol() {
+    }
+    
+    /**
+     * Opens a blocking channel to a TCP or Unix domain socket address.
+     */
+    static SocketChannel connect(SocketAddress address) throws IOException {
+        SocketChannel channel = address instanceof UnixDomainSocketAddress
+                ? SocketChannel.open(StandardProtocolFamily.UNIX)
+                : SocketChannel.open();
+        channel.connect(address);
+        return channel;
+    }
+    
+    static DataInputStream input(SocketChannel channel) {
+        return new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+    }
+    
+    static DataOutputStream output(SocketChannel channel) {
+        return new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+    }
+    
+    static void writeIndividual(DataOutputStream out, Individual ind) throws IOException {
+        out.writeBoolean(ind.hasCache());
+        out.writeFloat(ind.getCache());
+        for (float x : ind.getGenome().array()) {
+            out.writeFloat(x);
+        }
+    }
+    
+    static Individual readIndividual(DataInputStream in, int genomeLength) throws IOException {
+        boolean hasCache = in.readBoolean();
+        float cache = in.readFloat();
+        float[] genome = new float[genomeLength];
+        for (int i = 0; i < genomeLength; i++) {
+            genome[i] = in.readFloat();
+        }
+        Individual ind = new GenericIndividual(new VecN(genome));
+        if (hasCache) {
+            ind.setCache(cache);
+        }
+        return ind;
+    }
+    
+    static void writeIndividuals(DataOutputStream out, List<Individual> individuals) throws IOException {
+        out.writeInt(individuals.size());
+        for (Individual ind : individuals) {
+            writeIndividual(out, ind);
+        }
+    }
+    
+    static List<Individual> readIndividuals(DataInputStream in, int genomeLength) throws IOException {
+        int count = in.readInt();
+        if (count < 0 || count > MAX_COUNT) {
+            throw new IOException("invalid number of individuals " + count);
+        }
+        List<Individual> individuals = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            individuals.add(readIndividual(in, genomeLength));
+        }
+        return individuals;
+    }
+}
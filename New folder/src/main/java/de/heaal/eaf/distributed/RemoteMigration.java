@@ -0,0 +1,254 @@
+/*
+ * Evolutionary Algorithms Framework
+ *
+ * Copyright (c) 2023 Christian Lins <christian.lins@haw-hamburg.de>
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package de.heaal.eaf.distributed;
+
+import de.heaal.eaf.base.Algorithm;
+import de.heaal.eaf.base.EndCondition;
+import de.heaal.eaf.base.Individual;
+import de.heaal.eaf.base.Migration;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Migration of a worker process to a MigrationCoordinator. The exchange
+ * with the coordinator runs on a background thread, so exchange() never
+ * blocks the algorithm: it hands over the emigrants and returns the
+ * immigrants that arrived so far. If the previous emigrants are still
+ * waiting, only the newest ones are sent. When the connection fails, the
+ * worker goes on as an isolated island.
+ */
+public class RemoteMigration implements Migration, AutoCloseable {
+    
+    // Time the last exchange may take when the worker finishes
+    private static final long ANSWER_TIMEOUT_MILLIS = 5000;
+    
+    private final SocketChannel channel;
+    private final DataInputStream in;
+    private final DataOutputStream out;
+    private final int genomeLength;
+    private final int index;
+    private final ConcurrentLinkedQueue<Individual> inbox = new ConcurrentLinkedQueue<>();
+    private final Thread thread;
+    private final Object lock = new Object();
+    private List<Individual> pending;
+    private boolean closed;
+    private volatile IOException lastError;
+    private volatile Runnable stopListener;
+    
+    /**
+     * Connects to the coordinator and starts the exchange thread.
+     * 
+     * @param coordinator TCP or Unix domain socket address of the coordinator
+     * @param genomeLength genome length of the individuals
+     * @throws IOException if the coordinator is not reachable or rejects the worker
+     */
+    public RemoteMigration(SocketAddress coordinator, int genomeLength) throws IOException {
+        this.channel = MigrationProtocol.connect(coordinator);
+        this.in = MigrationProtocol.input(channel);
+        this.out = MigrationProtocol.output(channel);
+        this.genomeLength = genomeLength;
+        try {
+            out.writeInt(MigrationProtocol.MAGIC);
+            out.writeInt(MigrationProtocol.VERSION);
+            out.writeInt(genomeLength);
+            out.flush();
+            this.index = in.readInt();
+            if (index < 0) {
+                throw new IOException("coordinator expects another genome length than " + genomeLength);
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        this.thread = new Thread(this::transfer, "RemoteMigration");
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
+    /**
+     * Runs the algorithm as a worker of the coordinator and reports its
+     * result at the end. The algorithm is cancelled when the coordinator
+     * asks the workers to stop.
+     * 
+     * @param algorithm a configured algorithm, e.g. DifferentialEvolution
+     * @param coordinator address of the coordinator
+     * @param genomeLength genome length of the individuals
+     * @param interval number of generations between two migrations
+     * @param count number of emigrants per migration
+     * @throws IOException if the coordinator is not reachable
+     */
+    public static void runWorker(Algorithm algorithm, SocketAddress coordinator, int genomeLength,
+            int interval, int count) throws IOException
+    {
+        try (RemoteMigration migration = new RemoteMigration(coordinator, genomeLength)) {
+            migration.setStopListener(algorithm::cancel);
+            algorithm.setMigration(migration, interval, count);
+            algorithm.run();
+            migration.finish(algorithm.getStatistics().getBest(),
+                    algorithm.getEndReason() == EndCondition.TYPE.TARGET_VALUE);
+        }
+    }
+    
+    /**
+     * @param listener called on the exchange thread when the coordinator asks to stop
+     */
+    public void setStopListener(Runnable listener) {
+        this.stopListener = listener;
+    }
+    
+    /**
+     * @return index of the worker given by the coordinator
+     */
+    public int getIndex() {
+        return index;
+    }
+    
+    /**
+     * @return the error that broke the connection or null
+     */
+    public IOException getLastError() {
+        return lastError;
+    }
+    
+    @Override
+    public List<Individual> exchange(List<Individual> emigrants) {
+        if (!emigrants.isEmpty()) {
+            synchronized (lock) {
+                if (!closed) {
+                    pending = emigrants;
+                    lock.notifyAll();
+                }
+            }
+        }
+        List<Individual> immigrants = new ArrayList<>();
+        Individual ind;
+        while ((ind = inbox.poll()) != null) {
+            immigrants.add(ind);
+        }
+        return immigrants;
+    }
+    
+    /**
+     * Reports the result to the coordinator and closes the connection.
+     * 
+     * @param best best individual of the run, with cached fitness, null if
+     *        the run ended before the first generation
+     * @param targetReached true to ask the other workers to stop
+     */
+    public void finish(Individual best, boolean targetReached) {
+        stopTransfer();
+        if (lastError == null && channel.isOpen()) {
+            try {
+                out.writeByte(MigrationProtocol.DONE);
+                out.writeBoolean(targetReached);
+                out.writeBoolean(best != null);
+                if (best != null) {
+                    MigrationProtocol.writeIndividual(out, best);
+                }
+                out.flush();
+            } catch (IOException e) {
+                lastError = e;
+            }
+        }
+        closeChannel();
+    }
+    
+    /**
+     * Closes the connection without a result, the coordinator treats the
+     * worker as crashed.
+     */
+    @Override
+    public void close() {
+        stopTransfer();
+        closeChannel();
+    }
+    
+    private void stopTransfer() {
+        synchronized (lock) {
+            closed = true;
+            lock.notifyAll();
+        }
+        try {
+            thread.join(ANSWER_TIMEOUT_MILLIS);
+            if (thread.isAlive()) {
+                // The coordinator does not answer, closing the channel ends the exchange
+                closeChannel();
+                thread.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private void closeChannel() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Nothing left to do with the connection
+        }
+    }
+    
+    private void transfer() {
+        while (true) {
+            List<Individual> emigrants;
+            synchronized (lock) {
+                while (pending == null && !closed) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (closed) {
+                    return;
+                }
+                emigrants = pending;
+                pending = null;
+            }
+            try {
+                out.writeByte(MigrationProtocol.EXCHANGE);
+                MigrationProtocol.writeIndividuals(out, emigrants);
+                out.flush();
+                boolean stop = in.readBoolean();
+                inbox.addAll(MigrationProtocol.readIndividuals(in, genomeLength));
+                Runnable listener = stopListener;
+                if (stop && listener != null) {
+                    listener.run();
+                }
+            } catch (IOException e) {
+                // The island goes on alone
+                lastError = e;
+                return;
+            }
+        }
+    }
+}
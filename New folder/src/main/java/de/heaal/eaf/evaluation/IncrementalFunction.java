@@ -0,0 +1,81 @@
+/*
+ * Evolutionary Algorithms Framework
+ *
+ * Copyright (c) 2023 Christian Lins <christian.lins@haw-hamburg.de>
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.heaal.eaf.evaluation;
+
+import de.heaal.eaf.base.Individual;
+import java.util.function.Function;
+
+/**
+ * A fitness function that is built from partial aggregates of the genome,
+ * e.g. sums over all genes or over all samples of a data set. If a single
+ * gene of a genome changes, the aggregates can be updated without a full
+ * evaluation, which is O(1) instead of O(d) for separable functions.
+ * 
+ * Algorithms that know which gene was changed keep the aggregates of their
+ * individuals and use {@link #update} and {@link #value}. Everybody else can
+ * use the function like any other Function&lt;Individual,Float&gt;.
+ */
+public interface IncrementalFunction extends Function<Individual,Float> {
+    
+    /**
+     * @return the number of aggregates this function keeps per genome
+     */
+    int aggregateCount();
+    
+    /**
+     * Computes all aggregates of the genome from scratch.
+     * 
+     * @param genome the genome
+     * @param aggregates output array of length aggregateCount()
+     */
+    void aggregate(float[] genome, double[] aggregates);
+    
+    /**
+     * Updates the aggregates after the gene at position gene changed.
+     * 
+     * @param genome the genome, already containing the new value of the gene
+     * @param gene position of the changed gene
+     * @param oldValue value of the gene before the change
+     * @param aggregates aggregates of the genome before the change, updated in place
+     */
+    void update(float[] genome, int gene, float oldValue, double[] aggregates);
+    
+    /**
+     * Computes the function value from the aggregates.
+     * 
+     * @param genome the genome
+     * @param aggregates aggregates of the genome
+     * @return the function value
+     */
+    float value(float[] genome, double[] aggregates);
+    
+    @Override
+    default Float apply(Individual ind) {
+        float[] genome = ind.getGenome().array();
+        double[] aggregates = new double[aggregateCount()];
+        aggregate(genome, aggregates);
+        return value(genome, aggregates);
+    }
+}
@@ -26,17 +26,20 @@ package de.heaal.eaf.evaluation;
 
 import de.heaal.eaf.base.Individual;
 import java.util.Comparator;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 
 /**
  * A comparator that can be used to compare the fitness of two individuals
- * while minimizing a function value.
+ * while minimizing a function value. Every call of the function is counted,
+ * the comparator may be shared by algorithms running in parallel.
  * 
  * @author Christian Lins <christian.lins@haw-hamburg.de>
  */
-public class MinimizeFunctionComparator implements Comparator<Individual> {
+public class MinimizeFunctionComparator implements Comparator<Individual>, EvaluationCounter {
 
     private final Function<Individual,Float> evaluator;
+    private final LongAdder evaluations = new LongAdder();
     
     public MinimizeFunctionComparator(Function<Individual,Float> evaluator) {
         if (evaluator == null) {
@@ -45,6 +48,23 @@ public class MinimizeFunctionComparator implements Comparator<Individual> {
         this.evaluator = evaluator;
     }
     
+    /**
+     * @return the function that is minimized
+     */
+    public Function<Individual,Float> getEvaluator() {
+        return evaluator;
+    }
+    
+    @Override
+    public long getEvaluations() {
+        return evaluations.sum();
+    }
+    
+    private float evaluate(Individual ind) {
+        evaluations.increment();
+        return evaluator.apply(ind);
+    }
+    
     /**
      * Evaluates the individuals with the provided evaluator function.
      * If the function value of i0 is smaller than the value of i1, then i0 
@@ -58,8 +78,8 @@ public class MinimizeFunctionComparator implements Comparator<Individual> {
      */
     @Override
     public int compare(Individual i0, Individual i1) {
-        float ev0 = i0.hasCache() ? i0.getCache() : evaluator.apply(i0);
-        float ev1 = i1.hasCache() ? i1.getCache() : evaluator.apply(i1);
+        float ev0 = i0.hasCache() ? i0.getCache() : evaluate(i0);
+        float ev1 = i1.hasCache() ? i1.getCache() : evaluate(i1);
         
         i0.setCache(ev0);
         i1.setCache(ev1);
@@ -0,0 +1,329 @@
+/*
+ * Evolutionary Algorithms Framework
+ *
+ * Copyright (c) 2023 Christian Lins <christian.lins@haw-hamburg.de>
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package de.heaal.eaf.io;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Loads selected columns of a large csv file into primitive float arrays.
+ * 
+ * The file is memory mapped in chunks that start at row boundaries. The
+ * chunks are processed in parallel in two passes: the first one counts the
+ * rows of every chunk, so every chunk knows the index of its first row,
+ * the second one parses only the selected rows and columns directly into
+ * the result arrays. Empty lines are not counted as rows, missing values
+ * of short rows are NaN.
+ * 
+ * <pre>
+ * float[][] columns = new ColumnLoader(';').columns(0, 4).rows(0, 1000).load(path);
+ * </pre>
+ */
+public class ColumnLoader {
+    
+    private static final int DEFAULT_CHUNK_SIZE = 32 << 20;
+    
+    private final char separator;
+    private int[] columns = {0};
+    private boolean skipHeader = true;
+    private long firstRow = 0;
+    private long rowCount = Long.MAX_VALUE;
+    private int stride = 1;
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    
+    /**
+     * @param separator separator of the fields, e.g. ';'
+     */
+    public ColumnLoader(char separator) {
+        this.separator = separator;
+    }
+    
+    /**
+     * @param columns indices of the columns to load, in the order of the result
+     * @return this loader
+     */
+    public ColumnLoader columns(int... columns) {
+        if (columns.length == 0) {
+            throw new IllegalArgumentException("at least one column must be selected");
+        }
+        int[] sorted = columns.clone();
+        Arrays.sort(sorted);
+        for (int i = 0; i < sorted.length; i++) {
+            if (sorted[i] < 0 || (i > 0 && sorted[i] == sorted[i - 1])) {
+                throw new IllegalArgumentException("columns must be distinct and not negative");
+            }
+        }
+        this.columns = columns.clone();
+        return this;
+    }
+    
+    /**
+     * @param skipHeader true if the first row is a header, the default
+     * @return this loader
+     */
+    public ColumnLoader skipHeader(boolean skipHeader) {
+        this.skipHeader = skipHeader;
+        return this;
+    }
+    
+    /**
+     * Restricts the loaded rows. Row 0 is the first row after the header.
+     * 
+     * @param first index of the first row
+     * @param count maximum number of rows, before the stride is applied
+     * @return this loader
+     */
+    public ColumnLoader rows(long first, long count) {
+        if (first < 0 || count < 0) {
+            throw new IllegalArgumentException("row range must not be negative");
+        }
+        this.firstRow = first;
+        this.rowCount = count;
+        return this;
+    }
+    
+    /**
+     * Loads only every stride-th row of the range, starting with its first row.
+     * 
+     * @param stride distance of the loaded rows
+     * @return this loader
+     */
+    public ColumnLoader stride(int stride) {
+        if (stride < 1) {
+            throw new IllegalArgumentException("stride must be positive");
+        }
+        this.stride = stride;
+        return this;
+    }
+    
+    /**
+     * @param bytes size of the chunks that are processed in parallel
+     * @return this loader
+     */
+    public ColumnLoader chunkSize(int bytes) {
+        if (bytes < 1) {
+            throw new IllegalArgumentException("chunk size must be positive");
+        }
+        this.chunkSize = bytes;
+        return this;
+    }
+    
+    /**
+     * Loads the selected columns.
+     * 
+     * @param file the csv file
+     * @return one array per selected column, all of the same length
+     * @throws IOException if the file can not be read
+     * @throws NumberFormatException if a selected value is no float
+     */
+    public float[][] load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long start = dataStart(channel, size);
+            long[] bounds = chunkBounds(channel, start, size);
+            int chunks = bounds.length - 1;
+            
+            // Pass 1: rows per chunk, then the index of the first row of every chunk
+            long[] firstRowOfChunk = new long[chunks + 1];
+            try {
+                long[] counts = IntStream.range(0, chunks).parallel()
+                        .mapToLong(c -> countRows(map(channel, bounds[c], bounds[c + 1])))
+                        .toArray();
+                for (int c = 0; c < chunks; c++) {
+                    firstRowOfChunk[c + 1] = firstRowOfChunk[c] + counts[c];
+                }
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            
+            long totalRows = firstRowOfChunk[chunks];
+            long end = Math.min(totalRows, firstRow + Math.min(rowCount, totalRows));
+            long selected = end <= firstRow ? 0 : (end - firstRow + stride - 1) / stride;
+            if (selected > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("too many rows for one array: " + selected);
+            }
+            float[][] result = new float[columns.length][(int) selected];
+            if (selected == 0) {
+                return result;
+            }
+            
+            // Pass 2: parse the selected rows of every chunk that overlaps the range
+            try {
+                IntStream.range(0, chunks).parallel()
+                        .filter(c -> firstRowOfChunk[c + 1] > firstRow && firstRowOfChunk[c] < end)
+                        .forEach(c -> parse(map(channel, bounds[c], bounds[c + 1]),
+                                firstRowOfChunk[c], end, result));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            return result;
+        }
+    }
+    
+    /**
+     * Reads the fields of the first row, e.g. the names of the columns.
+     * 
+     * @param file the csv file
+     * @param separator separator of the fields
+     * @return the fields of the first row without quotes
+     * @throws IOException if the file can not be read
+     */
+    public static String[] header(Path file, char separator) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(size, 1 << 16));
+            CsvScanner scanner = new CsvScanner(map, bomLength(map), map.limit(), separator);
+            List<String> fields = new ArrayList<>();
+            if (scanner.nextRow()) {
+                while (scanner.nextField()) {
+                    fields.add(scanner.stringValue());
+                }
+            }
+            return fields.toArray(new String[0]);
+        }
+    }
+    
+    private static int bomLength(MappedByteBuffer map) {
+        return map.limit() >= 3 && (map.get(0) & 0xFF) == 0xEF
+                && (map.get(1) & 0xFF) == 0xBB && (map.get(2) & 0xFF) == 0xBF ? 3 : 0;
+    }
+    
+    // Position of the first data row, after the byte order mark and the header
+    private long dataStart(FileChannel channel, long size) throws IOException {
+        if (size == 0) {
+            return 0;
+        }
+        MappedByteBuffer head = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(size, 1 << 16));
+        long start = bomLength(head);
+        if (skipHeader) {
+            start = nextLine(channel, start, size);
+        }
+        return start;
+    }
+    
+    // Splits [start, size) into chunks of about chunkSize bytes that begin at a row
+    private long[] chunkBounds(FileChannel channel, long start, long size) throws IOException {
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(start);
+        long pos = start;
+        while (pos < size) {
+            long next = pos + chunkSize >= size ? size : nextLine(channel, pos + chunkSize, size);
+            bounds.add(next);
+            pos = next;
+        }
+        if (bounds.size() == 1) {
+            bounds.add(start);
+        }
+        return bounds.stream().mapToLong(Long::longValue).toArray();
+    }
+    
+    // Position after the next line break at or after pos, or size
+    private static long nextLine(FileChannel channel, long pos, long size) throws IOException {
+        while (pos < size) {
+            int window = (int) Math.min(size - pos, 1 << 16);
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, pos, window);
+            for (int i = 0; i < window; i++) {
+                if (map.get(i) == '\n') {
+                    return pos + i + 1;
+                }
+            }
+            pos += window;
+        }
+        return size;
+    }
+    
+    private static MappedByteBuffer map(FileChannel channel, long from, long to) {
+        try {
+            return channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    // Counts the lines with at least one character besides line breaks
+    private static long countRows(MappedByteBuffer map) {
+        long rows = 0;
+        boolean content = false;
+        int limit = map.limit();
+        for (int i = 0; i < limit; i++) {
+            byte b = map.get(i);
+            if (b == '\n') {
+                if (content) {
+                    rows++;
+                }
+                content = false;
+            } else if (b != '\r') {
+                content = true;
+            }
+        }
+        return content ? rows + 1 : rows;
+    }
+    
+    private void parse(MappedByteBuffer map, long row, long end, float[][] result) {
+        int maxColumn = 0;
+        for (int c : columns) {
+            maxColumn = Math.max(maxColumn, c);
+        }
+        int[] slot = new int[maxColumn + 1];
+        Arrays.fill(slot, -1);
+        for (int i = 0; i < columns.length; i++) {
+            slot[columns[i]] = i;
+        }
+        
+        CsvScanner scanner = new CsvScanner(map, 0, map.limit(), separator);
+        for (; row < end && scanner.nextRow(); row++) {
+            if (row < firstRow || (row - firstRow) % stride != 0) {
+                continue;
+            }
+            int index = (int) ((row - firstRow) / stride);
+            int column = 0;
+            int found = 0;
+            while (column <= maxColumn && scanner.nextField()) {
+                if (slot[column] >= 0) {
+                    result[slot[column]][index] = scanner.floatValue();
+                    found++;
+                }
+                column++;
+            }
+            if (found < columns.length) {
+                // Short row, the missing values are NaN
+                for (int c = column; c <= maxColumn; c++) {
+                    if (slot[c] >= 0) {
+                        result[slot[c]][index] = Float.NaN;
+                    }
+                }
+            }
+        }
+    }
+}
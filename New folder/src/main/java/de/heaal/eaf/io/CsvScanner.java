@@ -0,0 +1,190 @@
+/*
+ * Evolutionary Algorithms Framework
+ *
+ * Copyright (c) 2023 Christian Lins <christian.lins@haw-hamburg.de>
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package de.heaal.eaf.io;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Scans the rows and fields of a csv text in a byte buffer, e.g. a memory
+ * mapped file, without copying. Fields are not unquoted, so separators
+ * inside of quotes are not supported. Empty lines are skipped.
+ * 
+ * <pre>
+ * while (scanner.nextRow()) {
+ *     while (scanner.nextField()) {
+ *         float value = scanner.floatValue();
+ *     }
+ * }
+ * </pre>
+ */
+public class CsvScanner {
+    
+    private final ByteBuffer buf;
+    private final int end;
+    private final byte separator;
+    private int pos;
+    private int fieldStart;
+    private int fieldEnd;
+    private boolean inRow;
+    
+    /**
+     * @param buf buffer with the text, read with absolute positions
+     * @param start position of the first row
+     * @param end position after the last row
+     * @param separator separator of the fields
+     */
+    public CsvScanner(ByteBuffer buf, int start, int end, char separator) {
+        this.buf = buf;
+        this.pos = start;
+        this.end = end;
+        this.separator = (byte) separator;
+    }
+    
+    public CsvScanner(ByteBuffer buf, char separator) {
+        this(buf, buf.position(), buf.limit(), separator);
+    }
+    
+    /**
+     * Moves to the start of the next row, skipping the rest of the current one.
+     * 
+     * @return false if there are no more rows
+     */
+    public boolean nextRow() {
+        if (inRow) {
+            pos = lineEnd(pos);
+            if (pos < end) {
+                pos++;
+            }
+        }
+        while (pos < end && (buf.get(pos) == '\n' || buf.get(pos) == '\r')) {
+            pos++;
+        }
+        inRow = pos < end;
+        return inRow;
+    }
+    
+    /**
+     * Moves to the next field of the current row.
+     * 
+     * @return false if the row has no more fields
+     */
+    public boolean nextField() {
+        if (!inRow) {
+            return false;
+        }
+        int p = pos;
+        byte b = 0;
+        while (p < end && (b = buf.get(p)) != separator && b != '\n') {
+            p++;
+        }
+        fieldStart = pos;
+        fieldEnd = p;
+        if (fieldEnd > fieldStart && buf.get(fieldEnd - 1) == '\r') {
+            fieldEnd--;
+        }
+        if (p < end && b == separator) {
+            pos = p + 1;
+        } else {
+            // The row ends with this field
+            pos = p < end ? p + 1 : p;
+            inRow = false;
+        }
+        return true;
+    }
+    
+    /**
+     * Skips fields of the current row
+     * 
+     * @param count number of fields to skip
+     * @return false if the row ended before
+     */
+    public boolean skipFields(int count) {
+        for (int i = 0; i < count; i++) {
+            if (!nextField()) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * @return the current field parsed as float
+     * @throws NumberFormatException if the field is no float
+     */
+    public float floatValue() {
+        return FastFloatParser.parse(buf, fieldStart, fieldEnd);
+    }
+    
+    /**
+     * @return the current field as String without surrounding quotes
+     */
+    public String stringValue() {
+        int s = fieldStart;
+        int e = fieldEnd;
+        if (e - s >= 2 && buf.get(s) == '"' && buf.get(e - 1) == '"') {
+            s++;
+            e--;
+        }
+        byte[] bytes = new byte[e - s];
+        buf.get(s, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * @return position after the last read field or row
+     */
+    public int position() {
+        return pos;
+    }
+    
+    /**
+     * Finds the start of the row that contains pos or starts after it. Used to
+     * split a buffer into chunks that can be scanned in parallel.
+     * 
+     * @param buf buffer with the text
+     * @param pos any position in the buffer
+     * @param end end of the text
+     * @return position after the next line break at or after pos - 1
+     */
+    public static int alignToRow(ByteBuffer buf, int pos, int end) {
+        if (pos <= 0) {
+            return 0;
+        }
+        int p = pos - 1;
+        while (p < end && buf.get(p) != '\n') {
+            p++;
+        }
+        return Math.min(p + 1, end);
+    }
+    
+    private int lineEnd(int p) {
+        while (p < end && buf.get(p) != '\n') {
+            p++;
+        }
+        return p;
+    }
+}
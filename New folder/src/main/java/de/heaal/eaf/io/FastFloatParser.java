@@ -0,0 +1,167 @@
+/*
+ * Evolutionary Algorithms Framework
+ *
+ * Copyright (c) 2023 Christian Lins <christian.lins@haw-hamburg.de>
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package de.heaal.eaf.io;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Parses decimal float values directly from the bytes of a buffer, e.g. a
+ * memory mapped csv file, without creating a String for every value.
+ * 
+ * Values with up to 18 significant digits and a small decimal exponent are
+ * computed with one correctly rounded double operation. The conversion to
+ * float is only ambiguous if that double lies exactly between two floats,
+ * these values and all other cases like NaN, Infinity or very long numbers
+ * fall back to Float.parseFloat, so the result is always the same.
+ */
+public final class FastFloatParser {
+    
+    private static final double[] POW10 = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final long MAX_EXACT = 1L << 53;
+    
+    private FastFloatParser() {
+    }
+    
+    /**
+     * Parses the float between start (inclusive) and end (exclusive).
+     * Surrounding spaces and double quotes are ignored.
+     * 
+     * @param buf buffer with the text, read with absolute positions
+     * @param start position of the first byte
+     * @param end position after the last byte
+     * @return the value
+     * @throws NumberFormatException if the text is no float
+     */
+    public static float parse(ByteBuffer buf, int start, int end) {
+        while (start < end && isTrim(buf.get(start))) {
+            start++;
+        }
+        while (end > start && isTrim(buf.get(end - 1))) {
+            end--;
+        }
+        
+        int p = start;
+        boolean negative = false;
+        if (p < end && (buf.get(p) == '-' || buf.get(p) == '+')) {
+            negative = buf.get(p) == '-';
+            p++;
+        }
+        
+        long mantissa = 0;
+        int digits = 0;
+        int exp10 = 0;
+        boolean anyDigit = false;
+        byte c;
+        while (p < end && (c = buf.get(p)) >= '0' && c <= '9') {
+            if (digits < 18) {
+                mantissa = mantissa * 10 + (c - '0');
+                if (mantissa != 0) {
+                    digits++;
+                }
+            } else {
+                exp10++;
+                if (c != '0') {
+                    return slow(buf, start, end);
+                }
+            }
+            anyDigit = true;
+            p++;
+        }
+        if (p < end && buf.get(p) == '.') {
+            p++;
+            while (p < end && (c = buf.get(p)) >= '0' && c <= '9') {
+                if (digits < 18) {
+                    mantissa = mantissa * 10 + (c - '0');
+                    if (mantissa != 0) {
+                        digits++;
+                    }
+                    exp10--;
+                } else if (c != '0') {
+                    return slow(buf, start, end);
+                }
+                anyDigit = true;
+                p++;
+            }
+        }
+        if (!anyDigit) {
+            return slow(buf, start, end);
+        }
+        
+        if (p < end && (buf.get(p) == 'e' || buf.get(p) == 'E')) {
+            p++;
+            boolean negativeExp = false;
+            if (p < end && (buf.get(p) == '-' || buf.get(p) == '+')) {
+                negativeExp = buf.get(p) == '-';
+                p++;
+            }
+            int exp = 0;
+            int expStart = p;
+            while (p < end && (c = buf.get(p)) >= '0' && c <= '9') {
+                if (exp < 10000) {
+                    exp = exp * 10 + (c - '0');
+                }
+                p++;
+            }
+            if (p == expStart) {
+                return slow(buf, start, end);
+            }
+            exp10 += negativeExp ? -exp : exp;
+        }
+        if (p != end) {
+            // Trailing characters, e.g. a type suffix, let the JDK decide
+            return slow(buf, start, end);
+        }
+        
+        if (mantissa == 0) {
+            return negative ? -0.0f : 0.0f;
+        }
+        if (mantissa >= MAX_EXACT || exp10 < -22 || exp10 > 22) {
+            return slow(buf, start, end);
+        }
+        double value = exp10 < 0 ? mantissa / POW10[-exp10] : mantissa * POW10[exp10];
+        long bits = Double.doubleToRawLongBits(value);
+        // Exactly between two floats, or too small for a normal float
+        if ((bits & 0x1FFFFFFFL) == 0x10000000L || value < Float.MIN_NORMAL) {
+            return slow(buf, start, end);
+        }
+        float f = (float) value;
+        return negative ? -f : f;
+    }
+    
+    private static boolean isTrim(byte b) {
+        return b == ' ' || b == '"' || b == '\t' || b == '\r';
+    }
+    
+    private static float slow(ByteBuffer buf, int start, int end) {
+        byte[] bytes = new byte[end - start];
+        buf.get(start, bytes);
+        return Float.parseFloat(new String(bytes, StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,246 @@
+/*
+ * Evolutionary Algorithms Framework
+ *
+ * Copyright (c) 2023 Christian Lins <christian.lins@haw-hamburg.de>
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package de.heaal.eaf.localsearch;
+
+import java.util.stream.IntStream;
+
+/**
+ * Levenberg-Marquardt least squares optimizer. The step solves
+ * (J^T J + lambda * diag(J^T J)) delta = -J^T r, the damping lambda is
+ * adapted by the gain ratio of actual and predicted reduction (Nielsen).
+ * Without an analytic Jacobian the columns are forward differences, which
+ * are evaluated in parallel. Every residual vector counts as one evaluation.
+ */
+public class LevenbergMarquardt implements LocalSearch {
+    
+    // Relative step of the forward differences, sqrt of the double precision
+    private static final double FD_STEP = 1.4901161193847656e-8;
+    // Damping at which a step is considered hopeless and the search ends
+    private static final double MAX_LAMBDA = 1e16;
+    
+    private final ResidualFunction function;
+    private int maxIterations = 20;
+    private double tolerance = 1e-10;
+    
+    public LevenbergMarquardt(ResidualFunction function) {
+        this.function = function;
+    }
+    
+    /**
+     * @param maxIterations maximum number of Jacobian evaluations per refinement
+     */
+    public void setMaxIterations(int maxIterations) {
+        if (maxIterations < 1) {
+            throw new IllegalArgumentException("maxIterations < 1");
+        }
+        this.maxIterations = maxIterations;
+    }
+    
+    /**
+     * @param tolerance relative step size and gradient norm that end the refinement
+     */
+    public void setTolerance(double tolerance) {
+        if (!(tolerance > 0)) {
+            throw new IllegalArgumentException("tolerance must be positive");
+        }
+        this.tolerance = tolerance;
+    }
+    
+    @Override
+    public Result refine(float[] genome) {
+        int n = genome.length;
+        int m = function.residualCount();
+        
+        double[] x = new double[n];
+        for (int j = 0; j < n; j++) {
+            x[j] = genome[j];
+        }
+        double[] r = new double[m];
+        function.residuals(x, r);
+        int evaluations = 1;
+        double cost = dot(r, r);
+        
+        double[][] jac = new double[n][m];
+        double[][] a = new double[n][n];
+        double[] g = new double[n];
+        double[] delta = new double[n];
+        double[] xNew = new double[n];
+        double[] rNew = new double[m];
+        double lambda = -1;
+        double nu = 2;
+        
+        for (int iter = 0; iter < maxIterations; iter++) {
+            if (!function.jacobian(x, jac)) {
+                forwardDifferences(x, r, jac);
+                evaluations += n;
+            }
+            // Normal equations A = J^T J, g = J^T r
+            for (int p = 0; p < n; p++) {
+                g[p] = dot(jac[p], r);
+                for (int q = 0; q <= p; q++) {
+                    a[p][q] = a[q][p] = dot(jac[p], jac[q]);
+                }
+            }
+            if (maxAbs(g) <= tolerance * Math.max(cost, tolerance)) {
+                break;
+            }
+            if (lambda < 0) {
+                double maxDiag = 0;
+                for (int p = 0; p < n; p++) {
+                    maxDiag = Math.max(maxDiag, a[p][p]);
+                }
+                lambda = 1e-3;
+                nu = 2;
+                if (maxDiag == 0) {
+                    break;
+                }
+            }
+            
+            while (true) {
+                if (solveDamped(a, g, lambda, delta)) {
+                    double stepNorm = Math.sqrt(dot(delta, delta));
+                    if (stepNorm <= tolerance * (Math.sqrt(dot(x, x)) + tolerance)) {
+                        return result(x, evaluations);
+                    }
+                    for (int j = 0; j < n; j++) {
+                        xNew[j] = x[j] + delta[j];
+                    }
+                    function.residuals(xNew, rNew);
+                    evaluations++;
+                    double costNew = dot(rNew, rNew);
+                    
+                    // Predicted reduction of the linear model is delta^T (lambda diag(A) delta - g)
+                    double predicted = 0;
+                    for (int p = 0; p < n; p++) {
+                        predicted += delta[p] * (lambda * Math.max(a[p][p], Double.MIN_NORMAL) * delta[p] - g[p]);
+                    }
+                    double rho = (cost - costNew) / predicted;
+                    if (costNew < cost && predicted > 0 && rho > 0) {
+                        System.arraycopy(xNew, 0, x, 0, n);
+                        System.arraycopy(rNew, 0, r, 0, m);
+                        cost = costNew;
+                        double t = 2 * rho - 1;
+                        lambda *= Math.max(1.0 / 3, 1 - t * t * t);
+                        nu = 2;
+                        break;
+                    }
+                }
+                // Rejected step or damped matrix not positive definite, e.g. NaN
+                // in the Jacobian: damp more until the step is hopeless
+                lambda *= nu;
+                nu *= 2;
+                if (lambda > MAX_LAMBDA) {
+                    return result(x, evaluations);
+                }
+            }
+        }
+        return result(x, evaluations);
+    }
+    
+    private void forwardDifferences(double[] x, double[] r, double[][] jac) {
+        IntStream.range(0, x.length).parallel().forEach(j -> {
+            double[] xj = x.clone();
+            double h = FD_STEP * Math.max(Math.abs(x[j]), 1e-3);
+            xj[j] += h;
+            // Use the representable step
+            h = xj[j] - x[j];
+            double[] col = jac[j];
+            function.residuals(xj, col);
+            for (int i = 0; i < col.length; i++) {
+                col[i] = (col[i] - r[i]) / h;
+            }
+        });
+    }
+    
+    /**
+     * Solves (A + lambda * diag(A)) delta = -g by Cholesky decomposition.
+     * 
+     * @return false if the damped matrix is not positive definite
+     */
+    private static boolean solveDamped(double[][] a, double[] g, double lambda, double[] delta) {
+        int n = g.length;
+        double[][] l = new double[n][n];
+        for (int p = 0; p < n; p++) {
+            for (int q = 0; q <= p; q++) {
+                double sum = a[p][q];
+                if (p == q) {
+                    sum += lambda * Math.max(a[p][p], Double.MIN_NORMAL);
+                }
+                for (int k = 0; k < q; k++) {
+                    sum -= l[p][k] * l[q][k];
+                }
+                if (p == q) {
+                    if (!(sum > 0)) {
+                        return false;
+                    }
+                    l[p][p] = Math.sqrt(sum);
+                } else {
+                    l[p][q] = sum / l[q][q];
+                }
+            }
+        }
+        // L y = -g, L^T delta = y
+        for (int p = 0; p < n; p++) {
+            double sum = -g[p];
+            for (int k = 0; k < p; k++) {
+                sum -= l[p][k] * delta[k];
+            }
+            delta[p] = sum / l[p][p];
+        }
+        for (int p = n - 1; p >= 0; p--) {
+            double sum = delta[p];
+            for (int k = p + 1; k < n; k++) {
+                sum -= l[k][p] * delta[k];
+            }
+            delta[p] = sum / l[p][p];
+        }
+        return true;
+    }
+    
+    private static Result result(double[] x, int evaluations) {
+        float[] genome = new float[x.length];
+        for (int j = 0; j < x.length; j++) {
+            genome[j] = (float) x[j];
+        }
+        return new Result(genome, evaluations);
+    }
+    
+    private static double dot(double[] u, double[] v) {
+        double sum = 0;
+        for (int i = 0; i < u.length; i++) {
+            sum += u[i] * v[i];
+        }
+        return sum;
+    }
+    
+    private static double maxAbs(double[] v) {
+        double max = 0;
+        for (double value : v) {
+            max = Math.max(max, Math.abs(value));
+        }
+        return max;
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Evolutionary Algorithms Framework
+ *
+ * Copyright (c) 2023 Christian Lins <christian.lins@haw-hamburg.de>
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package de.heaal.eaf.localsearch;
+
+/**
+ * Residuals r(x) of a least squares objective sum(r_i^2). Implementations
+ * must be thread safe, finite difference Jacobians evaluate the residuals
+ * in parallel.
+ */
+public interface ResidualFunction {
+    
+    /**
+     * @return number of residuals m
+     */
+    int residualCount();
+    
+    /**
+     * @param x parameters
+     * @param r receives the m residuals
+     */
+    void residuals(double[] x, double[] r);
+    
+    /**
+     * Computes the analytic Jacobian, if available.
+     * 
+     * @param x parameters
+     * @param jacobian receives the columns, jacobian[j][i] = d r_i / d x_j
+     * @return false if the Jacobian has to be approximated by finite differences
+     */
+    default boolean jacobian(double[] x, double[][] jacobian) {
+        return false;
+    }
+}
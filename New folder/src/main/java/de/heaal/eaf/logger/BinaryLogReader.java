@@ -0,0 +1,154 @@
+package de.heaal.eaf.logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import static de.heaal.eaf.logger.BinaryRowWriter.*;
+
+/**
+ * Reads a binary run log written by the BinaryRowWriter.
+ * The file is memory mapped, so reading a generation only touches the pages
+ * of its frame. Logs larger than 2 GB are not supported.
+ */
+public class BinaryLogReader implements Closeable {
+
+    private final FileChannel channel;
+    private final MappedByteBuffer map;
+    private final FrameEncoding encoding;
+    private final String config;
+    private final long[] offsets;
+
+    /**
+     * Maps the file and reads the header and the frame index
+     *
+     * @param filePath file name of the log
+     * @throws IOException if the file can not be read or is no binary run log
+     */
+    public BinaryLogReader(String filePath) throws IOException {
+        this.channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("log is too large to be mapped: " + size);
+            }
+            this.map = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            map.order(ByteOrder.LITTLE_ENDIAN);
+
+            if (size < 12 || map.getInt(0) != MAGIC) {
+                throw new IOException("not a binary run log: " + filePath);
+            }
+            if (map.getShort(4) != VERSION) {
+                throw new IOException("unsupported version " + map.getShort(4));
+            }
+            this.encoding = FrameEncoding.of(map.get(6));
+            int cfgLength = map.getInt(8);
+            byte[] cfg = new byte[cfgLength];
+            map.get(12, cfg);
+            this.config = new String(cfg, StandardCharsets.UTF_8);
+            this.offsets = readIndex(12 + cfgLength);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private long[] readIndex(int firstFrame) {
+        int size = map.limit();
+        if (size >= firstFrame + FOOTER_TRAILER && map.getInt(size - 4) == FOOTER_MAGIC) {
+            int frames = map.getInt(size - FOOTER_TRAILER);
+            int footer = (int) map.getLong(size - 12);
+            long[] index = new long[frames];
+            for (int i = 0; i < frames; i++) {
+                index[i] = map.getLong(footer + 8 * i);
+            }
+            return index;
+        }
+
+        // No footer, the log was not closed. Scan all complete frames.
+        long[] index = new long[256];
+        int frames = 0;
+        int p = firstFrame;
+        while (p + FRAME_HEADER <= size && p + FRAME_HEADER + map.getInt(p + 4) <= size) {
+            if (frames == index.length) {
+                index = Arrays.copyOf(index, frames * 2);
+            }
+            index[frames++] = p;
+            p += FRAME_HEADER + map.getInt(p + 4);
+        }
+        return Arrays.copyOf(index, frames);
+    }
+
+    /**
+     * @return description of the run from the header
+     */
+    public String getConfig() {
+        return config;
+    }
+
+    public FrameEncoding getEncoding() {
+        return encoding;
+    }
+
+    /**
+     * @return number of logged generations
+     */
+    public int getGenerations() {
+        return offsets.length;
+    }
+
+    /**
+     * @param generation index of the generation
+     * @return number of values logged for the generation
+     */
+    public int getRowLength(int generation) {
+        return map.getInt(frame(generation));
+    }
+
+    /**
+     * Decodes the values of one generation
+     *
+     * @param generation index of the generation
+     * @return the values
+     */
+    public float[] read(int generation) {
+        float[] row = new float[getRowLength(generation)];
+        read(generation, row);
+        return row;
+    }
+
+    /**
+     * Decodes the values of one generation into dest
+     *
+     * @param generation index of the generation
+     * @param dest array that is at least getRowLength(generation) long
+     * @return number of decoded values
+     */
+    public int read(int generation, float[] dest) {
+        int p = frame(generation);
+        int length = map.getInt(p);
+        if (dest.length < length) {
+            throw new IllegalArgumentException("destination is too short for " + length + " values");
+        }
+        FloatCodec.decode(encoding, map, p + FRAME_HEADER, dest, length);
+        return length;
+    }
+
+    private int frame(int generation) {
+        if (generation < 0 || generation >= offsets.length) {
+            throw new IndexOutOfBoundsException("generation " + generation + " of " + offsets.length);
+        }
+        return (int) offsets[generation];
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
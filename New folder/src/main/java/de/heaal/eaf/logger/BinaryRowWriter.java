@@ -0,0 +1,135 @@
+package de.heaal.eaf.logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Writes rows into a compact binary run log. All numbers are little-endian.
+ *
+ * <pre>
+ * header: int magic "EAFB", short version, byte encoding, byte reserved,
+ *         int config length, config (UTF-8)
+ * frame:  int number of values, int number of bytes, encoded values
+ * footer: long offset of every frame, int number of frames,
+ *         long offset of the footer, int magic "INDX"
+ * </pre>
+ *
+ * The footer is written on close and allows random access to every frame.
+ * If it is missing, e.g. after a crash, the reader scans the frames instead.
+ */
+public class BinaryRowWriter implements RowWriter {
+
+    static final int MAGIC = 0x42464145;        // "EAFB"
+    static final int FOOTER_MAGIC = 0x58444E49; // "INDX"
+    static final short VERSION = 1;
+    static final int FRAME_HEADER = 8;
+    static final int FOOTER_TRAILER = 16;
+
+    private final FileChannel channel;
+    private final FrameEncoding encoding;
+    private final FloatCodec codec = new FloatCodec();
+    private final ByteBuffer out = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+    private long position;
+    private long[] offsets = new long[256];
+    private int frames;
+
+    /**
+     * Creates the file, or overwrites it, and writes the header
+     *
+     * @param filePath file name to write the data in
+     * @param encoding encoding of the frames
+     * @param config description of the run stored in the header
+     * @throws IOException if the file can not be written
+     */
+    public BinaryRowWriter(String filePath, FrameEncoding encoding, String config) throws IOException {
+        this.encoding = encoding;
+        this.channel = FileChannel.open(Path.of(filePath), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+
+        byte[] cfg = config.getBytes(StandardCharsets.UTF_8);
+        out.putInt(MAGIC);
+        out.putShort(VERSION);
+        out.put((byte) encoding.ordinal());
+        out.put((byte) 0);
+        out.putInt(cfg.length);
+        ensure(cfg.length);
+        if (cfg.length > out.remaining()) {
+            writeOut();
+            channel.write(ByteBuffer.wrap(cfg));
+        } else {
+            out.put(cfg);
+        }
+        position = 12 + cfg.length;
+    }
+
+    @Override
+    public void write(float[] row, int length) throws IOException {
+        codec.encode(encoding, row, length);
+        int size = codec.size();
+
+        if (frames == offsets.length) {
+            offsets = Arrays.copyOf(offsets, frames * 2);
+        }
+        offsets[frames++] = position;
+
+        ensure(FRAME_HEADER);
+        out.putInt(length);
+        out.putInt(size);
+        ensure(size);
+        if (size > out.remaining()) {
+            // Larger than the buffer, write the frame directly
+            writeOut();
+            channel.write(ByteBuffer.wrap(codec.buffer(), 0, size));
+        } else {
+            out.put(codec.buffer(), 0, size);
+        }
+        position += FRAME_HEADER + size;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writeOut();
+    }
+
+    /**
+     * Writes the footer with the frame index and closes the file
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            long footer = position;
+            for (int i = 0; i < frames; i++) {
+                ensure(8);
+                out.putLong(offsets[i]);
+            }
+            ensure(FOOTER_TRAILER);
+            out.putInt(frames);
+            out.putLong(footer);
+            out.putInt(FOOTER_MAGIC);
+            writeOut();
+        } finally {
+            channel.close();
+        }
+    }
+
+    // Makes room for n bytes in the buffer, if the buffer is large enough at all
+    private void ensure(int n) throws IOException {
+        if (out.remaining() < n) {
+            writeOut();
+        }
+    }
+
+    private void writeOut() throws IOException {
+        out.flip();
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+        out.clear();
+    }
+}
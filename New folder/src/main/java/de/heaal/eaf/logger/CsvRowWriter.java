@@ -0,0 +1,52 @@
+package de.heaal.eaf.logger;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes rows as comma separated values, one line per row.
+ * The file stays open until the writer is closed.
+ */
+public class CsvRowWriter implements RowWriter {
+
+    private final BufferedWriter writer;
+    private final StringBuilder sb = new StringBuilder();
+
+    /**
+     * Opens the file for appending, creates it if it does not exist
+     *
+     * @param filePath file name to write the data in
+     * @throws IOException if the file can not be opened
+     */
+    public CsvRowWriter(String filePath) throws IOException {
+        this.writer = Files.newBufferedWriter(Path.of(filePath), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public void write(float[] row, int length) throws IOException {
+        sb.setLength(0);
+        for (int i = 0; i < length; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(row[i]);
+        }
+        writer.append(sb);
+        writer.newLine();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,198 @@
+package de.heaal.eaf.logger;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes and decodes the values of one frame. The encoder reuses its buffer,
+ * so encoding a frame does not allocate once the buffer is large enough.
+ * Neighbouring values of a frame are compared, which works well for sorted
+ * populations whose fitness values share sign, exponent and leading mantissa bits.
+ */
+final class FloatCodec {
+
+    private byte[] buf = new byte[256];
+    private int size;
+
+    // Pending bits of the XOR encoding, most significant bit first
+    private long bits;
+    private int bitCount;
+
+    byte[] buffer() {
+        return buf;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Encodes the first length values of row into the internal buffer
+     */
+    void encode(FrameEncoding encoding, float[] row, int length) {
+        size = 0;
+        bits = 0;
+        bitCount = 0;
+        switch (encoding) {
+            case RAW -> {
+                for (int i = 0; i < length; i++) {
+                    putInt(Float.floatToRawIntBits(row[i]));
+                }
+            }
+            case DELTA -> {
+                int prev = 0;
+                for (int i = 0; i < length; i++) {
+                    int v = Float.floatToRawIntBits(row[i]);
+                    int d = v - prev;
+                    putVarInt((d << 1) ^ (d >> 31));
+                    prev = v;
+                }
+            }
+            case XOR -> encodeXor(row, length);
+        }
+    }
+
+    private void encodeXor(float[] row, int length) {
+        if (length == 0) {
+            return;
+        }
+        int prev = Float.floatToRawIntBits(row[0]);
+        writeBits(prev, 32);
+        int prevLead = -1;
+        int prevTrail = 0;
+        for (int i = 1; i < length; i++) {
+            int v = Float.floatToRawIntBits(row[i]);
+            int x = v ^ prev;
+            if (x == 0) {
+                writeBits(0, 1);
+            } else {
+                int lead = Integer.numberOfLeadingZeros(x);
+                int trail = Integer.numberOfTrailingZeros(x);
+                if (prevLead >= 0 && lead >= prevLead && trail >= prevTrail) {
+                    // Meaningful bits fit into the previous window
+                    writeBits(0b10, 2);
+                    writeBits(x >>> prevTrail, 32 - prevLead - prevTrail);
+                } else {
+                    int len = 32 - lead - trail;
+                    writeBits(0b11, 2);
+                    writeBits(lead, 5);
+                    writeBits(len - 1, 5);
+                    writeBits(x >>> trail, len);
+                    prevLead = lead;
+                    prevTrail = trail;
+                }
+            }
+            prev = v;
+        }
+        if (bitCount > 0) {
+            ensure(1);
+            buf[size++] = (byte) (bits << (8 - bitCount));
+        }
+    }
+
+    private void writeBits(int value, int count) {
+        bits = (bits << count) | (value & ((1L << count) - 1));
+        bitCount += count;
+        ensure(5);
+        while (bitCount >= 8) {
+            bitCount -= 8;
+            buf[size++] = (byte) (bits >>> bitCount);
+        }
+        bits &= (1L << bitCount) - 1;
+    }
+
+    private void putInt(int v) {
+        ensure(4);
+        buf[size++] = (byte) v;
+        buf[size++] = (byte) (v >>> 8);
+        buf[size++] = (byte) (v >>> 16);
+        buf[size++] = (byte) (v >>> 24);
+    }
+
+    private void putVarInt(int v) {
+        ensure(5);
+        while ((v & ~0x7F) != 0) {
+            buf[size++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        buf[size++] = (byte) v;
+    }
+
+    private void ensure(int n) {
+        if (size + n > buf.length) {
+            byte[] grown = new byte[Math.max(buf.length * 2, size + n)];
+            System.arraycopy(buf, 0, grown, 0, size);
+            buf = grown;
+        }
+    }
+
+    /**
+     * Decodes length values of a frame
+     *
+     * @param encoding encoding of the frame
+     * @param src buffer with the frame, read with absolute positions
+     * @param offset position of the first byte of the encoded values
+     * @param out array for the decoded values
+     * @param length number of values in the frame
+     */
+    static void decode(FrameEncoding encoding, ByteBuffer src, int offset, float[] out, int length) {
+        int p = offset;
+        switch (encoding) {
+            case RAW -> {
+                for (int i = 0; i < length; i++, p += 4) {
+                    out[i] = Float.intBitsToFloat(src.getInt(p));
+                }
+            }
+            case DELTA -> {
+                int prev = 0;
+                for (int i = 0; i < length; i++) {
+                    int z = 0;
+                    int shift = 0;
+                    byte b;
+                    do {
+                        b = src.get(p++);
+                        z |= (b & 0x7F) << shift;
+                        shift += 7;
+                    } while (b < 0);
+                    prev += (z >>> 1) ^ -(z & 1);
+                    out[i] = Float.intBitsToFloat(prev);
+                }
+            }
+            case XOR -> decodeXor(src, p, out, length);
+        }
+    }
+
+    private static void decodeXor(ByteBuffer src, int p, float[] out, int length) {
+        if (length == 0) {
+            return;
+        }
+        long acc = 0;
+        int accBits = 0;
+        int value = 0;
+        int lead = 0;
+        int trail = 0;
+        for (int i = 0; i < length; i++) {
+            // At most 2 + 5 + 5 + 32 bits are needed for one value
+            while (accBits < 44 && p < src.limit()) {
+                acc = (acc << 8) | (src.get(p++) & 0xFF);
+                accBits += 8;
+            }
+            if (i == 0) {
+                accBits -= 32;
+                value = (int) (acc >>> accBits);
+            } else if (((acc >>> --accBits) & 1) != 0) {
+                if (((acc >>> --accBits) & 1) != 0) {
+                    accBits -= 5;
+                    lead = (int) (acc >>> accBits) & 0x1F;
+                    accBits -= 5;
+                    int len = ((int) (acc >>> accBits) & 0x1F) + 1;
+                    trail = 32 - lead - len;
+                }
+                int len = 32 - lead - trail;
+                accBits -= len;
+                int meaningful = (int) ((acc >>> accBits) & ((1L << len) - 1));
+                value ^= meaningful << trail;
+            }
+            out[i] = Float.intBitsToFloat(value);
+        }
+    }
+}
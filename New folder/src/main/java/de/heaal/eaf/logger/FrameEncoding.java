@@ -0,0 +1,20 @@
+package de.heaal.eaf.logger;
+
+/**
+ * Encoding of the float values inside one frame of a binary run log.
+ * Every frame is encoded on its own, so any generation can be decoded
+ * without reading the frames before it.
+ */
+public enum FrameEncoding {
+    RAW,   // little-endian float32 values
+    DELTA, // zigzag varint of the difference between the bit patterns of neighbours
+    XOR;   // Gorilla-style XOR of neighbouring values with leading/trailing zero windows
+
+    static FrameEncoding of(int id) {
+        FrameEncoding[] values = values();
+        if (id < 0 || id >= values.length) {
+            throw new IllegalArgumentException("unknown frame encoding " + id);
+        }
+        return values[id];
+    }
+}
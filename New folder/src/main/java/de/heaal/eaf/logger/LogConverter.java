@@ -0,0 +1,100 @@
+package de.heaal.eaf.logger;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Converts run logs between the csv format and the binary format.
+ *
+ * Usage: LogConverter csv2bin in.csv out.eafb [RAW|DELTA|XOR]
+ *        LogConverter bin2csv in.eafb out.csv
+ */
+public class LogConverter {
+
+    /**
+     * Converts a csv log into a binary log. The config of the header is the
+     * file name of the csv log without extension.
+     *
+     * @param csvFile csv log to read
+     * @param binaryFile binary log to write
+     * @param encoding encoding of the frames
+     * @return number of converted rows
+     * @throws IOException if reading or writing fails
+     */
+    public static int csvToBinary(String csvFile, String binaryFile, FrameEncoding encoding) throws IOException {
+        String name = Path.of(csvFile).getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String config = dot == -1 ? name : name.substring(0, dot);
+
+        int rows = 0;
+        float[] row = new float[64];
+        try (BufferedReader reader = Files.newBufferedReader(Path.of(csvFile), StandardCharsets.UTF_8);
+             BinaryRowWriter writer = new BinaryRowWriter(binaryFile, encoding, config)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                String[] parts = line.split(",");
+                if (row.length < parts.length) {
+                    row = new float[parts.length];
+                }
+                for (int i = 0; i < parts.length; i++) {
+                    row[i] = Float.parseFloat(parts[i]);
+                }
+                writer.write(row, parts.length);
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Converts a binary log into a csv log
+     *
+     * @param binaryFile binary log to read
+     * @param csvFile csv log to write
+     * @return number of converted rows
+     * @throws IOException if reading or writing fails
+     */
+    public static int binaryToCsv(String binaryFile, String csvFile) throws IOException {
+        try (BinaryLogReader reader = new BinaryLogReader(binaryFile);
+             BufferedWriter writer = Files.newBufferedWriter(Path.of(csvFile), StandardCharsets.UTF_8)) {
+            float[] row = new float[0];
+            StringBuilder sb = new StringBuilder();
+            for (int g = 0; g < reader.getGenerations(); g++) {
+                int length = reader.getRowLength(g);
+                if (row.length < length) {
+                    row = new float[length];
+                }
+                reader.read(g, row);
+                sb.setLength(0);
+                for (int i = 0; i < length; i++) {
+                    if (i > 0) {
+                        sb.append(',');
+                    }
+                    sb.append(row[i]);
+                }
+                writer.append(sb);
+                writer.newLine();
+            }
+            return reader.getGenerations();
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length >= 3 && args[0].equals("csv2bin")) {
+            FrameEncoding encoding = args.length > 3 ? FrameEncoding.valueOf(args[3]) : FrameEncoding.XOR;
+            System.out.println("Rows: " + csvToBinary(args[1], args[2], encoding));
+        } else if (args.length == 3 && args[0].equals("bin2csv")) {
+            System.out.println("Rows: " + binaryToCsv(args[1], args[2]));
+        } else {
+            System.out.println("Usage: LogConverter csv2bin in.csv out.eafb [RAW|DELTA|XOR]");
+            System.out.println("       LogConverter bin2csv in.eafb out.csv");
+        }
+    }
+}
@@ -51,24 +51,22 @@ public class Logger {
             directory.mkdirs(); // Create the directory and any necessary parent directories
         }
 
-        // Check if the file already exists
+        // Create the new file. createNewFile checks for an existing file
+        // atomically, so concurrent runs (e.g. islands) never share a file
         File file = new File(filePath);
         int counter = 1;
-        while (file.exists()) {
-            // Append counter to the file name
-            int dotIndex = filePath.lastIndexOf(".");
-            if (dotIndex != -1) {
-                newFilePath = filePath.substring(0, dotIndex) + counter + filePath.substring(dotIndex);
-            } else {
-                newFilePath = filePath + counter;
-            }
-            file = new File(newFilePath);
-            counter++;
-        }
-
-        // Create the new file
         try {
-            file.createNewFile();
+            while (!file.createNewFile()) {
+                // Append counter to the file name
+                int dotIndex = filePath.lastIndexOf(".");
+                if (dotIndex != -1) {
+                    newFilePath = filePath.substring(0, dotIndex) + counter + filePath.substring(dotIndex);
+                } else {
+                    newFilePath = filePath + counter;
+                }
+                file = new File(newFilePath);
+                counter++;
+            }
         } catch (IOException e) {
             e.printStackTrace();
             return null;
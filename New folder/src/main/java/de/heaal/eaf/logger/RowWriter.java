@@ -0,0 +1,27 @@
+package de.heaal.eaf.logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Writes rows of float values to a log, e.g. a csv file.
+ * Used by the RunLogger on its writer thread.
+ */
+public interface RowWriter extends Closeable {
+
+    /**
+     * Writes one row
+     *
+     * @param row values of the row
+     * @param length number of valid values in row
+     * @throws IOException if writing fails
+     */
+    void write(float[] row, int length) throws IOException;
+
+    /**
+     * Forces buffered rows to the underlying file
+     *
+     * @throws IOException if writing fails
+     */
+    void flush() throws IOException;
+}
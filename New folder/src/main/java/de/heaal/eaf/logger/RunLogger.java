@@ -0,0 +1,183 @@
+package de.heaal.eaf.logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Logs rows of float values asynchronously.
+ * The algorithm thread copies each row into a slot of a bounded ring of
+ * preallocated rows, a background thread takes the rows and writes them
+ * with a RowWriter that keeps the file open. If the writer falls behind and
+ * all slots are in use, log() blocks until a slot is free again.
+ */
+public class RunLogger implements AutoCloseable {
+
+    public static enum FlushPolicy {
+        EVERY_ROW,    // Flush after every row
+        EVERY_N_ROWS, // Flush after flushInterval rows
+        ON_CLOSE      // Flush only when the logger is closed
+    }
+
+    private static final int DEFAULT_CAPACITY = 64;
+    private static final int DEFAULT_FLUSH_INTERVAL = 64;
+
+    private static final class Row {
+        float[] data = new float[0];
+        int length;
+    }
+
+    // Marks the end of the log for the writer thread
+    private static final Row END = new Row();
+
+    private final RowWriter writer;
+    private final FlushPolicy flushPolicy;
+    private final int flushInterval;
+    private final BlockingQueue<Row> free;
+    private final BlockingQueue<Row> filled;
+    private final Thread thread;
+    private volatile boolean closed;
+
+    /**
+     * Creates the logger and starts its writer thread
+     *
+     * @param writer writes the rows
+     * @param capacity number of rows that can be buffered
+     * @param flushPolicy when to flush the writer
+     * @param flushInterval number of rows between flushes for EVERY_N_ROWS
+     */
+    public RunLogger(RowWriter writer, int capacity, FlushPolicy flushPolicy, int flushInterval) {
+        if (capacity < 1 || flushInterval < 1) {
+            throw new IllegalArgumentException("capacity and flush interval must be positive");
+        }
+        this.writer = writer;
+        this.flushPolicy = flushPolicy;
+        this.flushInterval = flushInterval;
+        this.free = new ArrayBlockingQueue<>(capacity);
+        // One additional place for the END marker
+        this.filled = new ArrayBlockingQueue<>(capacity + 1);
+        for (int i = 0; i < capacity; i++) {
+            free.add(new Row());
+        }
+
+        this.thread = new Thread(this::drain, "RunLogger");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    public RunLogger(RowWriter writer) {
+        this(writer, DEFAULT_CAPACITY, FlushPolicy.EVERY_N_ROWS, DEFAULT_FLUSH_INTERVAL);
+    }
+
+    /**
+     * Creates a logger that appends csv lines to the given file
+     *
+     * @param filePath file name to write the data in
+     * @return the logger
+     */
+    public static RunLogger csv(String filePath) {
+        try {
+            return new RunLogger(new CsvRowWriter(filePath));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Creates a logger that writes a binary run log to the given file
+     *
+     * @param filePath file name to write the data in
+     * @param encoding encoding of the frames
+     * @param config description of the run stored in the header
+     * @return the logger
+     */
+    public static RunLogger binary(String filePath, FrameEncoding encoding, String config) {
+        try {
+            return new RunLogger(new BinaryRowWriter(filePath, encoding, config));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Logs one row. The values are copied, so the caller may reuse the array.
+     *
+     * @param data values of the row
+     * @param length number of values to log
+     */
+    public void log(float[] data, int length) {
+        if (closed) {
+            throw new IllegalStateException("logger is closed");
+        }
+        Row row;
+        try {
+            row = free.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (row.data.length < length) {
+            row.data = new float[length];
+        }
+        System.arraycopy(data, 0, row.data, 0, length);
+        row.length = length;
+        filled.add(row);
+    }
+
+    public void log(float[] data) {
+        log(data, data.length);
+    }
+
+    /**
+     * Writes all pending rows, flushes and closes the writer.
+     * Blocks until the writer thread has finished.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        filled.add(END);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drain() {
+        int unflushed = 0;
+        try {
+            while (true) {
+                Row row = filled.take();
+                if (row == END) {
+                    break;
+                }
+                try {
+                    writer.write(row.data, row.length);
+                    unflushed++;
+                    if (flushPolicy == FlushPolicy.EVERY_ROW
+                            || (flushPolicy == FlushPolicy.EVERY_N_ROWS && unflushed >= flushInterval)) {
+                        writer.flush();
+                        unflushed = 0;
+                    }
+                } catch (IOException e) {
+                    e.printStackTrace();
+                } finally {
+                    free.add(row);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            try {
+                writer.flush();
+                writer.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
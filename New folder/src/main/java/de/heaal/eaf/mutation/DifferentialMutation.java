@@ -55,14 +55,49 @@ public class DifferentialMutation implements Mutation{
      */
     @Override
     public void mutate(Individual ind, MutationOptions opt){
-        float stepsize = opt.get(MutationOptions.KEYS.STEPSIZE, 0.5f);
-        int numDA = opt.get(MutationOptions.KEYS.NUMDA, 1);
-        int trialVectorVariation = opt.get(MutationOptions.KEYS.TRIAL_VECTOR_VARIATION, 1);
-        int scaleFactorVariation = opt.get(MutationOptions.KEYS.SCALE_FACTOR_VARIATION, 0);
-
-        int posCurrent = population.indexOf(ind);
-        int numCandidates = numDA*2+1;
-        int[] candidates = new int[numCandidates];
+        float stepsize = opt.getStepsize();
+        int numDA = opt.getNumDA();
+        int trialVectorVariation = opt.getTrialVectorVariation();
+        int scaleFactorVariation = opt.getScaleFactorVariation();
+
+        int[] candidates = new int[numDA*2+1];
+        createTrialVector(ind, population.indexOf(ind), candidates,
+                stepsize, numDA, trialVectorVariation, scaleFactorVariation);
+    }
+
+    /**
+     * Creates trial vectors out of a block of individuals. The options are read
+     * once for the whole block. If the block has the size of the population,
+     * inds[i] is taken as the trial vector of the i-th individual of the population,
+     * so that the parent itself is never chosen as a candidate.
+     * @param inds individuals to mutate
+     */
+    @Override
+    public void mutate(Individual[] inds, MutationOptions opt){
+        float stepsize = opt.getStepsize();
+        int numDA = opt.getNumDA();
+        int trialVectorVariation = opt.getTrialVectorVariation();
+        int scaleFactorVariation = opt.getScaleFactorVariation();
+
+        boolean alignedWithPopulation = inds.length == population.size();
+        int[] candidates = new int[numDA*2+1];
+        for (int i = 0; i < inds.length; i++) {
+            int posCurrent = alignedWithPopulation ? i : population.indexOf(inds[i]);
+            createTrialVector(inds[i], posCurrent, candidates,
+                    stepsize, numDA, trialVectorVariation, scaleFactorVariation);
+        }
+    }
+
+    /**
+     * Picks the candidates and overwrites the genome of ind with the trial vector
+     *
+     * @param ind individual to mutate
+     * @param posCurrent position of the parent in the population or -1
+     * @param candidates buffer for the positions of the candidates, length numDA*2+1
+     */
+    private void createTrialVector(Individual ind, int posCurrent, int[] candidates, float stepsize,
+                                   int numDA, int trialVectorVariation, int scaleFactorVariation) {
+        int numCandidates = candidates.length;
         Arrays.fill(candidates, -1);
 
 
@@ -92,16 +127,15 @@ public class DifferentialMutation implements Mutation{
             }
 
             if (numDA == 2) {
-                ind.getGenome().array()[posGene] = doubleDifferentialAddition(stepsize, candidates[0], candidates[1], candidates[2], candidates[3], candidates[4], posGene);
+                ind.getGenome().set(posGene, doubleDifferentialAddition(stepsize, candidates[0], candidates[1], candidates[2], candidates[3], candidates[4], posGene));
             } else {
-                ind.getGenome().array()[posGene] = singleDifferentialAddition(stepsize, candidates[0], candidates[1], candidates[2], posGene);
+                ind.getGenome().set(posGene, singleDifferentialAddition(stepsize, candidates[0], candidates[1], candidates[2], posGene));
 
             }
         }
     }
 
     private float rndStepsize() {
-        Random rng = new Random();
         return 0.4f + (0.9f - 0.4f) * rng.nextFloat();
     }
 
@@ -0,0 +1,115 @@
+/*
+ * Evolutionary Algorithms Framework
+ *
+ * Copyright (c) 2023 Christian Lins <christian.lins@haw-hamburg.de>
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package de.heaal.eaf.mutation;
+
+import de.heaal.eaf.base.Individual;
+import de.heaal.eaf.base.Population;
+
+import java.util.Random;
+
+/**
+ * Gaussian mutation: every gene moves by a normal distributed step with
+ * standard deviation stepSize * (max - min) and is clamped to the box.
+ * The step size can be adapted with the one-fifth success rule of the
+ * (1+1)-ES, see adaptStepSize().
+ */
+public class GaussianMutation implements Mutation {
+
+    private Random rng;
+    private final float[] min;
+    private final float[] max;
+    // Damping of the step size adaptation, 1 + n / 2 (Kern et al.)
+    private final float damping;
+    private float stepSize;
+
+    /**
+     * @param stepSize initial step size relative to max - min, e.g. 0.1
+     */
+    public GaussianMutation(float[] min, float[] max, float stepSize) {
+        if (min.length != max.length) {
+            throw new IllegalArgumentException("min.length != max.length");
+        }
+        this.min = min;
+        this.max = max;
+        this.damping = 1 + min.length / 2.0f;
+        setStepSize(stepSize);
+    }
+
+    @Override
+    public void setPopulation(Population population){
+        //this function does not do anything in this case
+    }
+
+    @Override
+    public void setRandom(Random rng) {
+        this.rng = rng;
+    }
+
+    public float getStepSize() {
+        return stepSize;
+    }
+
+    public void setStepSize(float stepSize) {
+        if (!(stepSize > 0)) {
+            throw new IllegalArgumentException("step size must be positive");
+        }
+        this.stepSize = stepSize;
+    }
+
+    /**
+     * One-fifth success rule: the step size grows if more than a fifth of
+     * the mutants were better than their parent and shrinks otherwise.
+     *
+     * @param successes number of mutants that were better than their parent
+     * @param trials number of mutants
+     */
+    public void adaptStepSize(int successes, int trials) {
+        float rate = (float) successes / trials;
+        float adapted = stepSize * (float) Math.exp((rate - 0.2f) / (0.8f * damping));
+        // Steps beyond the box are useless, steps below the float resolution stall
+        stepSize = Math.max(1e-9f, Math.min(adapted, 1));
+    }
+
+    @Override
+    public void mutate(Individual ind, MutationOptions opt) {
+        if (opt.getMutationProbability() < rng.nextFloat()) {
+            // Skip this individual
+            return;
+        }
+        float[] genome = ind.getGenome().writableArray();
+        for (int i = 0; i < genome.length; i++) {
+            float value = genome[i] + stepSize * (max[i] - min[i]) * (float) rng.nextGaussian();
+            genome[i] = Math.max(min[i], Math.min(value, Math.nextDown(max[i])));
+        }
+    }
+
+    @Override
+    public void mutate(Individual[] inds, MutationOptions opt) {
+        for (Individual ind : inds) {
+            mutate(ind, opt);
+        }
+    }
+}
@@ -47,5 +47,13 @@ public interface Mutation {
      */
     void mutate(Individual ind, MutationOptions opt);
 
-    //void mutate(Individual[] inds, MutationOptions opt);
+    /**
+     * Mutate a contiguous block of Individuals with the same options.
+     * Implementations should read the options only once per call and
+     * should not do more work per Individual than necessary, e.g. skip
+     * Individuals that are not mutated at all.
+     * @param inds Copies of Individuals to mutate
+     * @param opt Mutation Options
+     */
+    void mutate(Individual[] inds, MutationOptions opt);
 }
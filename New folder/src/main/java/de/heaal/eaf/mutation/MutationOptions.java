@@ -24,64 +24,145 @@
 
 package de.heaal.eaf.mutation;
 
-import java.util.HashMap;
+import java.util.EnumMap;
 import java.util.Map;
 
 /**
  * Options that can be passed to a Mutator instance.
+ * The options are immutable: they are collected by a {@link Builder}, validated
+ * once and compiled into primitive fields, so that reading them in the
+ * mutation of an individual is a plain field access.
  * 
  * @author Christian Lins <christian.lins@haw-hamburg.de>
  */
-public class MutationOptions {
+public final class MutationOptions {
     public static enum KEYS {
         FEATURE_INDEX,
         MUTATION_PROBABILITY,
         STEPSIZE,
         NUMDA,
         TRIAL_VECTOR_VARIATION, //1 - rnd, 2 - best
-        SCALE_FACTOR_VARIATION
+        SCALE_FACTOR_VARIATION  //0 - static, 1 - dither, 2 - jitter
     }
-    
-    private final Map<KEYS, Integer> intOptions = new HashMap<>();
-    private final Map<KEYS, Float> floatOptions = new HashMap<>();
-    
-    public int get(KEYS key, int _default) {
-        if (intOptions.containsKey(key)) {
-            return intOptions.get(key);
-        } else {
-            return _default;
+
+    private final int featureIndex;
+    private final float mutationProbability;
+    private final double logSkipProbability;
+    private final float stepsize;
+    private final int numDA;
+    private final int trialVectorVariation;
+    private final int scaleFactorVariation;
+
+    private MutationOptions(Builder builder) {
+        this.featureIndex = builder.get(KEYS.FEATURE_INDEX, -1);
+        this.mutationProbability = builder.get(KEYS.MUTATION_PROBABILITY, 0.1f);
+        this.stepsize = builder.get(KEYS.STEPSIZE, 0.5f);
+        this.numDA = builder.get(KEYS.NUMDA, 1);
+        this.trialVectorVariation = builder.get(KEYS.TRIAL_VECTOR_VARIATION, 1);
+        this.scaleFactorVariation = builder.get(KEYS.SCALE_FACTOR_VARIATION, 0);
+
+        if (featureIndex < -1) {
+            throw new IllegalArgumentException("Feature index must not be negative");
         }
-    }
-    
-    public float get(KEYS key, float _default) {
-        if (floatOptions.containsKey(key)) {
-            return floatOptions.get(key);
-        } else {
-            return _default;
+        if (!(mutationProbability >= 0.0f && mutationProbability <= 1.0f)) {
+            throw new IllegalArgumentException("Mutation probability must be within [0; 1]");
+        }
+        if (!Float.isFinite(stepsize)) {
+            throw new IllegalArgumentException("Stepsize must be finite");
         }
+        if (numDA < 1 || numDA > 2) {
+            throw new IllegalArgumentException("Number ob differential additions can be either 1 or 2");
+        }
+        if (trialVectorVariation < 1 || trialVectorVariation > 2) {
+            throw new IllegalArgumentException("Trial Vector variation is not known");
+        }
+        if (scaleFactorVariation < 0 || scaleFactorVariation > 2) {
+            throw new IllegalArgumentException("Scale Factor variation is not known");
+        }
+
+        this.logSkipProbability = Math.log(1.0 - mutationProbability);
     }
 
-    /*
-    private final Map<KEYS, Individual[]> indListOptions = new HashMap<>();
+    public static Builder builder() {
+        return new Builder();
+    }
 
-    public Individual[] get(KEYS key, Individual[] _default) {
-        if (indListOptions.containsKey(key)) {
-            return indListOptions.get(key);
-        } else {
-            return _default;
-        }
+    /**
+     * @return index of the feature to mutate or -1 if it is chosen randomly
+     */
+    public int getFeatureIndex() {
+        return featureIndex;
+    }
+
+    public float getMutationProbability() {
+        return mutationProbability;
     }
 
-    public void put(KEYS key, Individual[] value) {
-        indListOptions.put(key, value);
+    /**
+     * @return log(1 - mutation probability), used to draw geometric skips
+     */
+    public double getLogSkipProbability() {
+        return logSkipProbability;
     }
-    */
-    
-    public void put(KEYS key, int value) {
-        intOptions.put(key, value);
+
+    public float getStepsize() {
+        return stepsize;
+    }
+
+    public int getNumDA() {
+        return numDA;
     }
-    
-    public void put(KEYS key, float value) {
-        floatOptions.put(key, value);
+
+    /**
+     * @return 1 - rnd, 2 - best
+     */
+    public int getTrialVectorVariation() {
+        return trialVectorVariation;
+    }
+
+    /**
+     * @return 0 - static, 1 - dither, 2 - jitter
+     */
+    public int getScaleFactorVariation() {
+        return scaleFactorVariation;
+    }
+
+    /**
+     * Collects key-value-pairs and compiles them into immutable MutationOptions.
+     */
+    public static class Builder {
+        private final Map<KEYS, Integer> intOptions = new EnumMap<>(KEYS.class);
+        private final Map<KEYS, Float> floatOptions = new EnumMap<>(KEYS.class);
+
+        private Builder() {
+        }
+
+        public Builder put(KEYS key, int value) {
+            intOptions.put(key, value);
+            return this;
+        }
+
+        public Builder put(KEYS key, float value) {
+            floatOptions.put(key, value);
+            return this;
+        }
+
+        private int get(KEYS key, int _default) {
+            return intOptions.getOrDefault(key, _default);
+        }
+
+        private float get(KEYS key, float _default) {
+            return floatOptions.getOrDefault(key, _default);
+        }
+
+        /**
+         * Validates the options and creates the immutable MutationOptions.
+         *
+         * @return the compiled options
+         * @throws IllegalArgumentException if an option is out of its range
+         */
+        public MutationOptions build() {
+            return new MutationOptions(this);
+        }
     }
 }
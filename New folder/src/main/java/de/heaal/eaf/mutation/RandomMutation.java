@@ -59,15 +59,82 @@ public class RandomMutation implements Mutation {
 
     @Override
     public void mutate(Individual ind, MutationOptions opt) {
-        float p = opt.get(MutationOptions.KEYS.MUTATION_PROBABILITY, 0.1f);
-        if (p < rng.nextFloat()) {
+        mutateFeature(ind, opt);
+    }
+
+    /**
+     * Mutates a single feature of the given Individual like
+     * {@link #mutate(Individual, MutationOptions)} and tells which one, so that
+     * the caller can update the fitness incrementally.
+     *
+     * @param ind Copy of Individual to mutate
+     * @param opt Mutation Options
+     * @return index of the mutated feature or -1 if the Individual was skipped
+     */
+    public int mutateFeature(Individual ind, MutationOptions opt) {
+        if (opt.getMutationProbability() < rng.nextFloat()) {
             // Skip this individual
-            return;
+            return -1;
         }
         
+        int i = opt.getFeatureIndex();
+        if (i < 0) {
+            i = rng.nextInt(min.length);
+        }
+        resample(ind, i);
+        return i;
+    }
+
+    /**
+     * Mutates each Individual of the block with the mutation probability.
+     * Instead of drawing a random number for every Individual the distance to
+     * the next mutated Individual is drawn from a geometric distribution, so
+     * the cost is proportional to the number of mutations and not to the
+     * number of Individuals.
+     *
+     * @param inds Copies of Individuals to mutate
+     * @param opt Mutation Options
+     */
+    @Override
+    public void mutate(Individual[] inds, MutationOptions opt) {
+        float p = opt.getMutationProbability();
+        if (p <= 0.0f) {
+            return;
+        }
+
         int dim = min.length;
-        int i = opt.get(MutationOptions.KEYS.FEATURE_INDEX, rng.nextInt(dim));
-        ind.getGenome().array()[i] = rng.nextFloat() * (max[i] - min[i]) + min[i];
+        int feature = opt.getFeatureIndex();
+
+        if (p >= 1.0f) {
+            for (Individual ind : inds) {
+                resample(ind, feature >= 0 ? feature : rng.nextInt(dim));
+            }
+            return;
+        }
+
+        double logQ = opt.getLogSkipProbability();
+        long pos = geometricSkip(logQ);
+        while (pos < inds.length) {
+            resample(inds[(int) pos], feature >= 0 ? feature : rng.nextInt(dim));
+            pos += 1 + geometricSkip(logQ);
+        }
+    }
+
+    /**
+     * Number of Individuals that are skipped before the next mutation
+     * happens, i.e. a geometrically distributed random number with
+     * success probability p.
+     *
+     * @param logQ log(1 - p)
+     * @return number of Individuals to skip
+     */
+    private long geometricSkip(double logQ) {
+        // 1 - nextDouble() is in (0, 1], so the logarithm is finite
+        return (long) (Math.log(1.0 - rng.nextDouble()) / logQ);
+    }
+
+    private void resample(Individual ind, int i) {
+        ind.getGenome().set(i, rng.nextFloat() * (max[i] - min[i]) + min[i]);
     }
     
 }
@@ -0,0 +1,97 @@
+/*
+ * Evolutionary Algorithms Framework
+ *
+ * Copyright (c) 2023 Christian Lins <christian.lins@haw-hamburg.de>
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package de.heaal.eaf.sampling;
+
+import java.util.Random;
+
+/**
+ * Halton sequence, the radical inverse of the point index in the d-th prime
+ * base for dimension d. Every batch is shifted by a random vector modulo 1
+ * (Cranley-Patterson rotation), so runs differ while the points keep their
+ * low discrepancy. For more than about 10 dimensions the Sobol sequence
+ * should be preferred, the Halton dimensions with large bases correlate.
+ */
+public class HaltonSampler implements Sampler {
+    
+    private int[] bases = new int[0];
+    private long index = 1;
+    
+    @Override
+    public void sample(float[][] points, Random rng) {
+        if (points.length == 0) {
+            return;
+        }
+        int dim = points[0].length;
+        if (bases.length < dim) {
+            bases = primes(dim);
+        }
+        double[] shift = new double[dim];
+        for (int d = 0; d < dim; d++) {
+            shift[d] = rng.nextDouble();
+        }
+        for (float[] point : points) {
+            for (int d = 0; d < dim; d++) {
+                double u = radicalInverse(index, bases[d]) + shift[d];
+                point[d] = toUnitFloat(u - Math.floor(u));
+            }
+            index++;
+        }
+    }
+    
+    static double radicalInverse(long i, int base) {
+        double inverse = 0;
+        double factor = 1.0 / base;
+        while (i > 0) {
+            inverse += (i % base) * factor;
+            i /= base;
+            factor /= base;
+        }
+        return inverse;
+    }
+    
+    // Rounding to float must not reach 1
+    static float toUnitFloat(double u) {
+        return Math.min((float) u, Math.nextDown(1.0f));
+    }
+    
+    private static int[] primes(int n) {
+        int[] primes = new int[n];
+        int count = 0;
+        for (int candidate = 2; count < n; candidate++) {
+            boolean prime = true;
+            for (int i = 0; i < count && primes[i] * primes[i] <= candidate; i++) {
+                if (candidate % primes[i] == 0) {
+                    prime = false;
+                    break;
+                }
+            }
+            if (prime) {
+                primes[count++] = candidate;
+            }
+        }
+        return primes;
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Evolutionary Algorithms Framework
+ *
+ * Copyright (c) 2023 Christian Lins <christian.lins@haw-hamburg.de>
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package de.heaal.eaf.sampling;
+
+import java.util.Random;
+
+/**
+ * Latin hypercube sampling: in every dimension each of the n strata of a
+ * batch of n points contains exactly one point, at a random position
+ * inside of the stratum.
+ */
+public class LatinHypercubeSampler implements Sampler {
+    
+    @Override
+    public void sample(float[][] points, Random rng) {
+        int n = points.length;
+        if (n == 0) {
+            return;
+        }
+        int[] strata = new int[n];
+        for (int d = 0; d < points[0].length; d++) {
+            for (int i = 0; i < n; i++) {
+                strata[i] = i;
+            }
+            // Fisher-Yates shuffle of the strata
+            for (int i = n - 1; i > 0; i--) {
+                int j = rng.nextInt(i + 1);
+                int tmp = strata[i];
+                strata[i] = strata[j];
+                strata[j] = tmp;
+            }
+            for (int i = 0; i < n; i++) {
+                points[i][d] = Math.min((strata[i] + rng.nextFloat()) / n, Math.nextDown(1.0f));
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Evolutionary Algorithms Framework
+ *
+ * Copyright (c) 2023 Christian Lins <christian.lins@haw-hamburg.de>
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package de.heaal.eaf.sampling;
+
+import java.util.Random;
+
+/**
+ * Sobol sequence with the direction numbers of Joe and Kuo
+ * (new-joe-kuo-6.21201) for up to 16 dimensions. Points are generated in
+ * Gray code order with 32 bit precision. Like the HaltonSampler every batch
+ * is shifted by a random vector modulo 1.
+ */
+public class SobolSampler implements Sampler {
+    
+    public static final int MAX_DIMENSION = 16;
+    private static final int BITS = 32;
+    
+    // s, a and the initial m_1..m_s of the dimensions 2 to 16
+    private static final int[][] JOE_KUO = {
+        {1, 0, 1},
+        {2, 1, 1, 3},
+        {3, 1, 1, 3, 1},
+        {3, 2, 1, 1, 1},
+        {4, 1, 1, 1, 3, 3},
+        {4, 4, 1, 3, 5, 13},
+        {5, 2, 1, 1, 5, 5, 17},
+        {5, 4, 1, 1, 5, 5, 5},
+        {5, 7, 1, 1, 7, 11, 19},
+        {5, 11, 1, 1, 5, 1, 1},
+        {5, 13, 1, 1, 1, 3, 11},
+        {5, 14, 1, 3, 5, 5, 31},
+        {6, 1, 1, 3, 3, 9, 7, 49},
+        {6, 13, 1, 1, 1, 15, 21, 21},
+        {6, 16, 1, 3, 1, 13, 27, 49}
+    };
+    
+    // Direction numbers v[d][k] of dimension d for bit k
+    private static final int[][] DIRECTIONS = directions();
+    
+    private int[] state = new int[0];
+    private long index;
+    
+    @Override
+    public void sample(float[][] points, Random rng) {
+        if (points.length == 0) {
+            return;
+        }
+        int dim = points[0].length;
+        if (dim > MAX_DIMENSION) {
+            throw new IllegalArgumentException("Sobol sequence supports up to " + MAX_DIMENSION + " dimensions");
+        }
+        if (state.length < dim) {
+            // Start the new dimensions at the next index
+            int[] grown = new int[dim];
+            System.arraycopy(state, 0, grown, 0, state.length);
+            for (int d = state.length; d < dim; d++) {
+                grown[d] = pointAt(index, d);
+            }
+            state = grown;
+        }
+        double[] shift = new double[dim];
+        for (int d = 0; d < dim; d++) {
+            shift[d] = rng.nextDouble();
+        }
+        for (float[] point : points) {
+            // The batches starting at multiples of 2^k are stratified in each dimension
+            int bit = Long.numberOfTrailingZeros(~index);
+            index++;
+            for (int d = 0; d < dim; d++) {
+                double u = Integer.toUnsignedLong(state[d]) * 0x1.0p-32 + shift[d];
+                point[d] = HaltonSampler.toUnitFloat(u - Math.floor(u));
+                state[d] ^= DIRECTIONS[d][bit];
+            }
+        }
+    }
+    
+    /**
+     * @return the d-th coordinate of the point with the given index, as 32 bit fraction
+     */
+    static int pointAt(long index, int d) {
+        long gray = index ^ (index >>> 1);
+        int x = 0;
+        for (int k = 0; gray != 0; k++, gray >>>= 1) {
+            if ((gray & 1) != 0) {
+                x ^= DIRECTIONS[d][k];
+            }
+        }
+        return x;
+    }
+    
+    private static int[][] directions() {
+        int[][] v = new int[MAX_DIMENSION][BITS];
+        // First dimension: van der Corput sequence in base 2
+        for (int k = 0; k < BITS; k++) {
+            v[0][k] = 1 << (BITS - 1 - k);
+        }
+        for (int d = 1; d < MAX_DIMENSION; d++) {
+            int s = JOE_KUO[d - 1][0];
+            int a = JOE_KUO[d - 1][1];
+            for (int k = 0; k < s; k++) {
+                v[d][k] = JOE_KUO[d - 1][2 + k] << (BITS - 1 - k);
+            }
+            for (int k = s; k < BITS; k++) {
+                int x = v[d][k - s] ^ (v[d][k - s] >>> s);
+                for (int j = 1; j < s; j++) {
+                    if (((a >>> (s - 1 - j)) & 1) != 0) {
+                        x ^= v[d][k - j];
+                    }
+                }
+                v[d][k] = x;
+            }
+        }
+        return v;
+    }
+}
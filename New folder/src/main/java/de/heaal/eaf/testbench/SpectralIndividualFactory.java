@@ -0,0 +1,299 @@
+/*
+ * Evolutionary Algorithms Framework
+ *
+ * Copyright (c) 2023 Christian Lins <christian.lins@haw-hamburg.de>
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package de.heaal.eaf.testbench;
+
+import de.heaal.eaf.base.AbstractIndividualFactory;
+import de.heaal.eaf.base.GenericIndividual;
+import de.heaal.eaf.base.Individual;
+import de.heaal.eaf.base.VecN;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Creates individuals for the sinusoid model A*sin(2*pi*f*t+phi) + D of
+ * TestFitting around the dominant frequencies of the measurements.
+ *
+ * The Lomb-Scargle periodogram of the measurements is computed once, it
+ * also works for unevenly sampled data. For each of the highest peaks,
+ * amplitude, phase and offset are fitted by least squares. Every created
+ * individual is a slightly jittered copy of one of these seeds, stronger
+ * peaks are chosen more often. The phase is wrapped to [-pi, pi] and, if
+ * bounds are set, every gene is clamped to them.
+ */
+public class SpectralIndividualFactory extends AbstractIndividualFactory {
+
+    private static final int OVERSAMPLING = 4;
+    // Relative jitter of the amplitude and absolute jitter of the phase
+    private static final float AMPLITUDE_JITTER = 0.1f;
+    private static final float PHASE_JITTER = 0.1f;
+
+    private final boolean projected;
+    private final List<float[]> seeds = new ArrayList<>();
+    private final double[] cumulativePower;
+    private final float frequencyJitter;
+    private final float offsetJitter;
+    // Center of the sample times, the phase is kept there when the frequency is jittered
+    private final double center;
+    // Box of the created genomes, null if unbounded
+    private float[] min, max;
+
+    /**
+     * Seeds around the peaks between the lowest resolvable frequency and the
+     * Nyquist frequency of the mean sampling interval.
+     *
+     * @param t sample times
+     * @param y measurements
+     * @param peaks number of spectral peaks to seed around
+     * @param projected true for genomes [f, phi] of the variable projection,
+     *                  false for genomes [A, f, phi, D]
+     */
+    public SpectralIndividualFactory(float[] t, float[] y, int peaks, boolean projected) {
+        this(t, y, peaks, projected, defaultMinFrequency(t), defaultMaxFrequency(t));
+    }
+
+    /**
+     * @param t sample times
+     * @param y measurements
+     * @param peaks number of spectral peaks to seed around
+     * @param projected true for genomes [f, phi], false for genomes [A, f, phi, D]
+     * @param minFrequency lowest frequency of the periodogram
+     * @param maxFrequency highest frequency of the periodogram
+     */
+    public SpectralIndividualFactory(float[] t, float[] y, int peaks, boolean projected,
+                                     float minFrequency, float maxFrequency) {
+        if (t.length != y.length || t.length < 3) {
+            throw new IllegalArgumentException("at least 3 samples with times are needed");
+        }
+        if (peaks < 1 || !(minFrequency > 0) || !(maxFrequency > minFrequency)) {
+            throw new IllegalArgumentException("invalid number of peaks or frequency range");
+        }
+        this.projected = projected;
+        this.center = 0.5 * ((double) t[0] + t[t.length - 1]);
+
+        double mean = 0;
+        for (float v : y) {
+            mean += v;
+        }
+        mean /= y.length;
+        double variance = 0;
+        for (float v : y) {
+            variance += (v - mean) * (v - mean);
+        }
+        this.offsetJitter = (float) (0.1 * Math.sqrt(variance / y.length));
+
+        // Frequency grid, oversampled relative to the resolution 1/T
+        double span = t[t.length - 1] - t[0];
+        double step = 1.0 / (OVERSAMPLING * span);
+        int gridSize = (int) Math.max(3, Math.ceil((maxFrequency - minFrequency) / step) + 1);
+        this.frequencyJitter = (float) step;
+
+        double[] power = new double[gridSize];
+        for (int k = 0; k < gridSize; k++) {
+            power[k] = lombScargle(t, y, mean, minFrequency + k * step);
+        }
+
+        // The highest local maxima of the periodogram
+        List<Integer> peakIndices = new ArrayList<>();
+        for (int k = 1; k < gridSize - 1; k++) {
+            if (power[k] > power[k - 1] && power[k] >= power[k + 1]) {
+                peakIndices.add(k);
+            }
+        }
+        if (peakIndices.isEmpty()) {
+            peakIndices.add(0);
+        }
+        peakIndices.sort((a, b) -> Double.compare(power[b], power[a]));
+
+        int n = Math.min(peaks, peakIndices.size());
+        this.cumulativePower = new double[n];
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            int k = peakIndices.get(i);
+            seeds.add(fitAtFrequency(t, y, minFrequency + k * step));
+            sum += power[k];
+            cumulativePower[i] = sum;
+        }
+    }
+
+    private static float defaultMinFrequency(float[] t) {
+        return 1.0f / (t[t.length - 1] - t[0]);
+    }
+
+    private static float defaultMaxFrequency(float[] t) {
+        // Nyquist frequency of the mean sampling interval
+        return 0.5f * (t.length - 1) / (t[t.length - 1] - t[0]);
+    }
+
+    /**
+     * Normalized Lomb-Scargle power at frequency f
+     */
+    private static double lombScargle(float[] t, float[] y, double mean, double f) {
+        double w = 2 * Math.PI * f;
+        double sin2 = 0, cos2 = 0;
+        for (float ti : t) {
+            sin2 += Math.sin(2 * w * ti);
+            cos2 += Math.cos(2 * w * ti);
+        }
+        double tau = Math.atan2(sin2, cos2) / (2 * w);
+
+        double yc = 0, ys = 0, cc = 0, ss = 0;
+        for (int i = 0; i < t.length; i++) {
+            double arg = w * (t[i] - tau);
+            double c = Math.cos(arg);
+            double s = Math.sin(arg);
+            double v = y[i] - mean;
+            yc += v * c;
+            ys += v * s;
+            cc += c * c;
+            ss += s * s;
+        }
+        return 0.5 * (yc * yc / Math.max(cc, 1e-12) + ys * ys / Math.max(ss, 1e-12));
+    }
+
+    /**
+     * Least squares fit of y = a*sin(wt) + b*cos(wt) + D at a fixed frequency,
+     * converted to A*sin(wt+phi) + D with A*cos(phi) = a and A*sin(phi) = b.
+     *
+     * @return amplitude, frequency, phase and offset
+     */
+    private static float[] fitAtFrequency(float[] t, float[] y, double f) {
+        double w = 2 * Math.PI * f;
+        // Normal equations for the basis (sin, cos, 1)
+        double[][] m = new double[3][4];
+        for (int i = 0; i < t.length; i++) {
+            double[] basis = {Math.sin(w * t[i]), Math.cos(w * t[i]), 1};
+            for (int r = 0; r < 3; r++) {
+                for (int c = 0; c < 3; c++) {
+                    m[r][c] += basis[r] * basis[c];
+                }
+                m[r][3] += basis[r] * y[i];
+            }
+        }
+        double[] x = solve3(m);
+        double amplitude = Math.hypot(x[0], x[1]);
+        double phase = Math.atan2(x[1], x[0]);
+        return new float[]{(float) amplitude, (float) f, (float) phase, (float) x[2]};
+    }
+
+    // Gaussian elimination with partial pivoting of an augmented 3x4 matrix
+    private static double[] solve3(double[][] m) {
+        for (int col = 0; col < 3; col++) {
+            int pivot = col;
+            for (int r = col + 1; r < 3; r++) {
+                if (Math.abs(m[r][col]) > Math.abs(m[pivot][col])) {
+                    pivot = r;
+                }
+            }
+            double[] tmp = m[col];
+            m[col] = m[pivot];
+            m[pivot] = tmp;
+            if (Math.abs(m[col][col]) < 1e-12) {
+                continue;
+            }
+            for (int r = col + 1; r < 3; r++) {
+                double factor = m[r][col] / m[col][col];
+                for (int c = col; c < 4; c++) {
+                    m[r][c] -= factor * m[col][c];
+                }
+            }
+        }
+        double[] x = new double[3];
+        for (int r = 2; r >= 0; r--) {
+            double v = m[r][3];
+            for (int c = r + 1; c < 3; c++) {
+                v -= m[r][c] * x[c];
+            }
+            x[r] = Math.abs(m[r][r]) < 1e-12 ? 0 : v / m[r][r];
+        }
+        return x;
+    }
+
+    /**
+     * Clamps the genes of the created individuals to [min, max).
+     *
+     * @param min lower bounds of the genome, inclusive
+     * @param max upper bounds of the genome, exclusive
+     */
+    public void setBounds(float[] min, float[] max) {
+        int length = projected ? 2 : 4;
+        if (min.length != length || max.length != length) {
+            throw new IllegalArgumentException("bounds must have " + length + " genes");
+        }
+        this.min = min;
+        this.max = max;
+    }
+
+    @Override
+    public float[] getLowerBounds() {
+        return min;
+    }
+
+    @Override
+    public float[] getUpperBounds() {
+        return max;
+    }
+
+    /**
+     * @return copies of the seeds as amplitude, frequency, phase and offset, strongest peak first
+     */
+    public List<float[]> getSeeds() {
+        return seeds.stream().map(float[]::clone).toList();
+    }
+
+    @Override
+    public Individual create() {
+        // Choose a peak with probability proportional to its power
+        double u = rng.nextDouble() * cumulativePower[cumulativePower.length - 1];
+        int peak = 0;
+        while (peak < cumulativePower.length - 1 && u > cumulativePower[peak]) {
+            peak++;
+        }
+        float[] seed = seeds.get(peak);
+
+        float df = frequencyJitter * (float) rng.nextGaussian();
+        float f = seed[1] + df;
+        // The phase is defined at t = 0, far from the samples. Shift it so the
+        // jittered sine stays in phase with the seed in the middle of the samples.
+        double shift = 2 * Math.PI * df * center;
+        // The shift is many periods for the sample times of the measurements
+        float phi = (float) Math.IEEEremainder(seed[2] - shift + PHASE_JITTER * rng.nextGaussian(), 2 * Math.PI);
+        float[] genome;
+        if (projected) {
+            genome = new float[]{f, phi};
+        } else {
+            float amplitude = seed[0] * (1 + AMPLITUDE_JITTER * (float) rng.nextGaussian());
+            float offset = seed[3] + offsetJitter * (float) rng.nextGaussian();
+            genome = new float[]{amplitude, f, phi, offset};
+        }
+        if (min != null) {
+            for (int j = 0; j < genome.length; j++) {
+                genome[j] = Math.max(min[j], Math.min(genome[j], Math.nextDown(max[j])));
+            }
+        }
+        return new GenericIndividual(new VecN(genome));
+    }
+}
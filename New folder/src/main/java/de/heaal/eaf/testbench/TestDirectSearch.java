@@ -0,0 +1,35 @@
+package de.heaal.eaf.testbench;
+
+import de.heaal.eaf.algorithm.DirectSearch;
+import de.heaal.eaf.algorithm.NelderMead;
+import de.heaal.eaf.algorithm.PatternSearch;
+import de.heaal.eaf.base.BestSoFar;
+import de.heaal.eaf.base.EndCondition;
+import de.heaal.eaf.evaluation.ComparatorIndividual;
+import de.heaal.eaf.evaluation.MinimizeFunctionComparator;
+
+import static de.heaal.eaf.testbench.TestFunctions.evalAckleyFunc2D;
+
+/**
+ * Test bench for the Nelder-Mead and pattern search algorithms.
+ */
+public class TestDirectSearch {
+    public static void main(String[] args) {
+        float[] min = {-5.12f, -5.12f};
+        float[] max = {+5.12f, +5.12f};
+
+        var comparator = new MinimizeFunctionComparator(evalAckleyFunc2D);
+
+        for (int i = 0; i < 10; i++) {
+            DirectSearch[] algos = {
+                new NelderMead(min, max, 0.1f, comparator, new ComparatorIndividual(0.001f)),
+                new PatternSearch(min, max, 0.25f, comparator, new ComparatorIndividual(0.001f))
+            };
+            for (DirectSearch algo : algos) {
+                BestSoFar best = algo.runAnytime(EndCondition.evaluationMaximum(100000));
+                System.out.println(algo.getClass().getSimpleName() + " end: " + algo.getEndReason()
+                        + ", best " + best.fitness() + " found after " + best.evaluations() + " evaluations");
+            }
+        }
+    }
+}
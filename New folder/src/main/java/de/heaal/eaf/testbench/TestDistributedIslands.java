@@ -0,0 +1,109 @@
+package de.heaal.eaf.testbench;
+
+import de.heaal.eaf.algorithm.DifferentialEvolution;
+import de.heaal.eaf.base.EndCondition;
+import de.heaal.eaf.base.Individual;
+import de.heaal.eaf.crossover.DifferentialCrossover;
+import de.heaal.eaf.distributed.MigrationCoordinator;
+import de.heaal.eaf.distributed.RemoteMigration;
+import de.heaal.eaf.evaluation.ComparatorIndividual;
+import de.heaal.eaf.evaluation.MinimizeFunctionComparator;
+import de.heaal.eaf.mutation.DifferentialMutation;
+
+import java.io.File;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * Test bench for the distributed island model. Without arguments it starts
+ * a coordinator and launches worker JVMs on this machine, one of them is
+ * killed during the run to show that the others go on. With the argument
+ * "unix" the workers connect over a Unix domain socket instead of TCP.
+ * 
+ * Workers are started as: TestDistributedIslands worker tcp:PORT or unix:PATH
+ */
+public class TestDistributedIslands {
+
+    private static final int N = 10;
+    private static final int WORKERS = 4;
+
+    // Rastrigin function, minimum 0 at the origin
+    private static final Function<Individual, Float> rastrigin = ind -> {
+        float sum = 0;
+        for (float x : ind.getGenome().array()) {
+            sum += 10 + x * x - 10 * (float) Math.cos(2 * Math.PI * x);
+        }
+        return sum;
+    };
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 2 && args[0].equals("worker")) {
+            worker(parseAddress(args[1]));
+            return;
+        }
+
+        boolean unix = args.length == 1 && args[0].equals("unix");
+        SocketAddress address = unix
+                ? UnixDomainSocketAddress.of(Files.createTempDirectory("eaf").resolve("islands.sock"))
+                : new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+
+        try (var coordinator = new MigrationCoordinator(address, N, new MinimizeFunctionComparator(rastrigin), 10)) {
+            String target = unix ? "unix:" + address
+                    : "tcp:" + ((InetSocketAddress) coordinator.getAddress()).getPort();
+            String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+            List<Process> processes = new ArrayList<>();
+            for (int k = 0; k < WORKERS; k++) {
+                processes.add(new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                        TestDistributedIslands.class.getName(), "worker", target)
+                        .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                        .redirectError(ProcessBuilder.Redirect.INHERIT)
+                        .start());
+            }
+
+            // A crashed worker leaves the ring, the others go on. It is killed
+            // once all workers are in the ring, not while the JVMs start.
+            long deadline = System.currentTimeMillis() + 30000;
+            while (coordinator.getWorkerCount() < WORKERS && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            processes.get(0).destroyForcibly();
+
+            boolean finished = coordinator.awaitWorkers(WORKERS, 120000);
+            Individual best = coordinator.getBest();
+            System.out.println("Workers finished: " + finished + ", best " + (best != null ? best.getCache() : null)
+                    + (best != null ? " at " + best.getGenome() : ""));
+            processes.forEach(Process::destroy);
+        }
+    }
+
+    private static SocketAddress parseAddress(String address) {
+        if (address.startsWith("unix:")) {
+            return UnixDomainSocketAddress.of(address.substring(5));
+        }
+        return new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(address.substring(4)));
+    }
+
+    private static void worker(SocketAddress coordinator) throws Exception {
+        float[] min = new float[N];
+        float[] max = new float[N];
+        Arrays.fill(min, -5.12f);
+        Arrays.fill(max, 5.12f);
+
+        var comparator = new MinimizeFunctionComparator(rastrigin);
+        var combination = new DifferentialCrossover();
+        combination.setCrossoverRate(0.1f);
+        var algo = new DifferentialEvolution(min, max, 0.5f, 0.1f, 1, 25, combination, comparator,
+                "rnd", "D", new DifferentialMutation(new Random()), new ComparatorIndividual(0.001f));
+        algo.setEndCondition(EndCondition.targetValue(comparator, new ComparatorIndividual(0.001f))
+                .or(EndCondition.evaluationMaximum(200000)));
+        RemoteMigration.runWorker(algo, coordinator, N, 10, 2);
+    }
+}
@@ -25,17 +25,21 @@
 package de.heaal.eaf.testbench;
 
 import de.heaal.eaf.algorithm.DifferentialEvolution;
+import de.heaal.eaf.base.GenericIndividualFactory;
 import de.heaal.eaf.base.Individual;
+import de.heaal.eaf.base.IndividualFactory;
 import de.heaal.eaf.crossover.DifferentialCrossover;
 import de.heaal.eaf.evaluation.ComparatorIndividual;
+import de.heaal.eaf.evaluation.IncrementalFunction;
 import de.heaal.eaf.evaluation.MinimizeFunctionComparator;
+import de.heaal.eaf.localsearch.LevenbergMarquardt;
+import de.heaal.eaf.localsearch.ResidualFunction;
 import de.heaal.eaf.mutation.DifferentialMutation;
 
-import java.io.BufferedReader;
+import de.heaal.eaf.io.ColumnLoader;
+
 import java.io.IOException;
-import java.io.FileReader;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.file.Path;
 import java.util.Random;
 import java.util.function.Function;
 
@@ -43,23 +47,43 @@ import java.util.function.Function;
  * Test bench for testing Differential Evolution algorithm by fitting sinusoidal function on a IMU Data.
  */
 public class TestFitting {
-    private static List<Float> timeData = new ArrayList<>();
-    private static List<Float> measurementData = new ArrayList<>();
+    // Gravity is removed from the absolute acceleration
+    private static final float GRAVITY = 9.83416414f;
+    // Number of measurements used for the fit
+    private static final int ROWS = 1000;
+    // Sum of squared residuals that counts as fitted. The least squares optimum of
+    // the model on the first 1000 rows is 1605.58 (f = 0.00195295), so lower
+    // targets can not be reached.
+    private static final float TARGET_ERROR = 1606.f;
+
+    private static float[] timeData = new float[0];
+    private static float[] measurementData = new float[0];
 
     public static void main(String[] args) {
-        float[] min = {-2.f, -2.f, -2.f, -2.f};
-        float[] max = {+2.f, +2.f, +2.f, +2.f};
+        // Search only frequency and phase, amplitude and offset are solved by least squares
+        boolean variableProjection = true;
+        // Start around the peaks of the periodogram instead of uniformly in [min, max]
+        boolean spectralSeeding = true;
+        // Refine the best individuals by Levenberg-Marquardt every few generations
+        boolean localSearch = true;
+
+        // Genomes [f, phi] or [A, f, phi, D], the phase is periodic and the amplitude
+        // of the measurements is about 3.3
+        float pi = (float) Math.PI;
+        float[] min = variableProjection ? new float[]{-2.f, -pi} : new float[]{-4.f, -2.f, -pi, -2.f};
+        float[] max = variableProjection ? new float[]{+2.f, +pi} : new float[]{+4.f, +2.f, +pi, +2.f};
 
         //Load measurements
         try {
-            readCSV("data/sensordata.csv", timeData, measurementData);
+            readCSV("data/sensordata.csv");
         } catch (IOException e) {
             e.printStackTrace();
             return;
         }
 
         //Minimising function - sum of smallest squared distances to the measurements
-        var comparator = new MinimizeFunctionComparator(squaredDistancesError);
+        var comparator = new MinimizeFunctionComparator(
+                variableProjection ? projectedSquaredDistancesError : squaredDistancesError);
 
 
         float stepsize = 0.4f;
@@ -73,54 +97,237 @@ public class TestFitting {
         var mutation = new DifferentialMutation(new Random());
         mutation.setRandom(new Random());
 
-        var algo = new DifferentialEvolution(min, max, stepsize, crossoverRate, 1, 50, combination,
-                comparator, trialVectorVariation, scaleFactorVariation, mutation, new ComparatorIndividual(1000.f));
+        IndividualFactory indFac;
+        if (spectralSeeding) {
+            var spectral = new SpectralIndividualFactory(timeData, measurementData, 3, variableProjection);
+            spectral.setBounds(min, max);
+            indFac = spectral;
+        } else {
+            indFac = new GenericIndividualFactory(min, max);
+        }
+
+        var algo = new DifferentialEvolution(indFac, stepsize, crossoverRate, 1, 50, combination,
+                comparator, trialVectorVariation, scaleFactorVariation, mutation, new ComparatorIndividual(TARGET_ERROR));
+        if (localSearch) {
+            algo.setLocalSearch(new LevenbergMarquardt(
+                    variableProjection ? projectedSinusoidResiduals : sinusoidResiduals), 10, 3);
+        }
         algo.run();
+
+        if (variableProjection) {
+            float[] best = algo.getBestSoFar().genome();
+            double[] linear = solveLinear(best[0], best[1]);
+            System.out.println("Amplitude: " + linear[0] + " Frequency: " + best[0]
+                    + " Phase: " + best[1] + " Offset: " + linear[1]);
+        }
+        System.out.println("Evaluations: " + algo.getStatistics().getEvaluations());
     }
 
-    private static void readCSV(String filePath, List<Float> timeData, List<Float> measurementData) throws IOException {
-        try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
-            String line;
-            boolean isFirstLine = true;
-            int readlines = 0;
-
-            // read first 1000 lines of file
-            while ((line = br.readLine()) != null && readlines != 1000) {
-                if (isFirstLine) {
-                    isFirstLine = false; // Skip the header line
-                    continue;
-                }
-
-                String[] values = line.split(";");
-                if (values.length >= 5) {
-                    float time = Float.parseFloat(values[0].trim());
-                    float accAbs = Float.parseFloat(values[4].trim()) - 9.83416414f;
-                    timeData.add(time);
-                    measurementData.add(accAbs);
-                    readlines++;
-                }
-            }
+    /**
+     * Replaces the measurements the error functions are computed on.
+     *
+     * @param time time of every measurement
+     * @param measurements measured values, gravity already removed
+     */
+    public static void setMeasurements(float[] time, float[] measurements) {
+        if (time.length != measurements.length) {
+            throw new IllegalArgumentException("time and measurements must have the same length");
         }
+        timeData = time;
+        measurementData = measurements;
     }
 
-    public static Function<Individual,Float> squaredDistancesError =
-            (ind) -> {
-                var x = ind.getGenome().array();
+    /**
+     * Loads time (column 0) and absolute acceleration (column 4) of the first
+     * measurements. The file is memory mapped and parsed in parallel, so the
+     * number of rows can be raised to whole recordings.
+     */
+    private static void readCSV(String filePath) throws IOException {
+        float[][] columns = new ColumnLoader(';')
+                .columns(0, 4)
+                .rows(0, ROWS)
+                .load(Path.of(filePath));
+        timeData = columns[0];
+        measurementData = columns[1];
+        for (int i = 0; i < measurementData.length; i++) {
+            measurementData[i] -= GRAVITY;
+        }
+    }
 
-                float sum = 0.f;
+    /**
+     * Sum of squared residuals r = y - (A*sin(2*pi*f*t+phi) + D).
+     * Aggregates: sum(r^2), sum(r), sum(s*r), sum(s^2), sum(s) with s = sin(2*pi*f*t+phi).
+     * Amplitude and offset enter the model linearly, so changing one of them updates
+     * the aggregates in O(1); changing frequency or phase needs one pass over the samples.
+     */
+    public static IncrementalFunction squaredDistancesError = new IncrementalFunction() {
+        @Override
+        public int aggregateCount() {
+            return 5;
+        }
+
+        @Override
+        public void aggregate(float[] x, double[] sums) {
+            double sumRR = 0, sumR = 0, sumSR = 0, sumSS = 0, sumS = 0;
+
+            int n = timeData.length;
+
+            for (int i = 0; i < n; i++) {
+                float t = timeData[i];
+                float yMeasured = measurementData[i];
+                float s = sinusoidalFunction(t, 1.f, x[1] /*Frequency*/, x[2]/*Phase*/, 0.f);
+                float distance = yMeasured - (x[0] /*Amplitude*/ * s + x[3] /*Offset*/);
+                sumRR += distance * distance;
+                sumR += distance;
+                sumSR += s * distance;
+                sumSS += s * s;
+                sumS += s;
+            }
 
-                int n = timeData.size();
+            sums[0] = sumRR;
+            sums[1] = sumR;
+            sums[2] = sumSR;
+            sums[3] = sumSS;
+            sums[4] = sumS;
+        }
 
-                for (int i = 0; i < n; i++) {
-                    float t = timeData.get(i);
-                    float yMeasured = measurementData.get(i);
-                    float yPredicted = sinusoidalFunction(t, x[0] /*Amplitude*/,x[1] /*Frequency*/, x[2]/*Phase*/, x[3]/*Offset*/);
-                    float distance = yMeasured - yPredicted;
-                    sum += distance * distance;
-                }
+        @Override
+        public void update(float[] x, int gene, float oldValue, double[] sums) {
+            double delta = x[gene] - oldValue;
+            if (gene == 0) {
+                // Amplitude: r' = r - delta*s
+                sums[0] += -2 * delta * sums[2] + delta * delta * sums[3];
+                sums[1] -= delta * sums[4];
+                sums[2] -= delta * sums[3];
+            } else if (gene == 3) {
+                // Offset: r' = r - delta
+                int n = timeData.length;
+                sums[0] += -2 * delta * sums[1] + n * delta * delta;
+                sums[1] -= n * delta;
+                sums[2] -= delta * sums[4];
+            } else {
+                aggregate(x, sums);
+            }
+        }
+
+        @Override
+        public float value(float[] x, double[] sums) {
+            return (float) Math.max(sums[0], 0);
+        }
+    };
 
-                return sum;
-            };
+    /**
+     * Variable projection of the model A*sin(2*pi*f*t+phi) + D: the genome holds only
+     * the nonlinear parameters [f, phi], amplitude and offset are the least squares
+     * solution for them. The error is the sum of squared residuals of that solution.
+     */
+    public static Function<Individual, Float> projectedSquaredDistancesError = ind -> {
+        float[] x = ind.getGenome().array();
+        return (float) solveLinear(x[0], x[1])[2];
+    };
+
+    /**
+     * Residuals r_i = y_i - (A*sin(2*pi*f*t_i+phi) + D) of the genome [A, f, phi, D]
+     * with the analytic Jacobian.
+     */
+    public static ResidualFunction sinusoidResiduals = new ResidualFunction() {
+        @Override
+        public int residualCount() {
+            return timeData.length;
+        }
+
+        @Override
+        public void residuals(double[] x, double[] r) {
+            for (int i = 0; i < timeData.length; i++) {
+                r[i] = measurementData[i] - (x[0] * Math.sin(2 * Math.PI * x[1] * timeData[i] + x[2]) + x[3]);
+            }
+        }
+
+        @Override
+        public boolean jacobian(double[] x, double[][] jacobian) {
+            for (int i = 0; i < timeData.length; i++) {
+                double angle = 2 * Math.PI * x[1] * timeData[i] + x[2];
+                double sin = Math.sin(angle);
+                double cos = Math.cos(angle);
+                jacobian[0][i] = -sin;
+                jacobian[1][i] = -x[0] * cos * 2 * Math.PI * timeData[i];
+                jacobian[2][i] = -x[0] * cos;
+                jacobian[3][i] = -1;
+            }
+            return true;
+        }
+    };
+
+    /**
+     * Residuals of the projected genome [f, phi] with the least squares amplitude
+     * and offset. The Jacobian is approximated by finite differences.
+     */
+    public static ResidualFunction projectedSinusoidResiduals = new ResidualFunction() {
+        @Override
+        public int residualCount() {
+            return timeData.length;
+        }
+
+        @Override
+        public void residuals(double[] x, double[] r) {
+            int n = timeData.length;
+            double[] s = new double[n];
+            double sumS = 0, sumSS = 0, sumSY = 0, sumY = 0;
+            for (int i = 0; i < n; i++) {
+                s[i] = Math.sin(2 * Math.PI * x[0] * timeData[i] + x[1]);
+                sumS += s[i];
+                sumSS += s[i] * s[i];
+                sumSY += s[i] * measurementData[i];
+                sumY += measurementData[i];
+            }
+            double a = 0;
+            double d = n > 0 ? sumY / n : 0;
+            double det = sumSS * n - sumS * sumS;
+            if (det > 1e-9 * n * n) {
+                a = (sumSY * n - sumS * sumY) / det;
+                d = (sumSS * sumY - sumS * sumSY) / det;
+            }
+            for (int i = 0; i < n; i++) {
+                r[i] = measurementData[i] - (a * s[i] + d);
+            }
+        }
+    };
+
+    /**
+     * Solves the 2x2 normal equations of y = A*s + D with s = sin(2*pi*f*t+phi)
+     *
+     *   | sum(s^2)  sum(s) | |A|   | sum(s*y) |
+     *   | sum(s)    n      | |D| = | sum(y)   |
+     *
+     * If the sine is constant over the samples (e.g. f = 0), A and D can not be
+     * separated and the offset alone is fitted.
+     *
+     * @return amplitude, offset and sum of squared residuals
+     */
+    public static double[] solveLinear(float f, float phi) {
+        int n = timeData.length;
+        double sumS = 0, sumSS = 0, sumSY = 0, sumY = 0, sumYY = 0;
+        for (int i = 0; i < n; i++) {
+            double s = sinusoidalFunction(timeData[i], 1.f, f, phi, 0.f);
+            double y = measurementData[i];
+            sumS += s;
+            sumSS += s * s;
+            sumSY += s * y;
+            sumY += y;
+            sumYY += y * y;
+        }
+
+        double a = 0;
+        double d = n > 0 ? sumY / n : 0;
+        double det = sumSS * n - sumS * sumS;
+        if (det > 1e-9 * n * n) {
+            a = (sumSY * n - sumS * sumY) / det;
+            d = (sumSS * sumY - sumS * sumSY) / det;
+        }
+        // At the least squares solution the residuals are orthogonal to s and 1
+        double ssr = Math.max(sumYY - a * sumSY - d * sumY, 0);
+        return new double[]{a, d, ssr};
+    }
 
     private static float sinusoidalFunction(float t, float A, float f, float phi, float D) {
         return (float) (A * Math.sin(2 * Math.PI * f * t + phi) + D);
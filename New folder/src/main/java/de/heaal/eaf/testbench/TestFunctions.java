@@ -1,36 +1,70 @@
 package de.heaal.eaf.testbench;
 
-import de.heaal.eaf.base.Individual;
-
-import java.util.function.Function;
+import de.heaal.eaf.evaluation.IncrementalFunction;
 
 public class TestFunctions {
 
     // Sphere Function n=2
-    public static Function<Individual,Float> evalSphereFunc2D =
-            (ind) -> {
-                var x0 = ind.getGenome().array()[0];
-                var x1 = ind.getGenome().array()[1];
-                return x0*x0 + x1*x1;
-            };
+    public static IncrementalFunction evalSphereFunc2D = new IncrementalFunction() {
+        @Override
+        public int aggregateCount() {
+            return 1;
+        }
+
+        @Override
+        public void aggregate(float[] x, double[] sums) {
+            sums[0] = x[0]*x[0] + x[1]*x[1];
+        }
+
+        @Override
+        public void update(float[] x, int gene, float oldValue, double[] sums) {
+            if (gene < 2) {
+                sums[0] += x[gene]*x[gene] - oldValue*oldValue;
+            }
+        }
+
+        @Override
+        public float value(float[] x, double[] sums) {
+            return (float) sums[0];
+        }
+    };
 
     // Ackley Function n=2
-    public static Function<Individual,Float> evalAckleyFunc2D =
-            (ind) -> {
-                var x = ind.getGenome().array();
+    // Aggregates: sum of squares and sum of cosines
+    public static IncrementalFunction evalAckleyFunc2D = new IncrementalFunction() {
+        @Override
+        public int aggregateCount() {
+            return 2;
+        }
+
+        @Override
+        public void aggregate(float[] x, double[] sums) {
+            double sum1 = 0;
+            double sum2 = 0;
+
+            for (float v : x) {
+                sum1 += v * v;
+                sum2 += Math.cos(2 * Math.PI * v);
+            }
 
-                var n = x.length;
+            sums[0] = sum1;
+            sums[1] = sum2;
+        }
 
-                double sum1 = 0;
-                double sum2 = 0;
+        @Override
+        public void update(float[] x, int gene, float oldValue, double[] sums) {
+            float v = x[gene];
+            sums[0] += v * v - oldValue * oldValue;
+            sums[1] += Math.cos(2 * Math.PI * v) - Math.cos(2 * Math.PI * oldValue);
+        }
 
-                for (float v : x) {
-                    sum1 += v * v;
-                    sum2 += Math.cos(2 * Math.PI * v);
-                }
+        @Override
+        public float value(float[] x, double[] sums) {
+            var n = x.length;
 
-                var term1 = -20*Math.exp(-0.2*Math.sqrt(sum1/n));
-                var term2 = -Math.exp(sum2/n);
-                return (float) (term1 + term2 + 20 + Math.exp(1));
-            };
+            var term1 = -20*Math.exp(-0.2*Math.sqrt(Math.max(sums[0], 0)/n));
+            var term2 = -Math.exp(sums[1]/n);
+            return (float) (term1 + term2 + 20 + Math.exp(1));
+        }
+    };
 }
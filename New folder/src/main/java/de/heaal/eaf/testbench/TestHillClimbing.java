@@ -26,9 +26,12 @@ package de.heaal.eaf.testbench;
 
 import de.heaal.eaf.algorithm.GeneticAlgorithm;
 import de.heaal.eaf.algorithm.HillClimbingAlgorithm;
+import de.heaal.eaf.algorithm.MultiStartHillClimbing;
+import de.heaal.eaf.base.EndCondition;
 import de.heaal.eaf.evaluation.ComparatorIndividual;
 import de.heaal.eaf.base.Individual;
 import de.heaal.eaf.evaluation.MinimizeFunctionComparator;
+import de.heaal.eaf.mutation.GaussianMutation;
 import de.heaal.eaf.mutation.RandomMutation;
 import java.util.function.Function;
 
@@ -49,7 +52,26 @@ public class TestHillClimbing {
         for(int i = 0; i < 10; i++){
             var algo = new HillClimbingAlgorithm(min, max,
                     comparator, new RandomMutation(min, max), new ComparatorIndividual(0.001f));
-            algo.run();
+            // The target is hard to hit by random resets, so limit the run
+            var best = algo.runAnytime(EndCondition.evaluationMaximum(100000));
+            System.out.println("End: " + algo.getEndReason() + ", best " + best.fitness()
+                    + " found after " + best.evaluations() + " evaluations");
         }
+
+        // Steepest ascent: 8 mutants per step with a step size adapted by the one-fifth rule
+        var steepest = new HillClimbingAlgorithm(min, max, comparator,
+                new GaussianMutation(min, max, 0.1f), new ComparatorIndividual(0.001f));
+        steepest.setNeighbourhoodSize(8);
+        var steepestBest = steepest.runAnytime(EndCondition.evaluationMaximum(100000));
+        System.out.println("Steepest ascent end: " + steepest.getEndReason() + ", best " + steepestBest.fitness()
+                + " after " + steepest.getStatistics().getGeneration() + " steps");
+
+        // The same ten chains at once, stagnated chains start again near the best one
+        var multiStart = new MultiStartHillClimbing(min, max, 10, comparator,
+                () -> new RandomMutation(min, max), new ComparatorIndividual(0.001f));
+        multiStart.setRestart(MultiStartHillClimbing.RESTART.NEAR_INCUMBENT, 2000, 0.05f);
+        var best = multiStart.runAnytime(EndCondition.evaluationMaximum(1000000));
+        System.out.println("Multi-start end: " + multiStart.getEndReason() + ", best " + best.fitness()
+                + " found after " + best.evaluations() + " evaluations");
     }
 }
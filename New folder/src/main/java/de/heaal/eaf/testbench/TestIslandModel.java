@@ -0,0 +1,45 @@
+package de.heaal.eaf.testbench;
+
+import de.heaal.eaf.algorithm.DifferentialEvolution;
+import de.heaal.eaf.algorithm.IslandModel;
+import de.heaal.eaf.base.Algorithm;
+import de.heaal.eaf.crossover.DifferentialCrossover;
+import de.heaal.eaf.evaluation.ComparatorIndividual;
+import de.heaal.eaf.evaluation.MinimizeFunctionComparator;
+import de.heaal.eaf.mutation.DifferentialMutation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static de.heaal.eaf.testbench.TestFunctions.evalAckleyFunc2D;
+
+/**
+ * Test bench for the island model with Differential Evolution islands.
+ */
+public class TestIslandModel {
+    public static void main(String[] args) {
+        float[] min = {-5.12f, -5.12f};
+        float[] max = {+5.12f, +5.12f};
+        int islandCount = Runtime.getRuntime().availableProcessors();
+
+        for (var topology : IslandModel.TOPOLOGY.values()) {
+            List<DifferentialEvolution> islands = new ArrayList<>();
+            for (int k = 0; k < Math.max(2, islandCount); k++) {
+                // Every island needs its own comparator and operators
+                var comparator = new MinimizeFunctionComparator(evalAckleyFunc2D);
+                var combination = new DifferentialCrossover();
+                combination.setCrossoverRate(0.5f);
+                islands.add(new DifferentialEvolution(min, max, 0.5f, 0.5f, 1, 20, combination,
+                        comparator, "rnd", "J", new DifferentialMutation(new Random()),
+                        new ComparatorIndividual(0.001f)));
+            }
+            var model = new IslandModel(islands, new MinimizeFunctionComparator(evalAckleyFunc2D),
+                    topology, 10, 2);
+            Algorithm best = model.run();
+            System.out.println(topology + " end: " + best.getEndReason() + ", best "
+                    + best.getStatistics().getBest().getCache() + " after "
+                    + model.getEvaluations() + " evaluations of all islands");
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package de.heaal.eaf.testbench;
+
+import de.heaal.eaf.algorithm.ParticleSwarmOptimization;
+import de.heaal.eaf.base.AlgorithmOptions;
+import de.heaal.eaf.base.BestSoFar;
+import de.heaal.eaf.base.EndCondition;
+import de.heaal.eaf.evaluation.ComparatorIndividual;
+import de.heaal.eaf.evaluation.MinimizeFunctionComparator;
+
+import static de.heaal.eaf.testbench.TestFunctions.evalAckleyFunc2D;
+
+/**
+ * Test bench for the Particle Swarm Optimization.
+ */
+public class TestParticleSwarm {
+    public static void main(String[] args) {
+        float[] min = {-5.12f, -5.12f};
+        float[] max = {+5.12f, +5.12f};
+
+        var comparator = new MinimizeFunctionComparator(evalAckleyFunc2D);
+
+        var options = AlgorithmOptions.builder()
+                .put(AlgorithmOptions.KEYS.N, 40)
+                .put(AlgorithmOptions.KEYS.PSO_S, 0.7298f)
+                .put(AlgorithmOptions.KEYS.PSO_P1MAX, 1.49618f)
+                .put(AlgorithmOptions.KEYS.PSO_P2MAX, 1.49618f)
+                .put(AlgorithmOptions.KEYS.PSO_VMAX, 0.2f)
+                .build();
+
+        for (var topology : ParticleSwarmOptimization.TOPOLOGY.values()) {
+            var algo = new ParticleSwarmOptimization(min, max, options, comparator, new ComparatorIndividual(0.001f));
+            algo.setTopology(topology);
+            BestSoFar best = algo.runAnytime(EndCondition.evaluationMaximum(100000));
+            System.out.println(topology + " end: " + algo.getEndReason() + ", best " + best.fitness()
+                    + " found after " + best.evaluations() + " evaluations");
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package de.heaal.eaf.testbench;
+
+import de.heaal.eaf.algorithm.SHADE;
+import de.heaal.eaf.evaluation.ComparatorIndividual;
+import de.heaal.eaf.evaluation.MinimizeFunctionComparator;
+
+import static de.heaal.eaf.testbench.TestFunctions.evalAckleyFunc2D;
+
+/**
+ * Test bench for the self-adaptive Differential Evolution, with and without
+ * linear population size reduction.
+ */
+public class TestSHADE {
+    public static void main(String[] args) {
+        float[] min = {-5.12f, -5.12f};
+        float[] max = {+5.12f, +5.12f};
+
+        for (boolean reduction : new boolean[]{true, false}) {
+            var comparator = new MinimizeFunctionComparator(evalAckleyFunc2D);
+            var algo = new SHADE(min, max, 20000, comparator, new ComparatorIndividual(0.001f));
+            algo.setPopulationReduction(reduction);
+            algo.run();
+            System.out.println((reduction ? "L-SHADE" : "SHADE") + " end: " + algo.getEndReason()
+                    + " after " + algo.getStatistics().getEvaluations() + " evaluations");
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package de.heaal.eaf.unittest;
+
+import de.heaal.eaf.algorithm.DifferentialEvolution;
+import de.heaal.eaf.base.BestSoFar;
+import de.heaal.eaf.base.EndCondition;
+import de.heaal.eaf.base.Individual;
+import de.heaal.eaf.crossover.DifferentialCrossover;
+import de.heaal.eaf.evaluation.ComparatorIndividual;
+import de.heaal.eaf.evaluation.MinimizeFunctionComparator;
+import de.heaal.eaf.mutation.DifferentialMutation;
+import org.junit.Test;
+
+import java.util.Comparator;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class AnytimeTest {
+
+    private static final float[] MIN = {-5, -5};
+    private static final float[] MAX = {5, 5};
+
+    private static DifferentialEvolution differentialEvolution(Comparator<Individual> cmp) {
+        var de = new DifferentialEvolution(MIN, MAX, 0.5f, 0.5f, 1, 10, new DifferentialCrossover(),
+                cmp, "rnd", "J", new DifferentialMutation(new Random()), new ComparatorIndividual(0));
+        de.setSeed(1);
+        de.setLogDirectory(null);
+        return de;
+    }
+
+    /**
+     * A cancelled run does not cancel the next one.
+     */
+    @Test
+    public void testRunAfterCancel() {
+        DifferentialEvolution[] de = new DifferentialEvolution[1];
+        var sphere = TestProblems.shiftedSphere(1);
+        int[] calls = new int[1];
+        de[0] = differentialEvolution(new MinimizeFunctionComparator(ind -> {
+            if (++calls[0] == 100) {
+                de[0].cancel();
+            }
+            return sphere.getEvaluator().apply(ind);
+        }));
+        de[0].runAnytime(EndCondition.generationMaximum(50));
+        assertEquals(EndCondition.TYPE.CANCELLED, de[0].getEndReason());
+        assertTrue(de[0].getStatistics().getGeneration() < 50);
+
+        de[0].runAnytime(EndCondition.generationMaximum(50));
+        assertEquals(EndCondition.TYPE.GENERATION_MAXIMUM, de[0].getEndReason());
+        assertEquals(50, de[0].getStatistics().getGeneration());
+    }
+
+    /**
+     * The budget of one call does not limit the later calls.
+     */
+    @Test
+    public void testBudgetPerRun() {
+        var de = differentialEvolution(TestProblems.shiftedSphere(1));
+        de.runAnytime(EndCondition.evaluationMaximum(500));
+        assertEquals(EndCondition.TYPE.EVALUATION_MAXIMUM, de.getEndReason());
+        assertTrue(de.getStatistics().getEvaluations() < 600);
+
+        de.runAnytime(EndCondition.evaluationMaximum(5000));
+        assertEquals(EndCondition.TYPE.EVALUATION_MAXIMUM, de.getEndReason());
+        assertTrue(de.getStatistics().getEvaluations() >= 5000);
+
+        // Without a budget only the configured condition ends the run
+        de.setEndCondition(EndCondition.generationMaximum(700));
+        de.run();
+        assertEquals(EndCondition.TYPE.GENERATION_MAXIMUM, de.getEndReason());
+    }
+
+    /**
+     * The published snapshot can not be changed through its genome.
+     */
+    @Test
+    public void testSnapshotGenomeIsCopied() {
+        var de = differentialEvolution(TestProblems.shiftedSphere(1));
+        BestSoFar best = de.runAnytime(EndCondition.generationMaximum(5));
+        float first = best.genome()[0];
+        best.genome()[0] = 999;
+        assertEquals(first, de.getBestSoFar().genome()[0], 0);
+        assertEquals(first, best.toVecN().array()[0], 0);
+    }
+}
@@ -0,0 +1,94 @@
+package de.heaal.eaf.unittest;
+
+import de.heaal.eaf.logger.BinaryLogReader;
+import de.heaal.eaf.logger.BinaryRowWriter;
+import de.heaal.eaf.logger.FrameEncoding;
+import de.heaal.eaf.logger.LogConverter;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class BinaryLogTest {
+
+    private static float[][] rows() {
+        Random rng = new Random(7);
+        float[][] rows = new float[50][];
+        for (int g = 0; g < rows.length; g++) {
+            // Sorted fitness values like a logged population, with duplicates and special values
+            rows[g] = new float[g % 7 == 0 ? 0 : 20 + g % 5];
+            float v = rng.nextFloat() * 10;
+            for (int i = 0; i < rows[g].length; i++) {
+                rows[g][i] = v;
+                if (rng.nextBoolean()) {
+                    v += rng.nextFloat() * 0.1f;
+                }
+            }
+            if (rows[g].length > 2) {
+                rows[g][1] = -0.0f;
+                rows[g][2] = Float.NaN;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Every encoding returns exactly the logged values for any generation,
+     * also if the log was not closed and has no index.
+     */
+    @Test
+    public void testRoundTrip() throws IOException {
+        float[][] rows = rows();
+        for (FrameEncoding encoding : FrameEncoding.values()) {
+            File file = File.createTempFile("runlog", ".eafb");
+            try {
+                BinaryRowWriter writer = new BinaryRowWriter(file.getPath(), encoding, "de_test");
+                for (float[] row : rows) {
+                    writer.write(row, row.length);
+                }
+                writer.close();
+
+                try (BinaryLogReader reader = new BinaryLogReader(file.getPath())) {
+                    assertEquals("de_test", reader.getConfig());
+                    assertEquals(encoding, reader.getEncoding());
+                    assertEquals(rows.length, reader.getGenerations());
+                    for (int g = rows.length - 1; g >= 0; g--) {
+                        assertArrayEquals(encoding + " generation " + g, rows[g], reader.read(g), 0.0f);
+                    }
+                }
+
+                // Cut off the index, the frames are found by scanning
+                byte[] bytes = Files.readAllBytes(file.toPath());
+                Files.write(file.toPath(), Arrays.copyOf(bytes, bytes.length - 8 * rows.length - 16));
+                try (BinaryLogReader reader = new BinaryLogReader(file.getPath())) {
+                    assertEquals(rows.length, reader.getGenerations());
+                    assertArrayEquals(rows[rows.length - 1], reader.read(rows.length - 1), 0.0f);
+                }
+            } finally {
+                file.delete();
+            }
+        }
+    }
+
+    @Test
+    public void testCsvConversion() throws IOException {
+        File csv = File.createTempFile("runlog", ".csv");
+        File bin = File.createTempFile("runlog", ".eafb");
+        File back = File.createTempFile("runlog", ".csv");
+        try {
+            Files.writeString(csv.toPath(), "3.1854115,3.2205691,4.428996\n0.5,0.25,1.0E-5\n");
+            assertEquals(2, LogConverter.csvToBinary(csv.getPath(), bin.getPath(), FrameEncoding.XOR));
+            assertEquals(2, LogConverter.binaryToCsv(bin.getPath(), back.getPath()));
+            assertEquals(Files.readString(csv.toPath()), Files.readString(back.toPath()));
+        } finally {
+            csv.delete();
+            bin.delete();
+            back.delete();
+        }
+    }
+}
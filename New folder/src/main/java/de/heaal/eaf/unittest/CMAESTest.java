@@ -0,0 +1,116 @@
+package de.heaal.eaf.unittest;
+
+import de.heaal.eaf.algorithm.CMAES;
+import de.heaal.eaf.base.EndCondition;
+import de.heaal.eaf.evaluation.ComparatorIndividual;
+import de.heaal.eaf.evaluation.MinimizeFunctionComparator;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class CMAESTest {
+
+    @Rule
+    public TestLogs logs = new TestLogs();
+
+    /**
+     * The full covariance matrix learns a rotated, ill-conditioned quadratic
+     * that the diagonal can not represent.
+     */
+    @Test
+    public void testRotatedEllipsoid() {
+        var cmp = new MinimizeFunctionComparator(ind -> {
+            float[] x = ind.getGenome().array();
+            double s = 0;
+            for (int i = 0; i < x.length - 1; i++) {
+                // Rotated by 45 degrees in each pair, condition 1e4
+                double u = x[i] + x[i + 1];
+                double v = x[i] - x[i + 1];
+                s += u * u + 1e4 * v * v;
+            }
+            return (float) s;
+        });
+        float[] min = new float[5];
+        float[] max = new float[5];
+        Arrays.fill(min, -3);
+        Arrays.fill(max, 3);
+        var cma = new CMAES(min, max, 0.3f, cmp, new ComparatorIndividual(1e-6f));
+        cma.setSeed(12);
+        logs.attach(cma);
+        cma.runAnytime(EndCondition.evaluationMaximum(20000));
+        assertEquals(EndCondition.TYPE.TARGET_VALUE, cma.getEndReason());
+    }
+
+    /**
+     * The separable variant solves a high-dimensional sphere.
+     */
+    @Test
+    public void testSeparableSphere() {
+        var cmp = TestProblems.shiftedSphere(1);
+        float[] min = new float[100];
+        float[] max = new float[100];
+        Arrays.fill(min, -5);
+        Arrays.fill(max, 5);
+        var cma = new CMAES(min, max, 0.3f, cmp, new ComparatorIndividual(1e-4f));
+        cma.setSeparable(true);
+        cma.setSeed(5);
+        logs.attach(cma);
+        cma.runAnytime(EndCondition.evaluationMaximum(100000));
+        assertEquals(EndCondition.TYPE.TARGET_VALUE, cma.getEndReason());
+    }
+
+    /**
+     * Without restarts CMA-ES stops in a local minimum of Rastrigin, IPOP
+     * restarts with growing population reach the global one. A second run of
+     * the same object starts with the initial population size again and
+     * repeats the first run exactly.
+     */
+    @Test
+    public void testRestarts() {
+        var cmp = new MinimizeFunctionComparator(ind -> {
+            double s = 0;
+            for (float x : ind.getGenome().array()) {
+                s += x * x - 10 * Math.cos(2 * Math.PI * x) + 10;
+            }
+            return (float) s;
+        });
+        float[] min = new float[5];
+        float[] max = new float[5];
+        Arrays.fill(min, -5.12f);
+        Arrays.fill(max, 5.12f);
+
+        var plain = new CMAES(min, max, 0.3f, cmp, new ComparatorIndividual(1e-4f));
+        plain.setSeed(1);
+        logs.attach(plain);
+        plain.runAnytime(EndCondition.evaluationMaximum(200000));
+        assertEquals(EndCondition.TYPE.CONVERGENCE_MINIMAL, plain.getEndReason());
+        assertTrue(plain.getStatistics().getBest().getCache() > 0.5f);
+
+        var ipop = new CMAES(min, max, 0.3f, cmp, new ComparatorIndividual(1e-4f));
+        ipop.setRestarts(9);
+        logs.attach(ipop);
+        long[] evaluations = new long[2];
+        for (int run = 0; run < 2; run++) {
+            ipop.setSeed(1);
+            ipop.runAnytime(EndCondition.evaluationMaximum(200000));
+            assertEquals(EndCondition.TYPE.TARGET_VALUE, ipop.getEndReason());
+            evaluations[run] = ipop.getStatistics().getEvaluations();
+        }
+        assertTrue(evaluations[0] > plain.getStatistics().getEvaluations());
+        assertEquals(evaluations[0], evaluations[1]);
+    }
+
+    /**
+     * A run killed in the middle and resumed from its checkpoint continues
+     * with the restored step size, paths and covariance.
+     */
+    @Test
+    public void testKillResume() throws IOException {
+        CheckpointTest.assertKillResumeBitExact(logs, cmp -> new CMAES(new float[]{-5, -5}, new float[]{5, 5}, 0.3f,
+                cmp, new ComparatorIndividual(0)), 200, 60);
+    }
+}
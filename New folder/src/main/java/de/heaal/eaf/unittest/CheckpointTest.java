@@ -0,0 +1,201 @@
+package de.heaal.eaf.unittest;
+
+import de.heaal.eaf.algorithm.DifferentialEvolution;
+import de.heaal.eaf.base.Algorithm;
+import de.heaal.eaf.base.BestSoFar;
+import de.heaal.eaf.base.EndCondition;
+import de.heaal.eaf.base.GenericIndividualFactory;
+import de.heaal.eaf.base.Individual;
+import de.heaal.eaf.crossover.DifferentialCrossover;
+import de.heaal.eaf.evaluation.ComparatorIndividual;
+import de.heaal.eaf.evaluation.MinimizeFunctionComparator;
+import de.heaal.eaf.mutation.DifferentialMutation;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.function.Function;
+
+import static de.heaal.eaf.testbench.TestFunctions.evalAckleyFunc2D;
+import static org.junit.Assert.*;
+
+public class CheckpointTest {
+
+    private static final float[] MIN = {-5, -5};
+    private static final float[] MAX = {5, 5};
+
+    @Rule
+    public TestLogs logs = new TestLogs();
+
+    /**
+     * Small algorithm without log file, every individual takes a random step
+     * and keeps it if it is better.
+     */
+    private static class RandomWalk extends Algorithm {
+
+        RandomWalk(Comparator<Individual> cmp) {
+            this(cmp, 10);
+        }
+
+        RandomWalk(Comparator<Individual> cmp, int generations) {
+            super(cmp, null);
+            setEndCondition(EndCondition.generationMaximum(generations));
+        }
+
+        @Override
+        protected void nextGeneration() {
+            super.nextGeneration();
+            Individual best = population.get(0);
+            for (int i = 0; i < population.size(); i++) {
+                Individual step = population.get(i).copy();
+                for (int d = 0; d < step.getGenome().len(); d++) {
+                    step.getGenome().set(d, step.getGenome().get(d) + (float) rng.nextGaussian() * 0.1f);
+                }
+                if (comparator.compare(step, population.get(i)) > 0) {
+                    population.set(i, step);
+                }
+                if (comparator.compare(population.get(i), best) > 0) {
+                    best = population.get(i);
+                }
+            }
+            updateStatistics(best, Float.NaN);
+        }
+
+        @Override
+        public void run() {
+            try {
+                initialize(new GenericIndividualFactory(new float[]{-5, -5}, new float[]{5, 5}), 5);
+                while (!isTerminationCondition()) {
+                    nextGeneration();
+                }
+            } finally {
+                endRun();
+            }
+        }
+
+        float[] genomes() {
+            float[] all = new float[population.size() * 2];
+            for (int i = 0; i < population.size(); i++) {
+                System.arraycopy(population.get(i).getGenome().array(), 0, all, 2 * i, 2);
+            }
+            return all;
+        }
+    }
+
+    /**
+     * A resumed run ends with exactly the same population as the uninterrupted
+     * run, also if the newest checkpoint file is damaged.
+     */
+    @Test
+    public void testResumeIsBitExact() throws IOException {
+        Path dir = Files.createTempDirectory("checkpoint");
+        String path = dir.resolve("run").toString();
+        try {
+            // The writer keeps only the latest of quickly following snapshots.
+            // A shorter run of the same walk leaves the older checkpoint file.
+            RandomWalk partial = new RandomWalk(new MinimizeFunctionComparator(evalAckleyFunc2D), 6);
+            partial.setSeed(42);
+            partial.setCheckpoint(path, 4);
+            partial.run();
+
+            RandomWalk full = new RandomWalk(new MinimizeFunctionComparator(evalAckleyFunc2D));
+            full.setSeed(42);
+            full.setCheckpoint(path, 4);
+            full.run();
+
+            RandomWalk resumed = new RandomWalk(new MinimizeFunctionComparator(evalAckleyFunc2D));
+            assertTrue(resumed.resume(path));
+            resumed.run();
+            assertArrayEquals(full.genomes(), resumed.genomes(), 0.0f);
+            assertEquals(full.getStatistics().getEvaluations(), resumed.getStatistics().getEvaluations());
+            assertEquals(full.getBestSoFar().fitness(), resumed.getBestSoFar().fitness(), 0.0f);
+
+            // Damage the newest checkpoint, the older one is used instead
+            Path newest = null;
+            long sequence = -1;
+            for (String slot : new String[]{".0", ".1"}) {
+                Path file = Path.of(path + slot);
+                if (Files.exists(file)) {
+                    long s = ByteBuffer.wrap(Files.readAllBytes(file)).getLong(8);
+                    if (s > sequence) {
+                        sequence = s;
+                        newest = file;
+                    }
+                }
+            }
+            byte[] bytes = Files.readAllBytes(newest);
+            bytes[bytes.length - 20] ^= 1;
+            Files.write(newest, bytes);
+
+            RandomWalk older = new RandomWalk(new MinimizeFunctionComparator(evalAckleyFunc2D));
+            assertTrue(older.resume(path));
+            older.run();
+            assertArrayEquals(full.genomes(), older.genomes(), 0.0f);
+        } finally {
+            Files.deleteIfExists(Path.of(path + ".0"));
+            Files.deleteIfExists(Path.of(path + ".1"));
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    /**
+     * Runs the algorithm once without interruption and once killed after
+     * killAfter objective evaluations and resumed from the checkpoint that
+     * the cancellation wrote. Both runs must end with the same best genome
+     * after the same number of generations and evaluations. Algorithms with
+     * state of their own test their writeState() and readState() with it.
+     *
+     * @param logs log directory of the test, also takes the checkpoints
+     * @param create creates the algorithm for the given comparator of the 2D Ackley function
+     */
+    public static void assertKillResumeBitExact(TestLogs logs, Function<Comparator<Individual>, Algorithm> create,
+            int killAfter, int generations) throws IOException {
+        String path = logs.newFolder().toPath().resolve("run").toString();
+        Algorithm[] victim = new Algorithm[1];
+        int[] calls = {0};
+        Function<Comparator<Individual>, Algorithm> setup = cmp -> logs.attach(create.apply(cmp));
+
+        Algorithm full = setup.apply(new MinimizeFunctionComparator(evalAckleyFunc2D));
+        full.setSeed(42);
+        BestSoFar expected = full.runAnytime(EndCondition.generationMaximum(generations));
+
+        Algorithm killed = setup.apply(new MinimizeFunctionComparator(ind -> {
+            if (++calls[0] == killAfter) {
+                victim[0].cancel();
+            }
+            return evalAckleyFunc2D.apply(ind);
+        }));
+        victim[0] = killed;
+        killed.setSeed(42);
+        killed.setCheckpoint(path, 1000);
+        killed.runAnytime(EndCondition.generationMaximum(generations));
+        String name = killed.getClass().getSimpleName();
+        assertEquals(name, EndCondition.TYPE.CANCELLED, killed.getEndReason());
+        assertTrue(name, killed.getStatistics().getGeneration() < generations);
+
+        Algorithm resumed = setup.apply(new MinimizeFunctionComparator(evalAckleyFunc2D));
+        assertTrue(name, resumed.resume(path));
+        BestSoFar actual = resumed.runAnytime(EndCondition.generationMaximum(generations));
+        assertEquals(name, EndCondition.TYPE.GENERATION_MAXIMUM, resumed.getEndReason());
+        assertArrayEquals(name, expected.genome(), actual.genome(), 0.0f);
+        assertEquals(name, expected.fitness(), actual.fitness(), 0.0f);
+        assertEquals(name, full.getStatistics().getEvaluations(), resumed.getStatistics().getEvaluations());
+        assertEquals(name, full.getStatistics().getGeneration(), resumed.getStatistics().getGeneration());
+    }
+
+    /**
+     * Differential evolution has no state of its own, population and random
+     * generator of the checkpoint continue the run exactly.
+     */
+    @Test
+    public void testDifferentialEvolutionKillResume() throws IOException {
+        assertKillResumeBitExact(logs, cmp -> new DifferentialEvolution(MIN, MAX, 0.5f, 0.5f, 1, 10,
+                new DifferentialCrossover(), cmp, "rnd", "J", new DifferentialMutation(new Random()),
+                new ComparatorIndividual(0)), 150, 40);
+    }
+}
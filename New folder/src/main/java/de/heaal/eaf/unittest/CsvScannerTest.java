@@ -0,0 +1,95 @@
+package de.heaal.eaf.unittest;
+
+import de.heaal.eaf.io.ColumnLoader;
+import de.heaal.eaf.io.CsvScanner;
+import de.heaal.eaf.io.FastFloatParser;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class CsvScannerTest {
+
+    private static ByteBuffer bytes(String s) {
+        return ByteBuffer.wrap(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * The fast parser returns exactly the value of Float.parseFloat
+     */
+    @Test
+    public void testParseLikeJdk() {
+        Random rng = new Random(3);
+        String[] fixed = {"0", "-0.0", "1.0E-5", "3.4028235E38", "1.4E-45", "NaN", "-Infinity", "007.50", "\"2.5\""};
+        for (String s : fixed) {
+            assertEquals(s, Float.parseFloat(s.replace("\"", "")), FastFloatParser.parse(bytes(s), 0, s.length()), 0.0f);
+        }
+        for (int i = 0; i < 100000; i++) {
+            float f = Float.intBitsToFloat(rng.nextInt());
+            String s = i % 2 == 0 ? Float.toString(f) : Double.toString(rng.nextDouble() * 100);
+            assertEquals(s, Float.floatToIntBits(Float.parseFloat(s)),
+                    Float.floatToIntBits(FastFloatParser.parse(bytes(s), 0, s.length())));
+        }
+    }
+
+    @Test
+    public void testRowsAndFields() {
+        CsvScanner scanner = new CsvScanner(bytes("\"Time\";\"X\"\r\n1.5;2\r\n\r\n3;-4.25\n5"), ';');
+        assertTrue(scanner.nextRow());
+        assertTrue(scanner.nextField());
+        assertEquals("Time", scanner.stringValue());
+
+        // The rest of the header is skipped
+        float sum = 0;
+        int fields = 0;
+        while (scanner.nextRow()) {
+            while (scanner.nextField()) {
+                sum += scanner.floatValue();
+                fields++;
+            }
+        }
+        assertEquals(5, fields);
+        assertEquals(1.5f + 2 + 3 - 4.25f + 5, sum, 0.0f);
+    }
+
+    /**
+     * Columns, row range and stride give the same values for any chunk size
+     */
+    @Test
+    public void testColumnLoader() throws IOException {
+        StringBuilder sb = new StringBuilder("\uFEFF\"t\";\"a\";\"b\"\r\n");
+        for (int i = 0; i < 500; i++) {
+            sb.append(i).append(';').append(i * 0.5f);
+            if (i != 7) {
+                sb.append(';').append(-i).append("\r\n");
+            } else {
+                sb.append("\r\n\r\n");
+            }
+        }
+        Path file = Files.createTempFile("columns", ".csv");
+        try {
+            Files.writeString(file, sb, StandardCharsets.UTF_8);
+            assertArrayEquals(new String[]{"t", "a", "b"}, ColumnLoader.header(file, ';'));
+
+            for (int chunk : new int[]{7, 100, 1 << 20}) {
+                float[][] cols = new ColumnLoader(';').columns(2, 0).rows(5, 100).stride(2)
+                        .chunkSize(chunk).load(file);
+                assertEquals(50, cols[0].length);
+                for (int k = 0; k < cols[0].length; k++) {
+                    int row = 5 + 2 * k;
+                    assertEquals(row, cols[1][k], 0.0f);
+                    assertEquals(row == 7 ? Float.NaN : -row, cols[0][k], 0.0f);
+                }
+                assertEquals(500, new ColumnLoader(';').chunkSize(chunk).load(file)[0].length);
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package de.heaal.eaf.unittest;
+
+import de.heaal.eaf.algorithm.DirectSearch;
+import de.heaal.eaf.algorithm.NelderMead;
+import de.heaal.eaf.algorithm.PatternSearch;
+import de.heaal.eaf.base.EndCondition;
+import de.heaal.eaf.base.Individual;
+import de.heaal.eaf.evaluation.ComparatorIndividual;
+import de.heaal.eaf.evaluation.MinimizeFunctionComparator;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class DirectSearchTest {
+
+    private static final float[] MIN = {-5, -5, -5};
+    private static final float[] MAX = {5, 5, 5};
+
+    /**
+     * Compares the simplex before and after every step. A step replaces the
+     * worst vertex by the reflection, expansion or one of the contractions,
+     * or it shrinks all vertices towards the best one, or it rebuilds a
+     * collapsed simplex.
+     */
+    private static class ObservedNelderMead extends NelderMead {
+        final int n = MIN.length;
+        final double beta = 1 + 2.0 / n;
+        final double gamma = 0.75 - 1.0 / (2 * n);
+        final double delta = 1 - 1.0 / n;
+        int expansions, shrinks;
+
+        ObservedNelderMead(Comparator<Individual> cmp) {
+            super(MIN, MAX, 0.1f, cmp, new ComparatorIndividual(0));
+            setParallelEvaluation(false);
+        }
+
+        @Override
+        public void nextGeneration() {
+            List<float[]> before = vertices();
+            super.nextGeneration();
+            List<float[]> added = vertices();
+            for (float[] x : before) {
+                added.removeIf(y -> Arrays.equals(x, y));
+            }
+
+            float[] xb = before.get(0);
+            float[] xw = before.get(n);
+            double[] centroid = new double[n];
+            for (int i = 0; i < n; i++) {
+                for (int d = 0; d < n; d++) {
+                    centroid[d] += before.get(i)[d] / n;
+                }
+            }
+            float size = 0;
+            for (float[] x : before) {
+                for (int d = 0; d < n; d++) {
+                    size = Math.max(size, Math.abs(x[d] - xb[d]) / (MAX[d] - MIN[d]));
+                }
+            }
+            if (size < 1e-5f) {
+                assertEquals(n, added.size());
+            } else if (added.size() == 1) {
+                float[] x = added.get(0);
+                if (Arrays.equals(x, along(centroid, xw, beta)) && !Arrays.equals(x, along(centroid, xw, 1))) {
+                    expansions++;
+                } else {
+                    assertTrue(Arrays.equals(x, along(centroid, xw, 1))
+                            || Arrays.equals(x, along(centroid, xw, gamma))
+                            || Arrays.equals(x, along(centroid, xw, -gamma)));
+                }
+            } else {
+                assertEquals(n, added.size());
+                for (int i = 1; i <= n; i++) {
+                    float[] shrunk = new float[n];
+                    for (int d = 0; d < n; d++) {
+                        shrunk[d] = clamp(xb[d] + delta * (before.get(i)[d] - xb[d]), d);
+                    }
+                    assertTrue(added.stream().anyMatch(y -> Arrays.equals(shrunk, y)));
+                }
+                shrinks++;
+            }
+        }
+
+        private List<float[]> vertices() {
+            List<float[]> vertices = new ArrayList<>();
+            for (Individual ind : population) {
+                vertices.add(ind.getGenome().array().clone());
+            }
+            return vertices;
+        }
+
+        private float[] along(double[] centroid, float[] worst, double t) {
+            float[] x = new float[n];
+            for (int d = 0; d < n; d++) {
+                x[d] = clamp(centroid[d] + t * (centroid[d] - worst[d]), d);
+            }
+            return x;
+        }
+
+        private static float clamp(double value, int d) {
+            return (float) Math.max(MIN[d], Math.min(value, Math.nextDown(MAX[d])));
+        }
+    }
+
+    @Rule
+    public TestLogs logs = new TestLogs();
+
+    /**
+     * Nelder-Mead and pattern search reach the minimum of a shifted sphere,
+     * with lazy sequential and with speculative parallel evaluation.
+     */
+    @Test
+    public void testShiftedSphere() {
+        float[] min = {-5, -5, -5, -5};
+        float[] max = {5, 5, 5, 5};
+        for (boolean parallel : new boolean[]{false, true}) {
+            var cmp = TestProblems.shiftedSphere(1.5f);
+            DirectSearch[] algos = {
+                new NelderMead(min, max, 0.1f, cmp, new ComparatorIndividual(1e-6f)),
+                new PatternSearch(min, max, 0.25f, cmp, new ComparatorIndividual(1e-6f))
+            };
+            for (DirectSearch algo : algos) {
+                algo.setSeed(3);
+                logs.attach(algo);
+                algo.setParallelEvaluation(parallel);
+                algo.runAnytime(EndCondition.evaluationMaximum(20000));
+                assertEquals(algo.getClass().getSimpleName(), EndCondition.TYPE.TARGET_VALUE, algo.getEndReason());
+                assertArrayEquals(new float[]{1.5f, 1.5f, 1.5f, 1.5f}, algo.getBestSoFar().genome(), 1e-3f);
+            }
+        }
+    }
+
+    /**
+     * Every Nelder-Mead step moves the simplex as the method prescribes.
+     * Far from the minimum of the sphere the simplex expands, on the
+     * plateaus of a step function it has to shrink.
+     */
+    @Test
+    public void testNelderMeadSteps() {
+        var sphere = new ObservedNelderMead(TestProblems.shiftedSphere(1.5f));
+        sphere.setSeed(3);
+        logs.attach(sphere);
+        sphere.runAnytime(EndCondition.generationMaximum(300));
+        assertTrue(sphere.expansions > 0);
+
+        var steps = new ObservedNelderMead(new MinimizeFunctionComparator(ind -> {
+            float sum = 0;
+            for (float x : ind.getGenome().array()) {
+                sum += (float) Math.floor(4 * Math.abs(x - 1.5f));
+            }
+            return sum;
+        }));
+        steps.setSeed(3);
+        logs.attach(steps);
+        steps.runAnytime(EndCondition.generationMaximum(300));
+        assertTrue(steps.shrinks > 0);
+    }
+}
@@ -0,0 +1,131 @@
+package de.heaal.eaf.unittest;
+
+import de.heaal.eaf.algorithm.SHADE;
+import de.heaal.eaf.base.EndCondition;
+import de.heaal.eaf.base.GenericIndividual;
+import de.heaal.eaf.base.VecN;
+import de.heaal.eaf.distributed.MigrationCoordinator;
+import de.heaal.eaf.distributed.RemoteMigration;
+import de.heaal.eaf.evaluation.ComparatorIndividual;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class DistributedIslandTest {
+
+    @Rule
+    public TestLogs logs = new TestLogs();
+
+    private static final float[] MIN = {-10, -10, -10, -10};
+    private static final float[] MAX = {10, 10, 10, 10};
+
+    /**
+     * Three workers on threads of this JVM exchange migrants over TCP, the
+     * coordinator receives the best result.
+     */
+    @Test
+    public void testWorkersOverTcp() throws Exception {
+        var address = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+        try (var coordinator = new MigrationCoordinator(address, MIN.length, TestProblems.shiftedSphere(-2), 8)) {
+            List<Thread> threads = new ArrayList<>();
+            List<SHADE> workers = new ArrayList<>();
+            for (int k = 0; k < 3; k++) {
+                var shade = new SHADE(MIN, MAX, 20000, TestProblems.shiftedSphere(-2), new ComparatorIndividual(1e-4f));
+                shade.setPopulationSize(20);
+                shade.setParallelEvaluation(false);
+                shade.setSeed(k);
+                logs.attach(shade);
+                workers.add(shade);
+                threads.add(new Thread(() -> {
+                    try {
+                        RemoteMigration.runWorker(shade, coordinator.getAddress(), MIN.length, 5, 2);
+                    } catch (IOException e) {
+                        throw new AssertionError(e);
+                    }
+                }));
+            }
+            threads.forEach(Thread::start);
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            assertTrue(coordinator.awaitWorkers(3, 10000));
+            assertTrue(workers.stream().anyMatch(w -> w.getEndReason() == EndCondition.TYPE.TARGET_VALUE));
+            assertTrue(coordinator.getBest().getCache() < 1e-4f);
+        }
+    }
+
+    /**
+     * Over a Unix domain socket: a worker with the wrong genome length is
+     * rejected, a worker that disconnects without result counts as finished.
+     */
+    @Test
+    public void testRejectedAndCrashedWorkers() throws Exception {
+        var address = UnixDomainSocketAddress.of(Files.createTempDirectory("eaf").resolve("test.sock"));
+        try (var coordinator = new MigrationCoordinator(address, MIN.length, TestProblems.shiftedSphere(-2), 8)) {
+            try {
+                new RemoteMigration(address, MIN.length + 1).close();
+                fail("genome length not checked");
+            } catch (IOException e) {
+                // expected
+            }
+
+            var migration = new RemoteMigration(address, MIN.length);
+            assertEquals(1, coordinator.getWorkerCount());
+            migration.close();
+            assertTrue(coordinator.awaitWorkers(1, 10000));
+            assertEquals(0, coordinator.getWorkerCount());
+
+            // Garbage instead of the handshake does not harm the coordinator
+            try (SocketChannel channel = SocketChannel.open(address)) {
+                new DataOutputStream(Channels.newOutputStream(channel)).writeInt(42);
+            }
+            try (var again = new RemoteMigration(address, MIN.length)) {
+                assertEquals(1, again.getIndex());
+            }
+        }
+        assertFalse(Files.exists(address.getPath()));
+    }
+
+    /**
+     * A worker that ends before its first generation has no best individual,
+     * it still finishes regularly and reaching the target stops the others.
+     */
+    @Test
+    public void testFinishWithoutBest() throws Exception {
+        var address = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+        try (var coordinator = new MigrationCoordinator(address, MIN.length, TestProblems.shiftedSphere(-2), 8)) {
+            var migration = new RemoteMigration(coordinator.getAddress(), MIN.length);
+            migration.finish(null, true);
+            assertNull(migration.getLastError());
+            assertTrue(coordinator.awaitWorkers(1, 10000));
+            assertNull(coordinator.getBest());
+
+            // The stop reaches the next worker with its first exchange
+            var stopped = new CountDownLatch(1);
+            var other = new RemoteMigration(coordinator.getAddress(), MIN.length);
+            other.setStopListener(stopped::countDown);
+            var best = new GenericIndividual(new VecN(new float[]{-2, -2, -2, -2}));
+            best.setCache(0);
+            other.exchange(List.of(best));
+            assertTrue(stopped.await(10, TimeUnit.SECONDS));
+            other.finish(best, false);
+            assertNull(other.getLastError());
+            assertTrue(coordinator.awaitWorkers(2, 10000));
+            assertEquals(0, coordinator.getBest().getCache(), 0);
+        }
+    }
+}
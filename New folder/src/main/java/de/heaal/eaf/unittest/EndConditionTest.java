@@ -0,0 +1,134 @@
+package de.heaal.eaf.unittest;
+
+import de.heaal.eaf.algorithm.DifferentialEvolution;
+import de.heaal.eaf.base.EndCondition;
+import de.heaal.eaf.base.GenericIndividual;
+import de.heaal.eaf.base.Individual;
+import de.heaal.eaf.base.RunStatistics;
+import de.heaal.eaf.base.VecN;
+import de.heaal.eaf.crossover.DifferentialCrossover;
+import de.heaal.eaf.evaluation.ComparatorIndividual;
+import de.heaal.eaf.evaluation.MinimizeFunctionComparator;
+import de.heaal.eaf.mutation.DifferentialMutation;
+import org.junit.Test;
+
+import java.util.Comparator;
+import java.util.Random;
+
+import static de.heaal.eaf.testbench.TestFunctions.evalSphereFunc2D;
+import static org.junit.Assert.*;
+
+public class EndConditionTest {
+
+    private static Individual individual(float x0, float x1) {
+        return new GenericIndividual(new VecN(new float[]{x0, x1}));
+    }
+
+    /**
+     * The target condition is met as soon as the best individual is better than the target,
+     * the generation maximum ends the run if the target is never reached.
+     */
+    @Test
+    public void testTargetOrGenerationMaximum() {
+        Comparator<Individual> cmp = new MinimizeFunctionComparator(evalSphereFunc2D);
+        EndCondition cond = EndCondition.targetValue(cmp, new ComparatorIndividual(0.01f))
+                .or(EndCondition.generationMaximum(3));
+
+        RunStatistics stats = new RunStatistics();
+        stats.start(cmp);
+        Individual ind = individual(1.0f, 1.0f);
+        cmp.compare(ind, ind);
+        stats.offer(ind);
+        assertNull(cond.check(stats));
+
+        Individual better = individual(0.01f, 0.01f);
+        cmp.compare(better, ind);
+        stats.nextGeneration(better, Float.NaN, 0);
+        assertEquals(EndCondition.TYPE.TARGET_VALUE, cond.check(stats));
+
+        stats.start(cmp);
+        for (int i = 0; i < 3; i++) {
+            assertNull(cond.check(stats));
+            stats.nextGeneration(ind, Float.NaN, 0);
+        }
+        assertEquals(EndCondition.TYPE.GENERATION_MAXIMUM, cond.check(stats));
+    }
+
+    /**
+     * The run converged if the best value did not change for the given number of generations.
+     */
+    @Test
+    public void testConvergenceMinimal() {
+        Comparator<Individual> cmp = new MinimizeFunctionComparator(evalSphereFunc2D);
+        EndCondition cond = EndCondition.convergenceMinimal(5, 0.001f);
+
+        RunStatistics stats = new RunStatistics();
+        stats.start(cmp);
+        Individual ind = individual(1.0f, 1.0f);
+        cmp.compare(ind, ind);
+        for (int i = 0; i < 5; i++) {
+            stats.nextGeneration(ind, Float.NaN, 0);
+            assertNull(cond.check(stats));
+        }
+        stats.nextGeneration(ind, Float.NaN, 0);
+        assertEquals(EndCondition.TYPE.CONVERGENCE_MINIMAL, cond.check(stats));
+    }
+
+    /**
+     * A second run starts counting at its own first generation, not at the
+     * generation of the last progress in the previous run.
+     */
+    @Test
+    public void testConvergenceMinimalNextRun() {
+        Comparator<Individual> cmp = new MinimizeFunctionComparator(evalSphereFunc2D);
+        EndCondition cond = EndCondition.convergenceMinimal(5, 0.001f);
+
+        RunStatistics stats = new RunStatistics();
+        stats.start(cmp);
+        Individual ind = individual(1.0f, 1.0f);
+        Individual better = individual(0.5f, 0.5f);
+        cmp.compare(ind, better);
+        for (int i = 0; i < 8; i++) {
+            stats.nextGeneration(i < 4 ? ind : better, Float.NaN, 0);
+            assertNull(cond.check(stats));
+        }
+
+        stats.start(cmp);
+        for (int i = 0; i < 5; i++) {
+            stats.nextGeneration(better, Float.NaN, 0);
+            assertNull(cond.check(stats));
+        }
+        stats.nextGeneration(better, Float.NaN, 0);
+        assertEquals(EndCondition.TYPE.CONVERGENCE_MINIMAL, cond.check(stats));
+    }
+
+    /**
+     * Differential Evolution reports the spread of the population after the
+     * selection of the generation, which the diversity condition checks.
+     */
+    @Test
+    public void testDifferentialEvolutionSpread() {
+        float[] min = {-5, -5};
+        float[] max = {5, 5};
+        int[] checked = new int[1];
+        var de = new DifferentialEvolution(min, max, 0.5f, 0.5f, 1, 10, new DifferentialCrossover(),
+                TestProblems.shiftedSphere(1), "rnd", "J", new DifferentialMutation(new Random()),
+                new ComparatorIndividual(0)) {
+            @Override
+            public void nextGeneration() {
+                super.nextGeneration();
+                float lo = Float.POSITIVE_INFINITY, hi = Float.NEGATIVE_INFINITY;
+                for (Individual ind : population) {
+                    lo = Math.min(lo, ind.getCache());
+                    hi = Math.max(hi, ind.getCache());
+                }
+                assertEquals(hi - lo, statistics.getSpread(), 0);
+                checked[0]++;
+            }
+        };
+        de.setSeed(3);
+        de.setLogDirectory(null);
+        de.runAnytime(EndCondition.generationMaximum(20));
+        assertEquals(20, checked[0]);
+    }
+}
@@ -0,0 +1,74 @@
+package de.heaal.eaf.unittest;
+
+import de.heaal.eaf.base.GenericIndividual;
+import de.heaal.eaf.base.VecN;
+import de.heaal.eaf.testbench.TestFitting;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FittingTest {
+
+    private static final float AMPLITUDE = 2.5f;
+    private static final float FREQUENCY = 1.3f;
+    private static final float PHASE = 0.4f;
+    private static final float OFFSET = 0.7f;
+
+    private final float[] time = new float[500];
+    private final float[] measurements = new float[time.length];
+
+    /**
+     * Noise-free samples of y = A*sin(2*pi*f*t+phi) + D.
+     */
+    @Before
+    public void setUp() {
+        for (int i = 0; i < time.length; i++) {
+            time[i] = i * 0.01f;
+            measurements[i] = (float) (AMPLITUDE * Math.sin(2 * Math.PI * FREQUENCY * time[i] + PHASE) + OFFSET);
+        }
+        TestFitting.setMeasurements(time, measurements);
+    }
+
+    /**
+     * At the true frequency and phase the least squares solution is the true
+     * amplitude and offset, with almost no residual.
+     */
+    @Test
+    public void testSolveLinear() {
+        double[] linear = TestFitting.solveLinear(FREQUENCY, PHASE);
+        assertEquals(AMPLITUDE, linear[0], 1e-4);
+        assertEquals(OFFSET, linear[1], 1e-4);
+        assertEquals(0, linear[2], 1e-6);
+
+        float error = TestFitting.projectedSquaredDistancesError.apply(
+                new GenericIndividual(new VecN(new float[]{FREQUENCY, PHASE})));
+        assertEquals(linear[2], error, 1e-6);
+        // A wrong frequency leaves most of the signal in the residuals
+        assertTrue(TestFitting.solveLinear(2 * FREQUENCY, PHASE)[2] > 100);
+    }
+
+    /**
+     * If the sine is constant over the samples, only the offset is fitted:
+     * it is the mean and the residual is the sum of squared deviations.
+     */
+    @Test
+    public void testConstantSine() {
+        double mean = 0;
+        for (float y : measurements) {
+            mean += y;
+        }
+        mean /= measurements.length;
+        double deviations = 0;
+        for (float y : measurements) {
+            deviations += (y - mean) * (y - mean);
+        }
+
+        for (float phase : new float[]{0, PHASE}) {
+            double[] linear = TestFitting.solveLinear(0, phase);
+            assertEquals(0, linear[0], 0);
+            assertEquals(mean, linear[1], 1e-6);
+            assertEquals(deviations, linear[2], 1e-6 * deviations);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package de.heaal.eaf.unittest;
+
+import de.heaal.eaf.algorithm.HillClimbingAlgorithm;
+import de.heaal.eaf.base.EndCondition;
+import de.heaal.eaf.evaluation.ComparatorIndividual;
+import de.heaal.eaf.mutation.GaussianMutation;
+import org.junit.Rule;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class HillClimbingTest {
+
+    @Rule
+    public TestLogs logs = new TestLogs();
+
+    private static final float[] MIN = {-5, -5, -5, -5, -5};
+    private static final float[] MAX = {5, 5, 5, 5, 5};
+
+    /**
+     * A success rate of one fifth keeps the step size, fewer successes shrink it.
+     */
+    @Test
+    public void testOneFifthRule() {
+        var mutation = new GaussianMutation(MIN, MAX, 0.1f);
+        mutation.adaptStepSize(1, 5);
+        assertEquals(0.1f, mutation.getStepSize(), 1e-7f);
+        mutation.adaptStepSize(0, 5);
+        assertTrue(mutation.getStepSize() < 0.1f);
+        mutation.adaptStepSize(5, 5);
+        assertTrue(mutation.getStepSize() > 0.1f);
+    }
+
+    /**
+     * Sampling 8 mutants per step reaches the target in fewer steps than
+     * the (1+1) step with the same adaptive Gaussian mutation.
+     */
+    @Test
+    public void testNeighbourhoodNeedsFewerSteps() {
+        int[] steps = new int[2];
+        int[] sizes = {1, 8};
+        for (int i = 0; i < 2; i++) {
+            var cmp = TestProblems.shiftedSphere(1);
+            var hc = new HillClimbingAlgorithm(MIN, MAX, cmp, new GaussianMutation(MIN, MAX, 0.1f),
+                    new ComparatorIndividual(1e-4f));
+            hc.setNeighbourhoodSize(sizes[i]);
+            hc.setSeed(11);
+            logs.attach(hc);
+            hc.runAnytime(EndCondition.evaluationMaximum(100000));
+            assertEquals(EndCondition.TYPE.TARGET_VALUE, hc.getEndReason());
+            steps[i] = hc.getStatistics().getGeneration();
+        }
+        assertTrue(steps[0] + " vs " + steps[1], steps[1] < steps[0] / 2);
+    }
+}
@@ -0,0 +1,78 @@
+package de.heaal.eaf.unittest;
+
+import de.heaal.eaf.base.GenericIndividual;
+import de.heaal.eaf.base.VecN;
+import de.heaal.eaf.evaluation.IncrementalFunction;
+import de.heaal.eaf.testbench.TestFitting;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static de.heaal.eaf.testbench.TestFunctions.evalAckleyFunc2D;
+import static de.heaal.eaf.testbench.TestFunctions.evalSphereFunc2D;
+import static org.junit.Assert.*;
+
+public class IncrementalFunctionTest {
+
+    /**
+     * Updating the aggregates gene by gene must give the same value as a full evaluation.
+     */
+    @Test
+    public void testUpdateMatchesFullEvaluation() {
+        assertUpdateMatches(evalSphereFunc2D);
+        assertUpdateMatches(evalAckleyFunc2D);
+    }
+
+    /**
+     * The five aggregates of the sinusoid error follow every gene change:
+     * amplitude and offset by the O(1) update, frequency and phase by a new pass.
+     */
+    @Test
+    public void testSquaredDistancesUpdate() {
+        Random rng = new Random(7);
+        float[] time = new float[200];
+        float[] measurements = new float[time.length];
+        for (int i = 0; i < time.length; i++) {
+            time[i] = i * 0.01f;
+            measurements[i] = (float) (2 * Math.sin(2 * Math.PI * 1.5 * time[i] + 0.3) + 0.5 + 0.1 * rng.nextGaussian());
+        }
+        TestFitting.setMeasurements(time, measurements);
+
+        IncrementalFunction f = TestFitting.squaredDistancesError;
+        float[] genome = new float[]{1.f, 1.f, 0.f, 0.f};
+        double[] aggregates = new double[f.aggregateCount()];
+        f.aggregate(genome, aggregates);
+        double[] expected = new double[f.aggregateCount()];
+        for (int step = 0; step < 200; step++) {
+            int gene = step % genome.length;
+            float oldValue = genome[gene];
+            genome[gene] = rng.nextFloat() * 4 - 2;
+            f.update(genome, gene, oldValue, aggregates);
+
+            f.aggregate(genome, expected);
+            for (int k = 0; k < expected.length; k++) {
+                assertEquals("gene " + gene + " aggregate " + k, expected[k], aggregates[k],
+                        1e-4 * Math.max(1, Math.abs(expected[k])));
+            }
+            assertEquals(f.apply(new GenericIndividual(new VecN(genome.clone()))), f.value(genome, aggregates),
+                    1e-4f * Math.max(1, f.value(genome, aggregates)));
+        }
+    }
+
+    private void assertUpdateMatches(IncrementalFunction f) {
+        Random rng = new Random(42);
+        float[] genome = new float[]{1.5f, -2.0f};
+        double[] aggregates = new double[f.aggregateCount()];
+        f.aggregate(genome, aggregates);
+
+        for (int step = 0; step < 100; step++) {
+            int gene = rng.nextInt(genome.length);
+            float oldValue = genome[gene];
+            genome[gene] = rng.nextFloat() * 10.24f - 5.12f;
+            f.update(genome, gene, oldValue, aggregates);
+
+            float expected = f.apply(new GenericIndividual(new VecN(genome.clone())));
+            assertEquals(expected, f.value(genome, aggregates), 1e-4f);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package de.heaal.eaf.unittest;
+
+import de.heaal.eaf.algorithm.IslandModel;
+import de.heaal.eaf.algorithm.SHADE;
+import de.heaal.eaf.base.Algorithm;
+import de.heaal.eaf.base.EndCondition;
+import de.heaal.eaf.base.GenericIndividual;
+import de.heaal.eaf.base.Individual;
+import de.heaal.eaf.base.VecN;
+import de.heaal.eaf.evaluation.ComparatorIndividual;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class IslandModelTest {
+
+    @Rule
+    public TestLogs logs = new TestLogs();
+
+    private static final float[] MIN = {-10, -10, -10, -10};
+    private static final float[] MAX = {10, 10, 10, 10};
+
+    /**
+     * An immigrant at the optimum takes the place of the worst individual
+     * and ends the run at the next check.
+     */
+    @Test
+    public void testImmigrantReplacesWorst() {
+        var cmp = TestProblems.shiftedSphere(1);
+        var shade = new SHADE(MIN, MAX, 100000, cmp, new ComparatorIndividual(1e-6f));
+        shade.setParallelEvaluation(false);
+        shade.setSeed(3);
+        logs.attach(shade);
+        List<Individual> sent = new ArrayList<>();
+        shade.setMigration(emigrants -> {
+            sent.addAll(emigrants);
+            Individual optimum = new GenericIndividual(new VecN(new float[]{1, 1, 1, 1}));
+            return List.of(optimum);
+        }, 5, 2);
+        shade.run();
+
+        assertEquals(EndCondition.TYPE.TARGET_VALUE, shade.getEndReason());
+        assertEquals(5, shade.getStatistics().getGeneration());
+        assertEquals(2, sent.size());
+        assertTrue(sent.get(0).hasCache());
+    }
+
+    /**
+     * All topologies reach the target, then the other islands are cancelled.
+     */
+    @Test
+    public void testTopologies() {
+        for (var topology : IslandModel.TOPOLOGY.values()) {
+            List<Algorithm> islands = new ArrayList<>();
+            for (int k = 0; k < 3; k++) {
+                var shade = new SHADE(MIN, MAX, 20000, TestProblems.shiftedSphere(1), new ComparatorIndividual(1e-4f));
+                shade.setPopulationSize(20);
+                shade.setParallelEvaluation(false);
+                shade.setSeed(k);
+                logs.attach(shade);
+                islands.add(shade);
+            }
+            var model = new IslandModel(islands, TestProblems.shiftedSphere(1), topology, 5, 2);
+            model.setSeed(1);
+            Algorithm best = model.run();
+            // Another island may hold an equal or better individual, e.g. a
+            // migrant, before its cancellation arrives, so it can be the best
+            assertTrue(topology.toString(), best.getStatistics().getBest().getCache() < 1e-4f);
+            int reached = 0;
+            for (Algorithm island : islands) {
+                assertTrue(island.getEndReason() == EndCondition.TYPE.TARGET_VALUE
+                        || island.getEndReason() == EndCondition.TYPE.CANCELLED);
+                if (island.getEndReason() == EndCondition.TYPE.TARGET_VALUE) {
+                    reached++;
+                }
+            }
+            assertTrue(topology.toString(), reached > 0);
+        }
+    }
+
+    /**
+     * The cancellation at the end of the first run does not reach into the
+     * second one, both runs reach the target.
+     */
+    @Test
+    public void testRunTwice() {
+        List<Algorithm> islands = new ArrayList<>();
+        for (int k = 0; k < 3; k++) {
+            var shade = new SHADE(MIN, MAX, 20000, TestProblems.shiftedSphere(1), new ComparatorIndividual(1e-4f));
+            shade.setPopulationSize(20);
+            shade.setParallelEvaluation(false);
+            shade.setSeed(k);
+            islands.add(logs.attach(shade));
+        }
+        var model = new IslandModel(islands, TestProblems.shiftedSphere(1), IslandModel.TOPOLOGY.RING, 5, 2);
+        model.setSeed(1);
+        for (int run = 0; run < 2; run++) {
+            Algorithm best = model.run();
+            assertTrue("run " + run, best.getStatistics().getBest().getCache() < 1e-4f);
+            assertTrue("run " + run, islands.stream()
+                    .anyMatch(island -> island.getEndReason() == EndCondition.TYPE.TARGET_VALUE));
+            for (Algorithm island : islands) {
+                assertTrue("run " + run, island.getStatistics().getGeneration() > 0);
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package de.heaal.eaf.unittest;
+
+import de.heaal.eaf.algorithm.DifferentialEvolution;
+import de.heaal.eaf.base.EndCondition;
+import de.heaal.eaf.crossover.DifferentialCrossover;
+import de.heaal.eaf.evaluation.ComparatorIndividual;
+import de.heaal.eaf.evaluation.MinimizeFunctionComparator;
+import de.heaal.eaf.localsearch.LevenbergMarquardt;
+import de.heaal.eaf.localsearch.LocalSearch;
+import de.heaal.eaf.localsearch.ResidualFunction;
+import de.heaal.eaf.mutation.DifferentialMutation;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class LocalSearchTest {
+
+    @Rule
+    public TestLogs logs = new TestLogs();
+
+    // Rosenbrock function as least squares problem, minimum at (1, 1)
+    private static class Rosenbrock implements ResidualFunction {
+        private final boolean analytic;
+
+        Rosenbrock(boolean analytic) {
+            this.analytic = analytic;
+        }
+
+        @Override
+        public int residualCount() {
+            return 2;
+        }
+
+        @Override
+        public void residuals(double[] x, double[] r) {
+            r[0] = 10 * (x[1] - x[0] * x[0]);
+            r[1] = 1 - x[0];
+        }
+
+        @Override
+        public boolean jacobian(double[] x, double[][] jacobian) {
+            if (!analytic) {
+                return false;
+            }
+            jacobian[0][0] = -20 * x[0];
+            jacobian[0][1] = -1;
+            jacobian[1][0] = 10;
+            jacobian[1][1] = 0;
+            return true;
+        }
+    }
+
+    /**
+     * Levenberg-Marquardt reaches the minimum of the Rosenbrock valley from
+     * the classic start point, with analytic and finite difference Jacobian.
+     */
+    @Test
+    public void testLevenbergMarquardt() {
+        for (boolean analytic : new boolean[]{true, false}) {
+            var lm = new LevenbergMarquardt(new Rosenbrock(analytic));
+            lm.setMaxIterations(100);
+            LocalSearch.Result result = lm.refine(new float[]{-1.2f, 1.0f});
+            assertArrayEquals(new float[]{1.0f, 1.0f}, result.genome(), 1e-4f);
+            assertTrue(result.evaluations() > 1);
+        }
+    }
+
+    /**
+     * A residual that is NaN beyond x0 = 1 makes the forward difference
+     * column NaN at the start point. The search must give up and return
+     * the start point instead of damping forever.
+     */
+    @Test(timeout = 10000)
+    public void testNaNJacobian() {
+        var lm = new LevenbergMarquardt(new ResidualFunction() {
+            @Override
+            public int residualCount() {
+                return 2;
+            }
+
+            @Override
+            public void residuals(double[] x, double[] r) {
+                r[0] = Math.sqrt(1 - x[0]);
+                r[1] = x[1];
+            }
+        });
+        LocalSearch.Result result = lm.refine(new float[]{1.0f, 0.5f});
+        assertArrayEquals(new float[]{1.0f, 0.5f}, result.genome(), 0);
+    }
+
+    /**
+     * A local search that proposes a point far outside the box. The
+     * individual that replaces the best must be clamped to the box, the
+     * proposed point itself is never evaluated.
+     */
+    @Test
+    public void testPolishClampedToBox() {
+        float[] min = {-5, -5};
+        float[] max = {5, 5};
+        float border = Math.nextDown(5f);
+        boolean[] seen = new boolean[2]; // clamped point, unclamped point
+        var cmp = new MinimizeFunctionComparator(ind -> {
+            float[] x = ind.getGenome().array();
+            seen[0] |= x[0] == border && x[1] == border;
+            seen[1] |= x[0] == 20 && x[1] == 20;
+            return (x[0] - 10) * (x[0] - 10) + (x[1] - 10) * (x[1] - 10);
+        });
+        var mutation = new DifferentialMutation(new Random(1));
+        var algo = new DifferentialEvolution(min, max, 0.5f, 0.5f, 1, 10, new DifferentialCrossover(),
+                cmp, "rnd", "S", mutation, new ComparatorIndividual(0));
+        algo.setLocalSearch(genome -> new LocalSearch.Result(new float[]{20, 20}, 1), 1, 1);
+        algo.setSeed(1);
+        logs.attach(algo);
+        algo.runAnytime(EndCondition.evaluationMaximum(100));
+        assertTrue(seen[0]);
+        assertFalse(seen[1]);
+    }
+}
@@ -0,0 +1,93 @@
+package de.heaal.eaf.unittest;
+
+import de.heaal.eaf.algorithm.MultiStartHillClimbing;
+import de.heaal.eaf.base.EndCondition;
+import de.heaal.eaf.base.Individual;
+import de.heaal.eaf.evaluation.ComparatorIndividual;
+import de.heaal.eaf.evaluation.MinimizeFunctionComparator;
+import de.heaal.eaf.mutation.RandomMutation;
+import org.junit.Rule;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class MultiStartHillClimbingTest {
+
+    @Rule
+    public TestLogs logs = new TestLogs();
+
+    private static final float[] MIN = {-10, -10, -10};
+    private static final float[] MAX = {10, 10, 10};
+
+    @Test
+    public void testReachesTarget() {
+        var cmp = TestProblems.shiftedSphere(4);
+        var mshc = new MultiStartHillClimbing(MIN, MAX, 8, cmp, () -> new RandomMutation(MIN, MAX),
+                new ComparatorIndividual(1e-3f));
+        mshc.setStepsPerGeneration(200);
+        mshc.setSeed(2);
+        logs.attach(mshc);
+        mshc.runAnytime(EndCondition.evaluationMaximum(500000));
+        assertEquals(EndCondition.TYPE.TARGET_VALUE, mshc.getEndReason());
+        assertTrue(mshc.getIncumbent().getCache() < 1e-3f);
+        assertEquals(mshc.getIncumbent().getCache(), mshc.getStatistics().getBest().getCache(), 0);
+    }
+
+    /**
+     * Every chain has its own random stream, so parallel runs with the same
+     * seed end with the same incumbent, also with restarts.
+     */
+    @Test
+    public void testDeterministicWithRestarts() {
+        Individual[] incumbents = new Individual[2];
+        for (int i = 0; i < 2; i++) {
+            var mshc = new MultiStartHillClimbing(MIN, MAX, 6, TestProblems.shiftedSphere(4), () -> new RandomMutation(MIN, MAX),
+                    new ComparatorIndividual(0));
+            mshc.setStepsPerGeneration(50);
+            mshc.setRestart(MultiStartHillClimbing.RESTART.NEAR_INCUMBENT, 30, 0.01f);
+            mshc.setParallelEvaluation(true);
+            mshc.setSeed(7);
+            logs.attach(mshc);
+            mshc.runAnytime(EndCondition.generationMaximum(20));
+            incumbents[i] = mshc.getIncumbent();
+        }
+        assertArrayEquals(incumbents[0].getGenome().array(), incumbents[1].getGenome().array(), 0);
+    }
+
+    /**
+     * The chains reach the plateau of the target with different genomes in
+     * the same generation. Parallel and sequential runs with the same seed
+     * still stop with the same incumbent after the same evaluations.
+     */
+    @Test
+    public void testDeterministicWithTarget() {
+        Individual[] incumbents = new Individual[3];
+        long[] evaluations = new long[3];
+        int[] generations = new int[3];
+        for (int i = 0; i < 3; i++) {
+            var cmp = new MinimizeFunctionComparator(ind -> {
+                float sum = 0;
+                for (float x : ind.getGenome().array()) {
+                    sum += (float) Math.floor(Math.abs(x - 4));
+                }
+                return sum;
+            });
+            var mshc = new MultiStartHillClimbing(MIN, MAX, 8, cmp, () -> new RandomMutation(MIN, MAX),
+                    new ComparatorIndividual(0.5f));
+            mshc.setStepsPerGeneration(100);
+            mshc.setParallelEvaluation(i < 2);
+            mshc.setSeed(5);
+            logs.attach(mshc);
+            mshc.runAnytime(EndCondition.evaluationMaximum(500000));
+            assertEquals(EndCondition.TYPE.TARGET_VALUE, mshc.getEndReason());
+            incumbents[i] = mshc.getIncumbent();
+            evaluations[i] = mshc.getStatistics().getEvaluations();
+            generations[i] = mshc.getStatistics().getGeneration();
+        }
+        for (int i = 1; i < 3; i++) {
+            assertArrayEquals(incumbents[0].getGenome().array(), incumbents[i].getGenome().array(), 0);
+            assertEquals(evaluations[0], evaluations[i]);
+            assertEquals(generations[0], generations[i]);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package de.heaal.eaf.unittest;
+
+import de.heaal.eaf.algorithm.Particle;
+import de.heaal.eaf.algorithm.ParticleSwarmOptimization;
+import de.heaal.eaf.base.AlgorithmOptions;
+import de.heaal.eaf.base.AlgorithmOptionsException;
+import de.heaal.eaf.base.EndCondition;
+import de.heaal.eaf.base.Individual;
+import de.heaal.eaf.evaluation.ComparatorIndividual;
+import de.heaal.eaf.evaluation.MinimizeFunctionComparator;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class ParticleSwarmTest {
+
+    @Rule
+    public TestLogs logs = new TestLogs();
+
+    /**
+     * Every topology solves a shifted sphere, synchronous and asynchronous.
+     * The log name holds the topology and the update mode.
+     */
+    @Test
+    public void testTopologies() {
+        float[] min = {-10, -10, -10, -10, -10};
+        float[] max = {10, 10, 10, 10, 10};
+        var options = AlgorithmOptions.builder()
+                .put(AlgorithmOptions.KEYS.N, 25)
+                .build();
+        for (var topology : ParticleSwarmOptimization.TOPOLOGY.values()) {
+            for (boolean asynchronous : new boolean[]{false, true}) {
+                var cmp = TestProblems.shiftedSphere(-2);
+                var pso = new ParticleSwarmOptimization(min, max, options, cmp, new ComparatorIndividual(1e-4f));
+                pso.setTopology(topology);
+                pso.setAsynchronous(asynchronous);
+                pso.setSeed(8);
+                logs.attach(pso);
+                pso.runAnytime(EndCondition.evaluationMaximum(50000));
+                assertEquals(topology + " " + asynchronous, EndCondition.TYPE.TARGET_VALUE, pso.getEndReason());
+                assertTrue(pso.getStatistics().getBest() instanceof Particle);
+                String name = "pso_25_0.7298f_1.49618f_1.49618f_0.2f_" + topology.toString().toLowerCase()
+                        + (asynchronous ? "_async" : "");
+                assertTrue(name, new File(logs.getRoot(), name + "/" + name + ".csv").isFile());
+            }
+        }
+    }
+
+    @Test(expected = AlgorithmOptionsException.class)
+    public void testInvalidVmax() {
+        var options = AlgorithmOptions.builder()
+                .put(AlgorithmOptions.KEYS.PSO_VMAX, 0.0f)
+                .build();
+        new ParticleSwarmOptimization(new float[]{0}, new float[]{1}, options,
+                new MinimizeFunctionComparator(ind -> 0f), new ComparatorIndividual(0));
+    }
+
+    /**
+     * With inertia 1 and large acceleration coefficients the velocities grow
+     * without bound, but every component stays within PSO_VMAX * (max - min).
+     */
+    @Test
+    public void testVelocityClamp() {
+        float[] min = {-10, -10, -10};
+        float[] max = {10, 10, 10};
+        float vmax = 0.1f * 20;
+        var options = AlgorithmOptions.builder()
+                .put(AlgorithmOptions.KEYS.N, 20)
+                .put(AlgorithmOptions.KEYS.PSO_S, 1.0f)
+                .put(AlgorithmOptions.KEYS.PSO_P1MAX, 2.5f)
+                .put(AlgorithmOptions.KEYS.PSO_P2MAX, 2.5f)
+                .put(AlgorithmOptions.KEYS.PSO_VMAX, 0.1f)
+                .build();
+        for (boolean asynchronous : new boolean[]{false, true}) {
+            float[] largest = {0};
+            var pso = new ParticleSwarmOptimization(min, max, options, TestProblems.shiftedSphere(-2),
+                    new ComparatorIndividual(0)) {
+                @Override
+                public void nextGeneration() {
+                    super.nextGeneration();
+                    for (Individual ind : population) {
+                        for (float v : ((Particle) ind).getVelocity().array()) {
+                            largest[0] = Math.max(largest[0], Math.abs(v));
+                        }
+                    }
+                }
+            };
+            pso.setAsynchronous(asynchronous);
+            pso.setParallelEvaluation(false);
+            pso.setSeed(4);
+            logs.attach(pso);
+            pso.runAnytime(EndCondition.generationMaximum(100));
+            assertTrue(largest[0] <= vmax);
+            // The clamp was active
+            assertEquals(vmax, largest[0], 0);
+        }
+    }
+
+    /**
+     * A run killed in the middle and resumed from its checkpoint continues
+     * with the restored velocities and personal bests.
+     */
+    @Test
+    public void testKillResume() throws IOException {
+        CheckpointTest.assertKillResumeBitExact(logs, cmp -> {
+            var options = AlgorithmOptions.builder().put(AlgorithmOptions.KEYS.N, 15).build();
+            var pso = new ParticleSwarmOptimization(new float[]{-5, -5}, new float[]{5, 5}, options, cmp,
+                    new ComparatorIndividual(0));
+            pso.setParallelEvaluation(false);
+            return pso;
+        }, 300, 40);
+    }
+}
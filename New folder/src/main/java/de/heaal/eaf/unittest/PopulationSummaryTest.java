@@ -0,0 +1,124 @@
+package de.heaal.eaf.unittest;
+
+import de.heaal.eaf.algorithm.DifferentialEvolution;
+import de.heaal.eaf.base.EndCondition;
+import de.heaal.eaf.base.GenericIndividual;
+import de.heaal.eaf.base.Individual;
+import de.heaal.eaf.base.Population;
+import de.heaal.eaf.base.PopulationSummary;
+import de.heaal.eaf.base.VecN;
+import de.heaal.eaf.crossover.DifferentialCrossover;
+import de.heaal.eaf.evaluation.ComparatorIndividual;
+import de.heaal.eaf.evaluation.MinimizeFunctionComparator;
+import de.heaal.eaf.mutation.DifferentialMutation;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class PopulationSummaryTest {
+
+    @Rule
+    public TestLogs logs = new TestLogs();
+
+    /**
+     * Four individuals on the corners of a square of side 64 far from the
+     * origin, with the fitness 4, 1, 3, 2.
+     */
+    @Test
+    public void testSummarize() {
+        float[][] genomes = {{1e9f, 1e9f}, {1e9f + 64, 1e9f}, {1e9f, 1e9f + 64}, {1e9f + 64, 1e9f + 64}};
+        float[] fitness = {4, 1, 3, 2};
+        Population population = new Population(genomes.length);
+        for (int i = 0; i < genomes.length; i++) {
+            Individual ind = new GenericIndividual(new VecN(genomes[i]));
+            ind.setCache(fitness[i]);
+            population.add(ind);
+        }
+
+        var summary = new PopulationSummary(0, 0.5f, 0.75f, 1);
+        assertEquals(PopulationSummary.FIXED_COLUMNS + 4, summary.columns());
+        float[] row = new float[summary.columns()];
+        summary.summarize(population, new MinimizeFunctionComparator(ind -> {
+            throw new AssertionError("the fitness is cached");
+        }), 3, 40, row);
+
+        assertEquals(3, row[0], 0);
+        assertEquals(40, row[1], 0);
+        assertEquals(1, row[PopulationSummary.BEST_COLUMN], 0);
+        assertEquals(4, row[3], 0);
+        assertEquals(2.5f, row[4], 0);
+        // Population standard deviation sqrt(5/4)
+        assertEquals(1.118034f, row[5], 1e-6f);
+        // Every corner is 32 away from the centroid in both dimensions
+        assertEquals(2048, row[6], 0);
+        // Quantile q is the fitness of rank ceil(q*n) in ascending order
+        assertArrayEquals(new float[]{1, 2, 3, 4},
+                new float[]{row[7], row[8], row[9], row[10]}, 0);
+    }
+
+    /**
+     * The diversity of a converged population far from the origin is the
+     * spread of the genomes, not the rounding error of their squares.
+     */
+    @Test
+    public void testDiversityFarFromOrigin() {
+        Population population = new Population(3);
+        for (int i = 0; i < 3; i++) {
+            Individual ind = new GenericIndividual(new VecN(new float[]{1e7f + i}));
+            ind.setCache(i);
+            population.add(ind);
+        }
+        float[] row = new float[PopulationSummary.FIXED_COLUMNS];
+        new PopulationSummary().summarize(population, new MinimizeFunctionComparator(ind -> 0.f), 0, 0, row);
+        // Squared distances 1, 0 and 1 to the centroid 1e7 + 1
+        assertEquals(2.f / 3, row[6], 1e-6f);
+    }
+
+    /**
+     * In summary mode a run writes one summary row per logged generation and
+     * the fitness of every individual every few generations.
+     */
+    @Test
+    public void testSummaryLog() throws IOException {
+        var de = new DifferentialEvolution(new float[]{-5, -5}, new float[]{5, 5}, 0.5f, 0.5f, 1, 10,
+                new DifferentialCrossover(), TestProblems.shiftedSphere(1), "rnd", "J",
+                new DifferentialMutation(new Random()), new ComparatorIndividual(0));
+        de.setSeed(1);
+        de.setSummaryLog(5, 0.5f);
+        logs.attach(de);
+        de.runAnytime(EndCondition.generationMaximum(10));
+
+        List<String[]> rows = read("_summary.csv");
+        // Generations 0 to 9 and the final population
+        assertEquals(11, rows.size());
+        for (int g = 0; g < rows.size(); g++) {
+            assertEquals(PopulationSummary.FIXED_COLUMNS + 1, rows.get(g).length);
+            assertEquals(g, Float.parseFloat(rows.get(g)[0]), 0);
+        }
+        assertEquals(de.getStatistics().getBest().getCache(),
+                Float.parseFloat(rows.get(10)[PopulationSummary.BEST_COLUMN]), 0);
+
+        List<String[]> dumps = read("_summary_full.csv");
+        assertEquals(3, dumps.size());
+        for (int k = 0; k < dumps.size(); k++) {
+            assertEquals(5 * k, Float.parseFloat(dumps.get(k)[0]), 0);
+            assertEquals(1 + 10, dumps.get(k).length);
+        }
+    }
+
+    private List<String[]> read(String suffix) throws IOException {
+        Path file;
+        try (Stream<Path> files = Files.walk(logs.getRoot().toPath())) {
+            file = files.filter(p -> p.toString().endsWith(suffix)).findFirst().orElseThrow();
+        }
+        return Files.readAllLines(file).stream().map(line -> line.split(",")).toList();
+    }
+}
@@ -0,0 +1,61 @@
+package de.heaal.eaf.unittest;
+
+import de.heaal.eaf.analysis.RunLogAnalyzer;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class RunLogAnalyzerTest {
+
+    /**
+     * Summary logs are recognised by their name, also with the counter of
+     * Logger.createLogFile, and only their best column counts. The full
+     * dumps next to them are skipped.
+     */
+    @Test
+    public void testSummaryLog() throws IOException {
+        Path data = Files.createTempDirectory("runlogs");
+        Path dir = Files.createDirectory(data.resolve("de_summary"));
+        // generation, evaluations, best, worst, mean, std, diversity, quantile
+        Files.writeString(dir.resolve("de_summary.csv"),
+                "0,10,5.0,9.0,7.0,1.0,0.5,6.0\n"
+                + "1,20,3.0,8.0,6.0,1.0,0.25,5.0\n"
+                + "2,30,0.0005,7.0,5.0,1.0,0.125,4.0\n");
+        Files.writeString(dir.resolve("de_summary1.csv"),
+                "0,10,4.0,9.0,7.0,1.0,0.5,6.0\n"
+                + "1,20,2.0,8.0,6.0,1.0,0.25,5.0\n"
+                + "2,30,1.0,7.0,5.0,1.0,0.125,4.0\n");
+        Files.writeString(dir.resolve("de_summary_full.csv"), "0,0.0,0.0\n");
+
+        assertTrue(RunLogAnalyzer.isSummaryLog(dir.resolve("de_summary.csv")));
+        assertTrue(RunLogAnalyzer.isSummaryLog(dir.resolve("de_summary12.eafb")));
+        assertFalse(RunLogAnalyzer.isSummaryLog(dir.resolve("de_rnd_1_bin.csv")));
+        assertFalse(RunLogAnalyzer.isSummaryLog(dir.resolve("de_summary_full.csv")));
+        assertArrayEquals(new float[]{5.0f, 3.0f, 0.0005f},
+                RunLogAnalyzer.bestPerGeneration(dir.resolve("de_summary.csv")), 0);
+
+        List<RunLogAnalyzer.ConfigSummary> summaries = new RunLogAnalyzer(0.001f).analyze(data);
+        assertEquals(1, summaries.size());
+        RunLogAnalyzer.ConfigSummary summary = summaries.get(0);
+        assertEquals(2, summary.runs());
+        assertEquals(1, summary.solved());
+        assertArrayEquals(new float[]{4.5f, 2.5f, 0.50025f}, summary.median(), 1e-6f);
+        assertArrayEquals(new float[]{0, 0, 0.5f}, summary.ecdf(), 0);
+    }
+
+    /**
+     * In logs with the fitness of every individual the best value of a row is
+     * its minimum.
+     */
+    @Test
+    public void testFullLog() throws IOException {
+        Path file = Files.createTempFile("de_best", ".csv");
+        Files.writeString(file, "3.0,1.0,2.0\n0.5,4.0,0.25\n");
+        assertArrayEquals(new float[]{1.0f, 0.25f}, RunLogAnalyzer.bestPerGeneration(file), 0);
+    }
+}
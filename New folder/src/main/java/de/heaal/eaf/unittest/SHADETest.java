@@ -0,0 +1,178 @@
+package de.heaal.eaf.unittest;
+
+import de.heaal.eaf.algorithm.SHADE;
+import de.heaal.eaf.base.EndCondition;
+import de.heaal.eaf.base.Individual;
+import de.heaal.eaf.evaluation.ComparatorIndividual;
+import de.heaal.eaf.evaluation.MinimizeFunctionComparator;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SHADETest {
+
+    private static final float[] MIN = {-10, -10, -10, -10, -10};
+    private static final float[] MAX = {10, 10, 10, 10, 10};
+
+    // Records population size, evaluations, archive size and memories after every generation
+    private static class ObservedSHADE extends SHADE {
+        final List<long[]> sizes = new ArrayList<>();
+        final List<float[]> memoryF = new ArrayList<>();
+        // Evaluations of the population and the trial vectors, without the target
+        long used;
+
+        ObservedSHADE(long maxEvaluations, Comparator<Individual> cmp) {
+            // The target 0 is never strictly beaten, the whole budget is used
+            super(MIN, MAX, maxEvaluations, cmp, new ComparatorIndividual(0));
+            setParallelEvaluation(false);
+        }
+
+        @Override
+        public void nextGeneration() {
+            used += used == 0 ? 2 * population.size() : population.size();
+            super.nextGeneration();
+            sizes.add(new long[]{population.size(), used, getArchiveSize()});
+            memoryF.add(getMemoryF());
+        }
+    }
+
+    @Rule
+    public TestLogs logs = new TestLogs();
+
+    /**
+     * SHADE and L-SHADE solve a shifted sphere within the budget.
+     */
+    @Test
+    public void testShiftedSphere() {
+        float[] min = {-10, -10, -10, -10, -10};
+        float[] max = {10, 10, 10, 10, 10};
+        for (boolean reduction : new boolean[]{true, false}) {
+            var cmp = TestProblems.shiftedSphere(3);
+            var shade = new SHADE(min, max, 20000, cmp, new ComparatorIndividual(1e-4f));
+            shade.setPopulationReduction(reduction);
+            shade.setParallelEvaluation(false);
+            shade.setSeed(5);
+            logs.attach(shade);
+            shade.run();
+            assertEquals("reduction " + reduction, EndCondition.TYPE.TARGET_VALUE, shade.getEndReason());
+            assertTrue(shade.getStatistics().getEvaluations() < 20000);
+        }
+    }
+
+    /**
+     * With the optimum in the corner of the upper bounds the population
+     * crowds against them, repaired genes still stay below the bounds.
+     */
+    @Test
+    public void testRepairBelowUpperBound() {
+        float[] min = {-10, 1, 5, 5.12f};
+        float[] max = {10, 5, 5.12f, 10};
+        var cmp = new MinimizeFunctionComparator(ind -> {
+            float[] x = ind.getGenome().array();
+            float sum = 0;
+            for (int d = 0; d < x.length; d++) {
+                assertTrue("gene " + d + " = " + x[d], x[d] >= min[d] && x[d] < max[d]);
+                sum += max[d] - x[d];
+            }
+            return sum;
+        });
+        var shade = new SHADE(min, max, 20000, cmp, new ComparatorIndividual(0));
+        shade.setParallelEvaluation(false);
+        shade.setSeed(2);
+        logs.attach(shade);
+        shade.run();
+        assertEquals(20000, shade.getStatistics().getEvaluations(), 20);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidPBest() {
+        new SHADE(new float[]{0}, new float[]{1}, 1000,
+                new MinimizeFunctionComparator(ind -> 0f), new ComparatorIndividual(0)).setPBest(0);
+    }
+
+    /**
+     * L-SHADE shrinks the population linearly in the used evaluations from
+     * the initial size to 4, SHADE keeps its size. The archive never holds
+     * more than archiveRate times the population size.
+     */
+    @Test
+    public void testPopulationReductionAndArchive() {
+        for (boolean reduction : new boolean[]{true, false}) {
+            var shade = new ObservedSHADE(10000, TestProblems.shiftedSphere(3));
+            shade.setPopulationSize(90);
+            shade.setArchiveRate(1.4f);
+            shade.setPopulationReduction(reduction);
+            shade.setSeed(5);
+            logs.attach(shade);
+            shade.run();
+            assertEquals(EndCondition.TYPE.EVALUATION_MAXIMUM, shade.getEndReason());
+
+            long previous = 90;
+            boolean full = false;
+            for (long[] g : shade.sizes) {
+                long expected = reduction ? Math.round(90 + (4 - 90) * Math.min(1, g[1] / 10000.0)) : 90;
+                assertEquals(expected, g[0]);
+                assertTrue(g[0] <= previous);
+                assertTrue(g[2] <= Math.round(1.4f * g[0]));
+                previous = g[0];
+                full |= g[2] == Math.round(1.4f * g[0]);
+            }
+            assertEquals(reduction ? 4 : 90, previous);
+            // The bound was reached, so the archive was actually trimmed
+            assertTrue(full);
+        }
+    }
+
+    /**
+     * The memory starts at F = 0.5. Only generations with successful trial
+     * vectors write an entry, each with a Lehmer mean of sampled F in (0, 1].
+     */
+    @Test
+    public void testMemoryFollowsSuccesses() {
+        var shade = new ObservedSHADE(3000, TestProblems.shiftedSphere(3));
+        shade.setPopulationSize(30);
+        shade.setMemorySize(4);
+        shade.setSeed(9);
+        logs.attach(shade);
+        shade.run();
+
+        float[] before = {0.5f, 0.5f, 0.5f, 0.5f};
+        int moved = 0;
+        for (float[] memory : shade.memoryF) {
+            int changed = 0;
+            for (int h = 0; h < memory.length; h++) {
+                assertTrue(memory[h] > 0 && memory[h] <= 1);
+                if (memory[h] != before[h]) {
+                    changed++;
+                }
+            }
+            // At most the one entry at the memory index moves per generation
+            assertTrue(changed <= 1);
+            moved += changed;
+            before = memory;
+        }
+        // On the sphere most generations improve some individuals
+        assertTrue(moved > shade.memoryF.size() / 2);
+        assertNotEquals(0.5f, shade.memoryF.get(0)[0], 0);
+    }
+
+    /**
+     * A run killed in the middle and resumed from its checkpoint continues
+     * with the restored memories, archive and evaluation count.
+     */
+    @Test
+    public void testKillResume() throws IOException {
+        CheckpointTest.assertKillResumeBitExact(logs, cmp -> {
+            var shade = new SHADE(new float[]{-5, -5}, new float[]{5, 5}, 4000, cmp, new ComparatorIndividual(0));
+            shade.setPopulationSize(20);
+            shade.setParallelEvaluation(false);
+            return shade;
+        }, 700, 60);
+    }
+}
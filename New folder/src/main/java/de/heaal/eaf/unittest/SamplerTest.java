@@ -0,0 +1,88 @@
+package de.heaal.eaf.unittest;
+
+import de.heaal.eaf.base.GenericIndividualFactory;
+import de.heaal.eaf.base.Individual;
+import de.heaal.eaf.evaluation.MinimizeFunctionComparator;
+import de.heaal.eaf.sampling.LatinHypercubeSampler;
+import de.heaal.eaf.sampling.Sampler;
+import de.heaal.eaf.sampling.SobolSampler;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class SamplerTest {
+
+    // Without the random shift the sequences start at their reference values
+    private static final Random NO_SHIFT = new Random() {
+        @Override
+        public double nextDouble() {
+            return 0;
+        }
+    };
+
+    /**
+     * The unshifted Sobol sequence starts with the origin, the center and
+     * the centers of the quadrants.
+     */
+    @Test
+    public void testSobolStart() {
+        float[][] points = new float[4][2];
+        new SobolSampler().sample(points, NO_SHIFT);
+        assertArrayEquals(new float[]{0.0f, 0.0f}, points[0], 0.0f);
+        assertArrayEquals(new float[]{0.5f, 0.5f}, points[1], 0.0f);
+        assertArrayEquals(new float[]{0.75f, 0.25f}, points[2], 0.0f);
+        assertArrayEquals(new float[]{0.25f, 0.75f}, points[3], 0.0f);
+    }
+
+    /**
+     * In every dimension each of the n strata contains exactly one point of
+     * a batch of n points, n = 2^k for Sobol.
+     */
+    @Test
+    public void testStratification() {
+        Random rng = new Random(4);
+        assertStratified(new SobolSampler(), 64, SobolSampler.MAX_DIMENSION, rng);
+        assertStratified(new LatinHypercubeSampler(), 50, 7, rng);
+    }
+
+    private static void assertStratified(Sampler sampler, int n, int dim, Random rng) {
+        float[][] points = new float[n][dim];
+        sampler.sample(points, rng);
+        for (int d = 0; d < dim; d++) {
+            boolean[] hit = new boolean[n];
+            float shift = sampler instanceof SobolSampler ? points[0][d] : 0;
+            for (float[] point : points) {
+                float u = point[d] - shift;
+                u -= (float) Math.floor(u);
+                int stratum = Math.min((int) (u * n + 1e-4f), n - 1);
+                assertFalse("dimension " + d + ", stratum " + stratum, hit[stratum]);
+                hit[stratum] = true;
+            }
+        }
+    }
+
+    /**
+     * Opposition-based initialization keeps the better individual of each
+     * pair and counts both evaluations.
+     */
+    @Test
+    public void testOpposition() {
+        var cmp = new MinimizeFunctionComparator(ind -> ind.getGenome().get(0) + ind.getGenome().get(1));
+        var fac = new GenericIndividualFactory(new float[]{-1, 0}, new float[]{1, 4});
+        fac.setRandom(new Random(2));
+        fac.setOpposition(cmp);
+
+        List<Individual> individuals = fac.create(20);
+        assertEquals(20, individuals.size());
+        assertEquals(40, cmp.getEvaluations());
+        for (Individual ind : individuals) {
+            // Sum of a genome and its opposite is 4, so the better sum is at most 2
+            assertTrue(ind.getCache() <= 2.0f + 1e-5f);
+            assertTrue(ind.getGenome().get(0) >= -1 && ind.getGenome().get(0) < 1);
+            assertTrue(ind.getGenome().get(1) >= 0 && ind.getGenome().get(1) < 4);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package de.heaal.eaf.unittest;
+
+import de.heaal.eaf.base.Individual;
+import de.heaal.eaf.testbench.SpectralIndividualFactory;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class SpectralIndividualFactoryTest {
+
+    private static final float AMPLITUDE = 2.5f;
+    private static final float FREQUENCY = 1.3f;
+    private static final float PHASE = 0.4f;
+    private static final float OFFSET = 0.7f;
+
+    private static final float[] TIME = new float[1001];
+    private static final float[] MEASUREMENTS = new float[TIME.length];
+
+    static {
+        // 10 s of y = A*sin(2*pi*f*t+phi) + D at 100 Hz with a little noise
+        Random rng = new Random(3);
+        for (int i = 0; i < TIME.length; i++) {
+            TIME[i] = i * 0.01f;
+            MEASUREMENTS[i] = (float) (AMPLITUDE * Math.sin(2 * Math.PI * FREQUENCY * TIME[i] + PHASE) + OFFSET
+                    + 0.05 * rng.nextGaussian());
+        }
+    }
+
+    /**
+     * The strongest peak of the periodogram is the sinusoid of the
+     * measurements, its seed is the sinusoid itself.
+     */
+    @Test
+    public void testFirstSeed() {
+        // The periodogram is sampled every 1/(4*10 s) from 0.1 Hz, so the grid contains f
+        var factory = new SpectralIndividualFactory(TIME, MEASUREMENTS, 3, false, 0.1f, 5f);
+        List<float[]> seeds = factory.getSeeds();
+        assertEquals(3, seeds.size());
+        float[] seed = seeds.get(0);
+        assertEquals(AMPLITUDE, seed[0], 0.02f);
+        assertEquals(FREQUENCY, seed[1], 1e-4f);
+        assertEquals(PHASE, seed[2], 0.02f);
+        assertEquals(OFFSET, seed[3], 0.01f);
+
+        // The seeds can not be changed from outside
+        seed[0] = 0;
+        assertEquals(AMPLITUDE, factory.getSeeds().get(0)[0], 0.02f);
+        try {
+            factory.getSeeds().clear();
+            fail("seeds are modifiable");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+    }
+
+    /**
+     * Created genomes stay in the bounds, also when the jitter around the
+     * seeds is larger than the box.
+     */
+    @Test
+    public void testBounds() {
+        float pi = (float) Math.PI;
+        float[] min = {2.45f, 1.29f, -pi, 0.69f};
+        float[] max = {2.55f, 1.31f, pi, 0.71f};
+        var factory = new SpectralIndividualFactory(TIME, MEASUREMENTS, 3, false);
+        factory.setBounds(min, max);
+        factory.setRandom(new Random(1));
+        assertArrayEquals(min, factory.getLowerBounds(), 0);
+        assertArrayEquals(max, factory.getUpperBounds(), 0);
+        for (Individual ind : factory.create(1000)) {
+            float[] genome = ind.getGenome().array();
+            for (int j = 0; j < genome.length; j++) {
+                assertTrue("gene " + j + " = " + genome[j], genome[j] >= min[j] && genome[j] < max[j]);
+            }
+        }
+
+        // Genomes [f, phi] of the variable projection
+        var projected = new SpectralIndividualFactory(TIME, MEASUREMENTS, 3, true);
+        projected.setBounds(new float[]{1.29f, -pi}, new float[]{1.31f, pi});
+        projected.setRandom(new Random(1));
+        for (Individual ind : projected.create(1000)) {
+            float[] genome = ind.getGenome().array();
+            assertEquals(2, genome.length);
+            assertTrue(genome[0] >= 1.29f && genome[0] < 1.31f);
+            assertTrue(genome[1] >= -pi && genome[1] < pi);
+        }
+    }
+}
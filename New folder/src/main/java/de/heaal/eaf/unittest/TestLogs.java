@@ -0,0 +1,20 @@
+package de.heaal.eaf.unittest;
+
+import de.heaal.eaf.base.Algorithm;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Log directory of a test, deleted after the test. Algorithms attached to
+ * it write their run logs there instead of into the data directory.
+ */
+public class TestLogs extends TemporaryFolder {
+
+    /**
+     * @param algorithm algorithm of the test
+     * @return the algorithm, logging into this directory
+     */
+    public <A extends Algorithm> A attach(A algorithm) {
+        algorithm.setLogDirectory(getRoot().getPath());
+        return algorithm;
+    }
+}
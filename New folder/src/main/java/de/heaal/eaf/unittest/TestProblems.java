@@ -0,0 +1,29 @@
+package de.heaal.eaf.unittest;
+
+import de.heaal.eaf.evaluation.MinimizeFunctionComparator;
+
+/**
+ * Objectives shared by the tests of the algorithms.
+ */
+public class TestProblems {
+
+    private TestProblems() {
+    }
+
+    /**
+     * Sphere with the minimum 0 at (offset, ..., offset). Every call returns
+     * a new comparator, so evaluations are counted per algorithm.
+     *
+     * @param offset coordinate of the minimum in every dimension
+     * @return comparator that minimizes sum (x_d - offset)^2
+     */
+    public static MinimizeFunctionComparator shiftedSphere(float offset) {
+        return new MinimizeFunctionComparator(ind -> {
+            float sum = 0;
+            for (float x : ind.getGenome().array()) {
+                sum += (x - offset) * (x - offset);
+            }
+            return sum;
+        });
+    }
+}
@@ -3,7 +3,13 @@ import org.junit.runner.JUnitCore;
 
 public class TestRunner {
     public static void main(String[] args) {
-        org.junit.runner.Result result = JUnitCore.runClasses(GeneticAlgorithmTest.class);
+        org.junit.runner.Result result = JUnitCore.runClasses(GeneticAlgorithmTest.class, VecNTest.class,
+                IncrementalFunctionTest.class, EndConditionTest.class, AnytimeTest.class, BinaryLogTest.class,
+                CsvScannerTest.class, CheckpointTest.class, SamplerTest.class,
+                FittingTest.class, SpectralIndividualFactoryTest.class, LocalSearchTest.class, DirectSearchTest.class, CMAESTest.class,
+                ParticleSwarmTest.class, SHADETest.class, IslandModelTest.class,
+                DistributedIslandTest.class, MultiStartHillClimbingTest.class,
+                HillClimbingTest.class, RunLogAnalyzerTest.class, PopulationSummaryTest.class);
         if (result.wasSuccessful()) {
             System.out.println("All tests passed!");
         } else {
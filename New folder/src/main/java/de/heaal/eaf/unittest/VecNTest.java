@@ -0,0 +1,74 @@
+package de.heaal.eaf.unittest;
+
+import de.heaal.eaf.algorithm.Particle;
+import de.heaal.eaf.base.GenericIndividual;
+import de.heaal.eaf.base.Individual;
+import de.heaal.eaf.base.VecN;
+import de.heaal.eaf.crossover.SinglePointCrossover;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class VecNTest {
+
+    /**
+     * A copy shares the values with its origin until one of them is written.
+     * Writing must not be visible in the other vector.
+     */
+    @Test
+    public void testCopyOnWrite() {
+        VecN vec = new VecN(new float[]{1.0f, 2.0f, 3.0f});
+        VecN copy = vec.copy();
+        assertSame(vec.array(), copy.array());
+
+        copy.set(0, 5.0f);
+        assertNotSame(vec.array(), copy.array());
+        assertArrayEquals(new float[]{1.0f, 2.0f, 3.0f}, vec.array(), 0.0f);
+        assertArrayEquals(new float[]{5.0f, 2.0f, 3.0f}, copy.array(), 0.0f);
+
+        VecN other = vec.copy();
+        vec.add(new VecN(new float[]{1.0f, 1.0f, 1.0f}));
+        assertArrayEquals(new float[]{2.0f, 3.0f, 4.0f}, vec.array(), 0.0f);
+        assertArrayEquals(new float[]{1.0f, 2.0f, 3.0f}, other.array(), 0.0f);
+    }
+
+    /**
+     * Copies of individuals and particles must be independent of the original.
+     */
+    @Test
+    public void testIndividualCopy() {
+        Individual ind = new GenericIndividual(new VecN(new float[]{1.0f, 2.0f}));
+        Individual copy = ind.copy();
+        copy.mul(2.0f);
+        assertArrayEquals(new float[]{1.0f, 2.0f}, ind.getGenome().array(), 0.0f);
+        assertArrayEquals(new float[]{2.0f, 4.0f}, copy.getGenome().array(), 0.0f);
+
+        Particle particle = new Particle(new VecN(new float[]{1.0f, 2.0f}));
+        Particle particleCopy = particle.copy();
+        particleCopy.getVelocity().set(1, 3.0f);
+        particleCopy.getTempPosition().set(0, 4.0f);
+        assertArrayEquals(new float[]{0.0f, 0.0f}, particle.getVelocity().array(), 0.0f);
+        assertArrayEquals(new float[]{1.0f, 2.0f}, particle.getTempPosition().array(), 0.0f);
+    }
+
+    /**
+     * The single point crossover must write into the child and leave the parents untouched.
+     */
+    @Test
+    public void testSinglePointCrossoverKeepsParents() {
+        SinglePointCrossover comb = new SinglePointCrossover();
+        comb.setRandom(new Random(1));
+
+        Individual[] parents = new Individual[]{
+                new GenericIndividual(new VecN(new float[]{0.0f, 0.0f, 0.0f, 0.0f})),
+                new GenericIndividual(new VecN(new float[]{1.0f, 1.0f, 1.0f, 1.0f}))
+        };
+        Individual child = comb.combine(parents);
+
+        assertArrayEquals(new float[]{0.0f, 0.0f, 0.0f, 0.0f}, parents[0].getGenome().array(), 0.0f);
+        assertArrayEquals(new float[]{1.0f, 1.0f, 1.0f, 1.0f}, parents[1].getGenome().array(), 0.0f);
+        assertEquals(1.0f, child.getGenome().get(3), 0.0f);
+    }
+}